@@ -1,7 +1,5 @@
 package com.ljw.sockautobot;
 
-import com.ljw.sockautobot.service.AutoTradeService;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -11,17 +9,13 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableScheduling
 public class SockAutoBotApplication implements CommandLineRunner {
 
-
-    @Autowired
-            private AutoTradeService tradeService;
-
     public static void main(String[] args) {
         SpringApplication.run(SockAutoBotApplication.class, args);
     }
 
     @Override
     public void run(String... args) throws Exception {
+        // KIS 초기화는 TradingSessionScheduler 가 기동 완료 후 비동기로 (첫 틱은 스케줄러가)
         System.out.println("자동매매 봇 시작...");
-        tradeService.autoTrade();
     }
 }
@@ -0,0 +1,37 @@
+package com.ljw.sockautobot.api;
+
+/**
+ * KIS 응답이 rt_cd != 0 이거나 HTTP 오류일 때
+ * msgCd 는 KIS msg_cd (예: EGW00201 초당 거래건수 초과, EGW00123 토큰 만료)
+ */
+public class KisApiException extends RuntimeException {
+
+    public static final String RATE_LIMITED = "EGW00201";
+    public static final String TOKEN_EXPIRED = "EGW00123";
+
+    private final int status;
+    private final String msgCd;
+
+    public KisApiException(int status, String msgCd, String message) {
+        super("[" + status + " " + msgCd + "] " + message);
+        this.status = status;
+        this.msgCd = msgCd == null ? "" : msgCd;
+    }
+
+    public int getStatus() { return status; }
+
+    public String getMsgCd() { return msgCd; }
+
+    public boolean isRateLimited() { return RATE_LIMITED.equals(msgCd); }
+
+    public boolean isTokenExpired() { return TOKEN_EXPIRED.equals(msgCd); }
+
+    /**
+     * 서버 쪽 일시 오류 — 5xx 인데 msg_cd 가 없는 경우 (게이트웨이 HTML, 빈 본문 등)
+     * msg_cd 가 있으면 KIS 가 판단해서 거절한 것이라 HTTP 500 이어도 서버 장애로 보지 않는다
+     */
+    public boolean isServerError() { return status >= 500 && msgCd.isEmpty(); }
+
+    /** 같은 요청을 다시 보내도 되는 경우 (리액티브 재시도와 서킷브레이커가 같은 기준) */
+    public boolean isTransient() { return isRateLimited() || isServerError(); }
+}
@@ -3,27 +3,55 @@ package com.ljw.sockautobot.api;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 접근 토큰 발급 + 파일 캐시 (appKey 마다 파일 하나)
+ *
+ * - 기본 계정(kis.app-key) → kis.token-file (기존 그대로)
+ * - 그 외 appKey → 같은 폴더의 token-<appKey 해시 8자리>.json
+ * 같은 appKey 로 동시에 불려도 발급 요청은 한 번만 나간다.
+ */
 @Slf4j
 @Component
 public class KisAuthClientApi {
 
-    private static final String TOKEN_URL = "https://openapivts.koreainvestment.com:29443/oauth2/tokenP";
-    private static final String TOKEN_FILE_PATH = "token.json";
+    @Value("${kis.token-file:token.json}") private String tokenFilePath;
+    @Value("${kis.app-key}") private String primaryAppKey;
+    @Value("${kis.base-url}") private String baseUrl;
+    @Value("${kis.token-url:/oauth2/tokenP}") private String tokenPath;
 
     private final RestTemplate restTemplate = new RestTemplate();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
 
     public String getAccessToken(String appKey, String appSecret) throws JSONException {
+        return getAccessToken(appKey, appSecret, LocalDateTime.now());
+    }
+
+    /** validUntil 까지 유효한 토큰 (장 시작 전 워밍업 — 장중 만료 방지) */
+    public String getAccessToken(String appKey, String appSecret, LocalDateTime validUntil) throws JSONException {
+        synchronized (locks.computeIfAbsent(appKey, k -> new Object())) {
+            return issueOrReuse(appKey, appSecret, validUntil);
+        }
+    }
+
+    private String issueOrReuse(String appKey, String appSecret, LocalDateTime validUntil) throws JSONException {
         // ✅ 1. 기존 토큰이 있으면 읽기 (appKey 검사 포함)
-        String cachedToken = readCachedToken(appKey);
+        String cachedToken = readCachedToken(appKey, validUntil);
         if (cachedToken != null) {
             log.info("🔁 기존 토큰 재사용");
             log.info(cachedToken);
@@ -43,7 +71,7 @@ public class KisAuthClientApi {
 
         HttpEntity<String> entity = new HttpEntity<>(body.toString(), headers);
 
-        ResponseEntity<String> response = restTemplate.postForEntity(TOKEN_URL, entity, String.class);
+        ResponseEntity<String> response = restTemplate.postForEntity(baseUrl + tokenPath, entity, String.class);
 
         if (!response.getStatusCode().is2xxSuccessful()) {
             log.error("❌ 토큰 요청 실패: HTTP {}", response.getStatusCode());
@@ -74,10 +102,37 @@ public class KisAuthClientApi {
         return token;
     }
 
+    // ✅ 서버가 토큰 만료(EGW00123)를 알려오면 캐시 폐기 → 다음 호출에서 재발급
+    public void invalidateToken() {
+        invalidateToken(primaryAppKey);
+    }
+
+    public void invalidateToken(String appKey) {
+        try {
+            Files.deleteIfExists(tokenFile(appKey));
+            log.warn("🗑️ 만료된 토큰 캐시 삭제 → 재발급 예정");
+        } catch (IOException e) {
+            log.error("⚠️ 토큰 파일 삭제 실패: {}", e.getMessage());
+        }
+    }
+
+    // ✅ appKey 별 토큰 파일
+    private Path tokenFile(String appKey) {
+        Path primary = Paths.get(tokenFilePath);
+        if (appKey.equals(primaryAppKey)) return primary;
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(appKey.getBytes(StandardCharsets.UTF_8));
+            return primary.resolveSibling("token-" + HexFormat.of().formatHex(digest, 0, 4) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     // ✅ 토큰 읽기 (appKey 검사 포함)
-    private String readCachedToken(String currentAppKey) {
+    private String readCachedToken(String currentAppKey, LocalDateTime validUntil) {
+        Path path = tokenFile(currentAppKey);
         try {
-            Path path = Paths.get(TOKEN_FILE_PATH);
             if (!Files.exists(path)) return null;
 
             String content = Files.readString(path);
@@ -86,6 +141,7 @@ public class KisAuthClientApi {
             JSONObject json = new JSONObject(content);
 
             String savedAppKey = json.optString("appkey", "");
+            String savedBaseUrl = json.optString("base_url", baseUrl);
             String token = json.optString("access_token", "");
             String expiresAtStr = json.optString("expires_at", "");
 
@@ -95,8 +151,8 @@ public class KisAuthClientApi {
                 return null;
             }
 
-            // ✅ appKey가 다르면 무조건 새 토큰 발급
-            if (!savedAppKey.equals(currentAppKey)) {
+            // ✅ appKey 또는 접속 서버(시뮬레이터 등)가 다르면 무조건 새 토큰 발급
+            if (!savedAppKey.equals(currentAppKey) || !savedBaseUrl.equals(baseUrl)) {
                 log.warn("🔄 appKey 변경 감지 → 새 토큰 발급");
                 Files.deleteIfExists(path);
                 return null;
@@ -105,7 +161,7 @@ public class KisAuthClientApi {
             LocalDateTime expiresAt = LocalDateTime.parse(expiresAtStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
             // ✅ 만료 5분 전이면 새 토큰 발급
-            if (LocalDateTime.now().isBefore(expiresAt.minusMinutes(5))) {
+            if (validUntil.isBefore(expiresAt.minusMinutes(5))) {
                 return token;
             } else {
                 log.warn("⏰ 토큰 만료됨 → 재발급 필요");
@@ -116,7 +172,7 @@ public class KisAuthClientApi {
         } catch (Exception e) {
             log.error("⚠️ 토큰 파일 읽기 실패: {}", e.getMessage());
             try {
-                Files.deleteIfExists(Paths.get(TOKEN_FILE_PATH));
+                Files.deleteIfExists(path);
             } catch (IOException ignore) {}
             return null;
         }
@@ -127,13 +183,15 @@ public class KisAuthClientApi {
         try {
             JSONObject json = new JSONObject();
             json.put("appkey", appKey);
+            json.put("base_url", baseUrl);
             json.put("access_token", token);
             json.put("expires_at", expiresAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
 
-            Files.writeString(Paths.get(TOKEN_FILE_PATH), json.toString(),
+            Path path = tokenFile(appKey);
+            Files.writeString(path, json.toString(),
                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
 
-            log.info("💾 토큰 파일 저장 완료: {}", TOKEN_FILE_PATH);
+            log.info("💾 토큰 파일 저장 완료: {}", path);
         } catch (IOException e) {
             log.error("❌ 토큰 파일 저장 실패: {}", e.getMessage());
         }
@@ -1,20 +1,23 @@
 package com.ljw.sockautobot.api;
 
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @Component
 public class KisBalanceClientApi {
-    private static final String BALANCE_URL =
-            "https://openapivts.koreainvestment.com:29443/uapi/domestic-stock/v1/trading/inquire-balance";
+    private static final String BALANCE_PATH = "/uapi/domestic-stock/v1/trading/inquire-balance";
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${kis.base-url}") private String baseUrl;
+
+    private final RestTemplate restTemplate = KisHttp.restTemplate();
 
     public JSONObject getBalance(String token, String appKey, String appSecret, String accountNo) {
         try {
@@ -30,7 +33,7 @@ public class KisBalanceClientApi {
             String cano = clean.substring(0, 8);
             String acntCd = clean.substring(8, 10);
 
-            String url = UriComponentsBuilder.fromHttpUrl(BALANCE_URL)
+            String url = UriComponentsBuilder.fromHttpUrl(baseUrl + BALANCE_PATH)
                     .queryParam("CANO", cano)
                     .queryParam("ACNT_PRDT_CD", acntCd)
                     .queryParam("AFHR_FLPR_YN", "N")
@@ -54,9 +57,10 @@ public class KisBalanceClientApi {
             HttpEntity<String> entity = new HttpEntity<>(headers);
             ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
 
-            JSONObject json = new JSONObject(response.getBody());
-            return json;
+            return KisHttp.parse(response);
 
+        } catch (KisApiException | ResourceAccessException e) {
+            throw e; // 과부하/타임아웃은 호출자(서킷브레이커)가 판단
         } catch (Exception e) {
             e.printStackTrace();
             return null;
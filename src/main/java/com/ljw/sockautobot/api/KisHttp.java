@@ -0,0 +1,83 @@
+package com.ljw.sockautobot.api;
+
+import org.json.JSONObject;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * KIS 공통 RestTemplate
+ *
+ * - 연결/응답 타임아웃 3초 (타임아웃은 ResourceAccessException)
+ * - HTTP 오류 본문의 msg_cd / msg1 을 KisApiException 으로 올린다 (EGW00201 등 분류용)
+ * - HTTP 200 이라도 게이트웨이 오류(msg_cd EGW*)면 parse 에서 같은 예외로 (업무 오류 rt_cd != 0 은 JSON 그대로)
+ */
+public final class KisHttp {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    private KisHttp() {}
+
+    public static RestTemplate restTemplate() {
+        return new RestTemplateBuilder()
+                .setConnectTimeout(TIMEOUT)
+                .setReadTimeout(TIMEOUT)
+                .errorHandler(new KisErrorHandler())
+                .build();
+    }
+
+
+    /** 응답 본문 → JSON (블로킹/리액티브 클라이언트 공용) */
+    public static JSONObject parse(ResponseEntity<String> response) {
+        String raw = response.getBody();
+        return parse(response.getStatusCode().value(), raw == null ? "" : raw);
+    }
+
+    public static JSONObject parse(int status, String raw) {
+        JSONObject json;
+        try {
+            json = raw.isBlank() ? new JSONObject() : new JSONObject(raw);
+        } catch (Exception e) {
+            throw new KisApiException(status, "", "JSON 파싱 실패");
+        }
+
+        String msgCd = json.optString("msg_cd", "");
+        if (status >= 400 || msgCd.startsWith("EGW")) {
+            throw new KisApiException(status, msgCd, json.optString("msg1", "HTTP " + status));
+        }
+        return json;
+    }
+
+
+    private static final class KisErrorHandler implements ResponseErrorHandler {
+
+        @Override
+        public boolean hasError(ClientHttpResponse response) throws IOException {
+            return response.getStatusCode().isError();
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) throws IOException {
+            int status = response.getStatusCode().value();
+            String raw = new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+
+            String msgCd = "";
+            String msg = "HTTP " + status;
+            try {
+                JSONObject json = new JSONObject(raw);
+                msgCd = json.optString("msg_cd", "");
+                msg = json.optString("msg1", msg);
+            } catch (Exception ignore) {
+                // 게이트웨이 HTML 등 — 상태코드로만 판정
+            }
+
+            throw new KisApiException(status, msgCd, msg);
+        }
+    }
+}
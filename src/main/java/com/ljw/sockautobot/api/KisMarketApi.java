@@ -10,6 +10,9 @@ import org.springframework.web.client.RestTemplate;
 @Component
 public class KisMarketApi {
 
+    public static final String KOSPI_PROXY = "069500";   // KODEX200
+    public static final String KOSDAQ_PROXY = "229200";  // KODEX 코스닥150
+
     private final RestTemplate restTemplate = new RestTemplate();
     private final KisPriceClientApi priceApi;
 
@@ -19,12 +22,12 @@ public class KisMarketApi {
 
     // ⭐ KOSPI = KODEX200 (069500)
     public double getKospiIndex(String token, String appKey, String appSecret) {
-        return priceApi.getStockPrice(token, appKey, appSecret, "069500", "virtual");
+        return priceApi.getStockPrice(token, appKey, appSecret, KOSPI_PROXY, "virtual");
     }
 
     // ⭐ KOSDAQ = KODEX 코스닥150 (229200)
     public double getKosdaqIndex(String token, String appKey, String appSecret) {
-        return priceApi.getStockPrice(token, appKey, appSecret, "229200", "virtual");
+        return priceApi.getStockPrice(token, appKey, appSecret, KOSDAQ_PROXY, "virtual");
     }
 }
 
@@ -0,0 +1,73 @@
+package com.ljw.sockautobot.api;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 관심종목(멀티종목) 시세 — 요청 1건에 최대 30종목 (실거래 전용 TR, 모의투자 미지원)
+ */
+@Component
+public class KisMultiPriceApi {
+
+    public static final int MAX_SYMBOLS = 30;
+
+    private final RestTemplate restTemplate = KisHttp.restTemplate();
+
+    @Value("${kis.base-url}") private String baseUrl;
+
+    /**
+     * @return 종목별 통합 시세 (KisPriceClientApi.unify 와 같은 키 + "symbol")
+     */
+    public List<JSONObject> getUnifiedPrices(String token, String appKey, String appSecret, List<String> symbols) {
+        if (symbols.size() > MAX_SYMBOLS) {
+            throw new IllegalArgumentException("❌ 멀티종목 시세는 " + MAX_SYMBOLS + "종목까지: " + symbols.size());
+        }
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(
+                baseUrl + "/uapi/domestic-stock/v1/quotations/intstock-multprice");
+        for (int i = 0; i < symbols.size(); i++) {
+            builder.queryParam("FID_COND_MRKT_DIV_CODE_" + (i + 1), "J");
+            builder.queryParam("FID_INPUT_ISCD_" + (i + 1), symbols.get(i));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("content-type", "application/json; charset=utf-8");
+        headers.set("authorization", "Bearer " + token);
+        headers.set("appkey", appKey);
+        headers.set("appsecret", appSecret);
+        headers.set("tr_id", "FHKST11300006");
+        headers.set("custtype", "P");
+
+        JSONObject json = KisHttp.parse(
+                restTemplate.exchange(builder.toUriString(), HttpMethod.GET, new HttpEntity<>(headers), String.class));
+
+        List<JSONObject> result = new ArrayList<>();
+        JSONArray rows = json.optJSONArray("output");
+        if (rows == null) return result;
+
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject row = rows.optJSONObject(i);
+            if (row == null || row.optString("inter_shrn_iscd").isEmpty()) continue;
+
+            JSONObject out = new JSONObject();
+            out.put("symbol", row.optString("inter_shrn_iscd"));
+            out.put("price", row.optDouble("inter2_prpr", 0));
+            out.put("volume", row.optLong("acml_vol", 0));
+            out.put("tick_strength", 100);                      // 멀티 시세에는 체결강도 없음 → 중립값
+            out.put("ask1_qty", row.optLong("seln_rsqn", 0));   // 매도호가 잔량
+            out.put("bid1_qty", row.optLong("shnu_rsqn", 0));   // 매수호가 잔량
+            result.add(out);
+        }
+        return result;
+    }
+}
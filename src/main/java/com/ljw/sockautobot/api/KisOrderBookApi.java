@@ -1,6 +1,7 @@
 package com.ljw.sockautobot.api;
 
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -11,11 +12,13 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Component
 public class KisOrderBookApi {
 
-    private final RestTemplate rt = new RestTemplate();
+    private final RestTemplate rt = KisHttp.restTemplate();
+
+    @Value("${kis.base-url}") private String baseUrl;
 
     public JSONObject getOrderBook(String token, String appKey, String appSecret, String symbol) {
 
-        String url = "https://openapivts.koreainvestment.com:29443/uapi/domestic-stock/v1/quotations/inquire-asking-price-exp-ccn";
+        String url = baseUrl + "/uapi/domestic-stock/v1/quotations/inquire-asking-price-exp-ccn";
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("content-type", "application/json; charset=utf-8");
@@ -31,12 +34,8 @@ public class KisOrderBookApi {
 
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        String raw = rt.exchange(builder.toUriString(), HttpMethod.GET, entity, String.class)
-                .getBody();
-
-
-
-        JSONObject json = new JSONObject(raw);
+        JSONObject json = KisHttp.parse(
+                rt.exchange(builder.toUriString(), HttpMethod.GET, entity, String.class));
 
         return json.optJSONObject("output1");
     }
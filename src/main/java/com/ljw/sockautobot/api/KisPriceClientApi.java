@@ -1,31 +1,32 @@
 package com.ljw.sockautobot.api;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 
 @Component
 public class KisPriceClientApi {
 
     // ==========================================================
-    // 🔗 실거래 / 모의투자 URL 자동 분기
+    // 🔗 실거래 / 모의투자 URL 분기 (모의투자 = kis.base-url)
     // ==========================================================
-    private static final String REAL_BASE = "https://openapi.koreainvestment.com:9443";
-    private static final String VIRTUAL_BASE = "https://openapivts.koreainvestment.com:29443";
+    @Value("${kis.base-url}") private String baseUrl;
+    @Value("${kis.real-base-url:https://openapi.koreainvestment.com:9443}") private String realBaseUrl;
 
     private final RestTemplate restTemplate;
 
     public KisPriceClientApi() {
-        this.restTemplate = new RestTemplateBuilder()
-                .setConnectTimeout(Duration.ofSeconds(3))
-                .setReadTimeout(Duration.ofSeconds(3))
-                .build();
+        this.restTemplate = KisHttp.restTemplate();
     }
 
 
@@ -57,8 +58,13 @@ public class KisPriceClientApi {
                     String.class
             );
 
-            return new JSONObject(response.getBody());
+            // 200 으로 내려오는 게이트웨이 오류도 분류 대상
+            return KisHttp.parse(response);
 
+        } catch (KisApiException | ResourceAccessException e) {
+            // 초당 건수 초과 / 토큰 만료 / 타임아웃은 빈 JSON 으로 삼키지 않고 올린다
+            System.err.println("❌ [KIS API] 요청 실패: " + e.getMessage());
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ [KIS API] 요청 실패: " + e.getMessage());
             return new JSONObject();
@@ -66,6 +72,11 @@ public class KisPriceClientApi {
     }
 
 
+    private String baseUrl(String mode) {
+        return "real".equalsIgnoreCase(mode) ? realBaseUrl : baseUrl;
+    }
+
+
     // ==========================================================
     // 📌 현재가 조회(실거래/모의투자 자동 처리)
     // ==========================================================
@@ -76,7 +87,7 @@ public class KisPriceClientApi {
             return new JSONObject();
         }
 
-        String baseUrl = mode.equalsIgnoreCase("real") ? REAL_BASE : VIRTUAL_BASE;
+        String baseUrl = baseUrl(mode);
 
         String url = UriComponentsBuilder.fromHttpUrl(
                         baseUrl + "/uapi/domestic-stock/v1/quotations/inquire-price")
@@ -122,7 +133,7 @@ public class KisPriceClientApi {
             return 0;
         }
 
-        String baseUrl = mode.equalsIgnoreCase("real") ? REAL_BASE : VIRTUAL_BASE;
+        String baseUrl = baseUrl(mode);
 
         // 전일 종가 조회 TR
         String url = UriComponentsBuilder.fromHttpUrl(
@@ -138,7 +149,17 @@ public class KisPriceClientApi {
             return 0;
         }
 
-        JSONObject out = json.getJSONObject("output");
+        // output 은 일자 내림차순 배열 → 오늘보다 이전 첫 영업일 종가
+        JSONObject out = json.optJSONObject("output");
+        JSONArray rows = json.optJSONArray("output");
+        if (rows != null) {
+            String today = LocalDate.now(ZoneId.of("Asia/Seoul")).format(DateTimeFormatter.BASIC_ISO_DATE);
+            for (int i = 0; i < rows.length() && out == null; i++) {
+                JSONObject row = rows.optJSONObject(i);
+                if (row != null && row.optString("stck_bsop_date", "").compareTo(today) < 0) out = row;
+            }
+        }
+        if (out == null) return 0;
 
         String prev = out.optString("stck_clpr", "0");
 
@@ -172,7 +193,11 @@ public class KisPriceClientApi {
     // 📌 통합 시세 (DTO 없이 JSONObject 그대로 반환)
     public JSONObject getUnifiedPrice(String token, String appKey, String appSecret, String symbol, String mode) {
 
-        JSONObject raw = getStockPriceRaw(token, appKey, appSecret, symbol, mode);
+        return unify(getStockPriceRaw(token, appKey, appSecret, symbol, mode));
+    }
+
+    /** 현재가 output → 통합 시세 (리액티브 클라이언트와 공용) */
+    public static JSONObject unify(JSONObject raw) {
 
         JSONObject out = new JSONObject();
         if (raw == null || !raw.has("stck_prpr")) {
@@ -0,0 +1,234 @@
+package com.ljw.sockautobot.api;
+
+import io.netty.channel.ChannelOption;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * 논블로킹 KIS 클라이언트 (WebClient / Reactor Netty)
+ *
+ * 기존 RestTemplate 클라이언트와 같은 TR 을 Mono 로 돌려준다.
+ * - 요청마다 타임아웃, 일시 오류(EGW00201 / 5xx / 타임아웃)는 지터 섞인 지수 백오프로 재시도
+ * - 주문은 중복 체결 위험 때문에 서버가 처리 전에 거절한 EGW00201 만 재시도
+ * - 여러 종목 조회는 flatMap 동시성 한도로 in-flight 요청 수를 묶는다 (구독자 요청량만큼만 발행)
+ */
+@Component
+public class KisReactiveClientApi {
+
+    private static final String PRICE_PATH = "/uapi/domestic-stock/v1/quotations/inquire-price";
+    private static final String CCNL_PATH = "/uapi/domestic-stock/v1/quotations/inquire-ccnl";
+    private static final String ASKING_PATH = "/uapi/domestic-stock/v1/quotations/inquire-asking-price-exp-ccn";
+    private static final String BALANCE_PATH = "/uapi/domestic-stock/v1/trading/inquire-balance";
+    private static final String ORDER_PATH = "/uapi/domestic-stock/v1/trading/order-cash";
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final int maxInFlight;
+
+    public KisReactiveClientApi(@Value("${kis.base-url}") String baseUrl,
+                                @Value("${kis.reactive.timeout-ms:3000}") long timeoutMillis,
+                                @Value("${kis.reactive.max-retries:2}") int maxRetries,
+                                @Value("${kis.reactive.retry-backoff-ms:200}") long retryBackoffMillis,
+                                @Value("${kis.reactive.max-in-flight:8}") int maxInFlight) {
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+        this.maxInFlight = Math.max(maxInFlight, 1);
+
+        // 커넥션 풀 = 동시 요청 한도, 초과분은 풀 대기열에서 기다린다
+        ConnectionProvider pool = ConnectionProvider.builder("kis")
+                .maxConnections(this.maxInFlight)
+                .pendingAcquireMaxCount(this.maxInFlight * 64)
+                .build();
+
+        HttpClient http = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutMillis)
+                .responseTimeout(this.timeout);
+
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(http))
+                .build();
+    }
+
+
+    // ==========================================================
+    // 📌 시세
+    // ==========================================================
+    public Mono<JSONObject> getStockInfo(String token, String appKey, String appSecret, String symbol) {
+        String uri = UriComponentsBuilder.fromPath(PRICE_PATH)
+                .queryParam("FID_COND_MRKT_DIV_CODE", "J")
+                .queryParam("FID_INPUT_ISCD", symbol)
+                .toUriString();
+
+        return get(uri, token, appKey, appSecret, "FHKST01010100")
+                .map(json -> json.optJSONObject("output") != null ? json.getJSONObject("output") : new JSONObject());
+    }
+
+    public Mono<JSONObject> getUnifiedPrice(String token, String appKey, String appSecret, String symbol) {
+        return getStockInfo(token, appKey, appSecret, symbol).map(KisPriceClientApi::unify);
+    }
+
+    /**
+     * 여러 종목 통합 시세 — 동시 요청은 maxInFlight 개까지, 결과에 "symbol" 을 붙여 도착 순서대로 발행
+     * 실패한 종목은 건너뛴다 (다른 종목 조회는 계속)
+     */
+    public Flux<JSONObject> getUnifiedPrices(String token, String appKey, String appSecret, List<String> symbols) {
+        return Flux.fromIterable(symbols)
+                .flatMap(symbol -> getUnifiedPrice(token, appKey, appSecret, symbol)
+                        .filter(out -> !out.isEmpty())
+                        .map(out -> out.put("symbol", symbol))
+                        .onErrorResume(e -> {
+                            System.err.println("❌ [KIS Reactive] " + symbol + " 시세 실패: " + e.getMessage());
+                            return Mono.empty();
+                        }), maxInFlight);
+    }
+
+    public Mono<Double> getTickStrength(String token, String appKey, String appSecret, String symbol) {
+        String uri = UriComponentsBuilder.fromPath(CCNL_PATH)
+                .queryParam("FID_COND_MRKT_DIV_CODE", "J")
+                .queryParam("FID_INPUT_ISCD", symbol)
+                .toUriString();
+
+        return get(uri, token, appKey, appSecret, "FHKST01010300").map(KisTickApi::tickStrength);
+    }
+
+    /** output1 (10단계 호가) — 없으면 빈 JSON */
+    public Mono<JSONObject> getOrderBook(String token, String appKey, String appSecret, String symbol) {
+        String uri = UriComponentsBuilder.fromPath(ASKING_PATH)
+                .queryParam("FID_COND_MRKT_DIV_CODE", "J")
+                .queryParam("FID_INPUT_ISCD", symbol)
+                .toUriString();
+
+        return get(uri, token, appKey, appSecret, "FHKST01010200")
+                .map(json -> json.optJSONObject("output1") != null ? json.getJSONObject("output1") : new JSONObject());
+    }
+
+
+    // ==========================================================
+    // 📌 잔고
+    // ==========================================================
+    public Mono<JSONObject> getBalance(String token, String appKey, String appSecret, String accountNo) {
+        String clean = accountNo.replaceAll("[^0-9]", "");
+        if (clean.length() < 10) {
+            return Mono.error(new IllegalArgumentException("❌ 계좌번호 형식 오류: " + accountNo));
+        }
+
+        String uri = UriComponentsBuilder.fromPath(BALANCE_PATH)
+                .queryParam("CANO", clean.substring(0, 8))
+                .queryParam("ACNT_PRDT_CD", clean.substring(8, 10))
+                .queryParam("AFHR_FLPR_YN", "N")
+                .queryParam("OFL_YN", "N")
+                .queryParam("INQR_DVSN", "01")
+                .queryParam("UNPR_DVSN", "01")
+                .queryParam("FUND_STTL_ICLD_YN", "N")
+                .queryParam("FNCG_AMT_AUTO_RDPT_YN", "N")
+                .queryParam("PRCS_DVSN", "00")
+                .queryParam("CTX_AREA_FK100", "")
+                .queryParam("CTX_AREA_NK100", "")
+                .toUriString();
+
+        return get(uri, token, appKey, appSecret, "VTTC8434R");
+    }
+
+
+    // ==========================================================
+    // 📌 주문 (price 0 = 시장가)
+    // ==========================================================
+    public Mono<JSONObject> buyStock(String token, String appKey, String appSecret, String accountNo,
+                                     String symbol, int qty, int price) {
+        return order(token, appKey, appSecret, accountNo, symbol, qty, price, "VTTC0012U");
+    }
+
+    public Mono<JSONObject> sellStock(String token, String appKey, String appSecret, String accountNo,
+                                      String symbol, int qty, int price) {
+        return order(token, appKey, appSecret, accountNo, symbol, qty, price, "VTTC0801U");
+    }
+
+    private Mono<JSONObject> order(String token, String appKey, String appSecret, String accountNo,
+                                   String symbol, int qty, int price, String trId) {
+        JSONObject body = new JSONObject();
+        body.put("CANO", accountNo.substring(0, 8));
+        body.put("ACNT_PRDT_CD", accountNo.substring(8));
+        body.put("PDNO", symbol);
+        body.put("ORD_DVSN", price <= 0 ? "01" : "00");
+        body.put("ORD_QTY", String.valueOf(qty));
+        body.put("ORD_UNPR", String.valueOf(Math.max(price, 0)));
+
+        Mono<JSONObject> call = webClient.post()
+                .uri(ORDER_PATH)
+                .headers(h -> headers(h, token, appKey, appSecret, trId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body.toString())
+                .exchangeToMono(res -> res.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(raw -> parse(res.statusCode().value(), raw)))
+                .timeout(timeout);
+
+        // 타임아웃은 서버가 이미 접수했을 수 있으니 재시도하지 않는다
+        return call.retryWhen(retry(e -> e instanceof KisApiException k && k.isRateLimited()));
+    }
+
+
+    // ==========================================================
+    // 🔧 공통
+    // ==========================================================
+    private Mono<JSONObject> get(String uri, String token, String appKey, String appSecret, String trId) {
+        return webClient.get()
+                .uri(uri)
+                .headers(h -> headers(h, token, appKey, appSecret, trId))
+                .exchangeToMono(res -> res.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(raw -> parse(res.statusCode().value(), raw)))
+                .timeout(timeout)
+                .retryWhen(retry(KisReactiveClientApi::isRetryable));
+    }
+
+    private static void headers(HttpHeaders h, String token, String appKey, String appSecret, String trId) {
+        h.set("content-type", "application/json; charset=utf-8");
+        h.set("authorization", "Bearer " + token);
+        h.set("appkey", appKey);
+        h.set("appsecret", appSecret);
+        h.set("tr_id", trId);
+        h.set("custtype", "P");
+    }
+
+    /**
+     * HTTP 오류나 게이트웨이 오류(EGW*)는 예외로, 업무 오류(rt_cd != 0, 예: 잔고 부족)는
+     * 기존 클라이언트처럼 JSON 그대로 돌려준다
+     */
+    static JSONObject parse(int status, String raw) {
+        return KisHttp.parse(status, raw);
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof TimeoutException) return true;
+        return e instanceof KisApiException k && k.isTransient();
+    }
+
+    private Retry retry(Predicate<Throwable> retryable) {
+        return Retry.backoff(maxRetries, retryBackoff)
+                .maxBackoff(timeout)
+                .jitter(0.5)
+                .filter(retryable)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+}
@@ -2,6 +2,7 @@ package com.ljw.sockautobot.api;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -12,10 +13,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Component
 public class KisTickApi {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate = KisHttp.restTemplate();
+
+    @Value("${kis.base-url}") private String baseUrl;
 
     public double getTickStrength(String token, String appKey, String appSecret, String symbol) {
-        String url = "https://openapivts.koreainvestment.com:29443/uapi/domestic-stock/v1/quotations/inquire-ccnl";
+        String url = baseUrl + "/uapi/domestic-stock/v1/quotations/inquire-ccnl";
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("content-type","application/json; charset=utf-8");
@@ -31,11 +34,14 @@ public class KisTickApi {
 
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        JSONObject json = new JSONObject(
-                restTemplate.exchange(builder.toUriString(), HttpMethod.GET, entity,
-                        String.class).getBody()
-        );
+        JSONObject json = KisHttp.parse(
+                restTemplate.exchange(builder.toUriString(), HttpMethod.GET, entity, String.class));
+
+        return tickStrength(json);
+    }
 
+    /** inquire-ccnl 응답 → 최신 체결강도 (리액티브 클라이언트와 공용) */
+    public static double tickStrength(JSONObject json) {
         // output 배열 읽기
         JSONArray arr = json.optJSONArray("output");
         if (arr == null || arr.isEmpty()) {
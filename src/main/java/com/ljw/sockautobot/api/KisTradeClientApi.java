@@ -2,6 +2,7 @@ package com.ljw.sockautobot.api;
 
 import lombok.RequiredArgsConstructor;
 import org.json.JSONException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.*;
@@ -11,10 +12,12 @@ import org.json.JSONObject;
 @RequiredArgsConstructor
 public class KisTradeClientApi {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate = KisHttp.restTemplate();
+
+    @Value("${kis.base-url}") private String baseUrl;
 
     public JSONObject buyStock(String token, String appKey, String appSecret, String accountNo, String symbol, int qty, int price) throws JSONException {
-        String url = "https://openapivts.koreainvestment.com:29443/uapi/domestic-stock/v1/trading/order-cash";
+        String url = baseUrl + "/uapi/domestic-stock/v1/trading/order-cash";
 
         JSONObject body = new JSONObject();
         body.put("CANO", accountNo.substring(0, 8));
@@ -36,12 +39,12 @@ public class KisTradeClientApi {
         HttpEntity<String> entity = new HttpEntity<>(body.toString(), headers);
         ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
 
-        return new JSONObject(response.getBody());
+        return KisHttp.parse(response);
     }
 
     public JSONObject sellStock(String token, String appKey, String appSecret, String accountNo, String symbol, int qty, int price) throws JSONException {
 
-        String url = "https://openapivts.koreainvestment.com:29443/uapi/domestic-stock/v1/trading/order-cash";
+        String url = baseUrl + "/uapi/domestic-stock/v1/trading/order-cash";
 
         JSONObject body = new JSONObject();
         body.put("CANO", accountNo.substring(0, 8));
@@ -71,7 +74,51 @@ public class KisTradeClientApi {
         HttpEntity<String> entity = new HttpEntity<>(body.toString(), headers);
         ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
 
-        return new JSONObject(response.getBody());
+        return KisHttp.parse(response);
     }
-}
 
+    // ==========================================================
+    // 📌 정정 / 취소 (order-rvsecncl)
+    // orgNo = 주문 응답의 KRX_FWDG_ORD_ORGNO, orderNo = ODNO
+    // ==========================================================
+    public JSONObject reviseOrder(String token, String appKey, String appSecret, String accountNo,
+                                  String orgNo, String orderNo, int qty, int price) throws JSONException {
+        return reviseOrCancel(token, appKey, appSecret, accountNo, orgNo, orderNo, "01", qty, price);
+    }
+
+    public JSONObject cancelOrder(String token, String appKey, String appSecret, String accountNo,
+                                  String orgNo, String orderNo) throws JSONException {
+        return reviseOrCancel(token, appKey, appSecret, accountNo, orgNo, orderNo, "02", 0, 0);
+    }
+
+    private JSONObject reviseOrCancel(String token, String appKey, String appSecret, String accountNo,
+                                      String orgNo, String orderNo, String dvsnCd, int qty, int price) throws JSONException {
+
+        String url = baseUrl + "/uapi/domestic-stock/v1/trading/order-rvsecncl";
+
+        JSONObject body = new JSONObject();
+        body.put("CANO", accountNo.substring(0, 8));
+        body.put("ACNT_PRDT_CD", accountNo.substring(8));
+        body.put("KRX_FWDG_ORD_ORGNO", orgNo);
+        body.put("ORGN_ODNO", orderNo);
+        body.put("ORD_DVSN", "00");             // 지정가
+        body.put("RVSE_CNCL_DVSN_CD", dvsnCd);  // 01 정정, 02 취소
+        body.put("ORD_QTY", String.valueOf(qty));
+        body.put("ORD_UNPR", String.valueOf(price));
+        body.put("QTY_ALL_ORD_YN", "Y");        // 잔량 전부
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("content-type", "application/json; charset=utf-8");
+        headers.set("authorization", "Bearer " + token);
+        headers.set("appkey", appKey);
+        headers.set("appsecret", appSecret);
+        headers.set("tr_id", "VTTC0803U"); // 모의투자 정정/취소
+        headers.set("custtype", "P");
+
+        HttpEntity<String> entity = new HttpEntity<>(body.toString(), headers);
+        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
+
+        return KisHttp.parse(response);
+    }
+}
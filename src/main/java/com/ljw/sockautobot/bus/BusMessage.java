@@ -0,0 +1,18 @@
+package com.ljw.sockautobot.bus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 링버스 메시지 — 재사용 가능한 플라이웨이트
+ *
+ * writer 는 필드를 채운 뒤 슬롯에 encode, reader 는 슬롯에서 바로 decode 한다 (중간 byte[] 없음).
+ */
+public interface BusMessage {
+
+    int type();
+
+    /** buf[offset..] 에 기록하고 길이를 돌려준다 (maxLength 초과 금지) */
+    int encode(ByteBuffer buf, int offset, int maxLength);
+
+    void decode(ByteBuffer buf, int offset, int length);
+}
@@ -0,0 +1,44 @@
+package com.ljw.sockautobot.bus;
+
+import java.nio.file.Path;
+
+/**
+ * 링버스 tail — 매매 엔진과 다른 JVM 에서 실행 (대시보드/분석 프로세스 예시)
+ *
+ *   java -cp build/classes/java/main com.ljw.sockautobot.bus.BusTail data/bus/engine.ring
+ */
+public class BusTail {
+
+    public static void main(String[] args) throws Exception {
+        Path file = Path.of(args.length > 0 ? args[0] : "data/bus/engine.ring");
+
+        try (RingBusReader reader = new RingBusReader(file)) {
+            reader.seekToEnd();
+            System.out.println("📡 링버스 tail 시작: " + file);
+
+            RingBusReader.Listener printer = new RingBusReader.Listener() {
+                @Override
+                public void onSnapshot(long seq, long timeMillis, EngineSnapshotMessage s) {
+                    System.out.printf("#%d [%s] price=%.0f qty=%d avg=%.0f MA=%.1f/%.1f RSI=%.1f 수익=%.0f%n",
+                            seq, s.symbol(), s.price, s.qty, s.avgBuyPrice, s.shortMA, s.longMA, s.rsi, s.totalProfit);
+                }
+
+                @Override
+                public void onTrade(long seq, long timeMillis, TradeEventMessage t) {
+                    System.out.printf("#%d 💱 [%s] side=%d qty=%d price=%.0f %s%n",
+                            seq, t.symbol(), t.side, t.qty, t.price, t.text());
+                }
+            };
+
+            long lastLapped = 0;
+            while (true) {
+                if (reader.poll(printer, 256) == 0) Thread.sleep(1);
+
+                if (reader.getLappedCount() != lastLapped) {
+                    lastLapped = reader.getLappedCount();
+                    System.out.println("⚠️ 밀려서 건너뛴 메시지 누적: " + lastLapped);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ljw.sockautobot.bus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 엔진 상태 스냅샷 (틱마다 1건) — /status 에 나가는 핵심 값들
+ *
+ * 고정 길이 136B. 필드는 공개 원시값이고 reader 는 같은 인스턴스를 계속 재사용한다.
+ */
+public final class EngineSnapshotMessage implements BusMessage {
+
+    public static final int TYPE = 1;
+    static final int LENGTH = 8 + 4 + 4 + 8 * 15;
+
+    private final byte[] symbol = new byte[8];   // ASCII 종목코드, 0 패딩
+
+    public int qty;
+    public int pendingOrder;      // 1 = 미체결 주문 있음
+    public double price;
+    public double avgBuyPrice;
+    public double shortMA;
+    public double longMA;
+    public double atr;
+    public double rsi;
+    public double vwap;
+    public double macd;
+    public double macdSignal;
+    public double bookImbalance;
+    public double tickStrength;
+    public double kospi;
+    public double balanceChange;
+    public double totalProfit;
+    public double profitRate;
+
+    @Override
+    public int type() { return TYPE; }
+
+    public void setSymbol(String s) {
+        Arrays.fill(symbol, (byte) 0);
+        byte[] b = s.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(b, 0, symbol, 0, Math.min(b.length, symbol.length));
+    }
+
+    /** 할당이 생기므로 필요할 때만 */
+    public String symbol() {
+        int n = 0;
+        while (n < symbol.length && symbol[n] != 0) n++;
+        return new String(symbol, 0, n, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public int encode(ByteBuffer buf, int offset, int maxLength) {
+        if (maxLength < LENGTH) throw new IllegalStateException("slot too small for snapshot");
+
+        buf.put(offset, symbol);
+        int o = offset + 8;
+        buf.putInt(o, qty);            o += 4;
+        buf.putInt(o, pendingOrder);   o += 4;
+        buf.putDouble(o, price);       o += 8;
+        buf.putDouble(o, avgBuyPrice); o += 8;
+        buf.putDouble(o, shortMA);     o += 8;
+        buf.putDouble(o, longMA);      o += 8;
+        buf.putDouble(o, atr);         o += 8;
+        buf.putDouble(o, rsi);         o += 8;
+        buf.putDouble(o, vwap);        o += 8;
+        buf.putDouble(o, macd);        o += 8;
+        buf.putDouble(o, macdSignal);  o += 8;
+        buf.putDouble(o, bookImbalance); o += 8;
+        buf.putDouble(o, tickStrength);  o += 8;
+        buf.putDouble(o, kospi);         o += 8;
+        buf.putDouble(o, balanceChange); o += 8;
+        buf.putDouble(o, totalProfit);   o += 8;
+        buf.putDouble(o, profitRate);
+        return LENGTH;
+    }
+
+    @Override
+    public void decode(ByteBuffer buf, int offset, int length) {
+        buf.get(offset, symbol);
+        int o = offset + 8;
+        qty = buf.getInt(o);            o += 4;
+        pendingOrder = buf.getInt(o);   o += 4;
+        price = buf.getDouble(o);       o += 8;
+        avgBuyPrice = buf.getDouble(o); o += 8;
+        shortMA = buf.getDouble(o);     o += 8;
+        longMA = buf.getDouble(o);      o += 8;
+        atr = buf.getDouble(o);         o += 8;
+        rsi = buf.getDouble(o);         o += 8;
+        vwap = buf.getDouble(o);        o += 8;
+        macd = buf.getDouble(o);        o += 8;
+        macdSignal = buf.getDouble(o);  o += 8;
+        bookImbalance = buf.getDouble(o); o += 8;
+        tickStrength = buf.getDouble(o);  o += 8;
+        kospi = buf.getDouble(o);         o += 8;
+        balanceChange = buf.getDouble(o); o += 8;
+        totalProfit = buf.getDouble(o);   o += 8;
+        profitRate = buf.getDouble(o);
+    }
+}
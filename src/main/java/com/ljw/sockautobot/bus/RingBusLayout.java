@@ -0,0 +1,58 @@
+package com.ljw.sockautobot.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * 메모리 맵 링버스 파일 배치 (writer / reader 공용)
+ *
+ * [헤더 128B]
+ *   0  magic      int  'RBUS'
+ *   4  version    int
+ *   8  capacity   int  (슬롯 수)
+ *   12 slotSize   int
+ *   16 epoch      long (writer 가 열 때마다 바뀜 → reader 재동기화)
+ *   64 writeSeq   long (마지막으로 완성된 메시지 번호, 1부터 — 별도 캐시라인)
+ *
+ * [슬롯 × capacity]
+ *   0  version    long  seqlock: 2n-1 = 쓰는 중, 2n = 메시지 n 완료
+ *   8  type       int
+ *   12 length     int
+ *   16 timeMillis long
+ *   24 payload
+ */
+final class RingBusLayout {
+
+    static final int MAGIC = 0x52425553;
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int CAPACITY_OFFSET = 8;
+    static final int SLOT_SIZE_OFFSET = 12;
+    static final int EPOCH_OFFSET = 16;
+    static final int WRITE_SEQ_OFFSET = 64;
+    static final int HEADER_SIZE = 128;
+
+    static final int SLOT_VERSION = 0;
+    static final int SLOT_TYPE = 8;
+    static final int SLOT_LENGTH = 12;
+    static final int SLOT_TIME = 16;
+    static final int SLOT_PAYLOAD = 24;
+
+    static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    /** 8바이트 정렬된 오프셋에서 acquire/release 접근 (맵 버퍼 시작은 페이지 정렬) */
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ORDER);
+
+    private RingBusLayout() {}
+
+    static int slotOffset(long seq, int capacity, int slotSize) {
+        return HEADER_SIZE + (int) ((seq - 1) % capacity) * slotSize;
+    }
+
+    static long fileSize(int capacity, int slotSize) {
+        return HEADER_SIZE + (long) capacity * slotSize;
+    }
+}
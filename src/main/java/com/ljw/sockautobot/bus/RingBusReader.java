@@ -0,0 +1,161 @@
+package com.ljw.sockautobot.bus;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.ljw.sockautobot.bus.RingBusLayout.*;
+
+/**
+ * 링버스 reader — 다른 JVM 에서 같은 파일을 읽기 전용으로 맵핑 (reader 는 몇 개든 가능, 서로 독립)
+ *
+ * 슬롯에서 플라이웨이트로 바로 decode 한 뒤 seqlock 버전을 다시 확인한다.
+ * 그 사이 writer 가 덮어썼으면 그 메시지는 버리고 lapped 로 센다 (찢어진 값은 절대 전달하지 않음).
+ * 스레드 하나에서만 쓴다.
+ */
+public final class RingBusReader implements AutoCloseable {
+
+    public interface Listener {
+        default void onSnapshot(long seq, long timeMillis, EngineSnapshotMessage snapshot) {}
+
+        default void onTrade(long seq, long timeMillis, TradeEventMessage trade) {}
+    }
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buf;
+    private int capacity;
+    private int slotSize;
+    private long epoch;
+
+    private long nextSeq = 1;
+    private long lapped = 0;
+
+    // 재사용 플라이웨이트 — 콜백 안에서만 유효
+    private final EngineSnapshotMessage snapshot = new EngineSnapshotMessage();
+    private final TradeEventMessage trade = new TradeEventMessage();
+
+    public RingBusReader(Path file) throws IOException {
+        this.file = file;
+        map();
+    }
+
+    private void map() throws IOException {
+        if (channel != null) channel.close();
+
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        header.order(ORDER);
+
+        if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("not a ring bus file: " + file);
+        }
+
+        capacity = header.getInt(CAPACITY_OFFSET);
+        slotSize = header.getInt(SLOT_SIZE_OFFSET);
+        buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize(capacity, slotSize));
+        buf.order(ORDER);
+
+        epoch = (long) LONGS.getAcquire(buf, EPOCH_OFFSET);
+        nextSeq = 1;
+    }
+
+    /** writer 가 다시 시작했으면 (epoch 변경) 다시 맵핑하고 처음부터 */
+    private void checkEpoch() throws IOException {
+        if ((long) LONGS.getAcquire(buf, EPOCH_OFFSET) != epoch) map();
+    }
+
+
+    // ============================================================
+    // 🔵 읽기
+    // ============================================================
+    /** 가장 최근 위치로 이동 (과거 메시지는 건너뜀) */
+    public void seekToEnd() throws IOException {
+        checkEpoch();
+        nextSeq = (long) LONGS.getAcquire(buf, WRITE_SEQ_OFFSET) + 1;
+    }
+
+    /** @return 전달한 메시지 수 */
+    public int poll(Listener listener, int limit) throws IOException {
+        checkEpoch();
+
+        long writeSeq = (long) LONGS.getAcquire(buf, WRITE_SEQ_OFFSET);
+        int delivered = 0;
+
+        while (nextSeq <= writeSeq && delivered < limit) {
+            // 한 바퀴 이상 밀렸으면 남아 있는 가장 오래된 메시지로
+            if (writeSeq - nextSeq >= capacity) {
+                lapped += writeSeq - capacity + 1 - nextSeq;
+                nextSeq = writeSeq - capacity + 1;
+            }
+
+            long seq = nextSeq++;
+            if (read(seq, listener)) delivered++;
+        }
+        return delivered;
+    }
+
+    /** 가장 최근 스냅샷을 out 으로 — 없으면 false (스트림 위치는 건드리지 않음) */
+    public boolean latestSnapshot(EngineSnapshotMessage out) throws IOException {
+        checkEpoch();
+
+        long writeSeq = (long) LONGS.getAcquire(buf, WRITE_SEQ_OFFSET);
+        for (long seq = writeSeq; seq >= 1 && seq > writeSeq - capacity; seq--) {
+            int off = slotOffset(seq, capacity, slotSize);
+            long v1 = (long) LONGS.getAcquire(buf, off + SLOT_VERSION);
+            if (v1 != 2 * seq) continue;
+            if (buf.getInt(off + SLOT_TYPE) != EngineSnapshotMessage.TYPE) continue;
+
+            out.decode(buf, off + SLOT_PAYLOAD, buf.getInt(off + SLOT_LENGTH));
+
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getAcquire(buf, off + SLOT_VERSION) == v1) return true;
+        }
+        return false;
+    }
+
+    private boolean read(long seq, Listener listener) {
+        int off = slotOffset(seq, capacity, slotSize);
+
+        long v1 = (long) LONGS.getAcquire(buf, off + SLOT_VERSION);
+        if (v1 != 2 * seq) {
+            lapped++;   // 이미 다음 바퀴가 덮어씀
+            return false;
+        }
+
+        int type = buf.getInt(off + SLOT_TYPE);
+        int length = buf.getInt(off + SLOT_LENGTH);
+        long time = buf.getLong(off + SLOT_TIME);
+
+        BusMessage msg = switch (type) {
+            case EngineSnapshotMessage.TYPE -> snapshot;
+            case TradeEventMessage.TYPE -> trade;
+            default -> null;
+        };
+        if (msg == null) return false;
+
+        msg.decode(buf, off + SLOT_PAYLOAD, Math.max(0, Math.min(length, slotSize - SLOT_PAYLOAD)));
+
+        VarHandle.loadLoadFence();
+        if ((long) LONGS.getAcquire(buf, off + SLOT_VERSION) != v1) {
+            lapped++;   // decode 중에 덮어씀 → 버림
+            return false;
+        }
+
+        if (msg == snapshot) listener.onSnapshot(seq, time, snapshot);
+        else listener.onTrade(seq, time, trade);
+        return true;
+    }
+
+    public long getNextSequence() { return nextSeq; }
+
+    public long getLappedCount() { return lapped; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
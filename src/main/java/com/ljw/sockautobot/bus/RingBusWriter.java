@@ -0,0 +1,81 @@
+package com.ljw.sockautobot.bus;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.ljw.sockautobot.bus.RingBusLayout.*;
+
+/**
+ * 링버스 writer (프로세스당 하나)
+ *
+ * 슬롯마다 seqlock: 버전을 홀수로 → 본문 기록 → 짝수로(release) → writeSeq 갱신(release).
+ * reader 를 기다리지 않는다. 느린 reader 는 덮어쓰이고 스스로 건너뛴다.
+ */
+public final class RingBusWriter implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private final int capacity;
+    private final int slotSize;
+
+    private long seq = 0;
+
+    public RingBusWriter(Path file, int capacity, int slotSize) throws IOException {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        if (slotSize < 64 || slotSize % 8 != 0) throw new IllegalArgumentException("slotSize must be >= 64 and 8-aligned");
+
+        this.capacity = capacity;
+        this.slotSize = slotSize;
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(fileSize(capacity, slotSize));
+        this.buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity, slotSize));
+        buf.order(ORDER);
+
+        // 이전 실행의 슬롯 버전이 새 번호와 겹치지 않게 비운다
+        for (int i = 0; i < capacity; i++) {
+            LONGS.setOpaque(buf, HEADER_SIZE + i * slotSize + SLOT_VERSION, 0L);
+        }
+
+        buf.putInt(MAGIC_OFFSET, MAGIC);
+        buf.putInt(VERSION_OFFSET, VERSION);
+        buf.putInt(CAPACITY_OFFSET, capacity);
+        buf.putInt(SLOT_SIZE_OFFSET, slotSize);
+        LONGS.setRelease(buf, WRITE_SEQ_OFFSET, 0L);
+        LONGS.setRelease(buf, EPOCH_OFFSET, System.nanoTime() ^ System.currentTimeMillis());
+    }
+
+    /** @return 메시지 번호 */
+    public synchronized long publish(BusMessage msg) {
+        long n = ++seq;
+        int off = slotOffset(n, capacity, slotSize);
+
+        LONGS.setOpaque(buf, off + SLOT_VERSION, 2 * n - 1);   // 쓰는 중
+        VarHandle.storeStoreFence();
+
+        int len = msg.encode(buf, off + SLOT_PAYLOAD, slotSize - SLOT_PAYLOAD);
+        buf.putInt(off + SLOT_TYPE, msg.type());
+        buf.putInt(off + SLOT_LENGTH, len);
+        buf.putLong(off + SLOT_TIME, System.currentTimeMillis());
+
+        LONGS.setRelease(buf, off + SLOT_VERSION, 2 * n);      // 완료
+        LONGS.setRelease(buf, WRITE_SEQ_OFFSET, n);
+        return n;
+    }
+
+    public long getSequence() { return seq; }
+
+    public int getCapacity() { return capacity; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
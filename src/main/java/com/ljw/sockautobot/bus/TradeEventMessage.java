@@ -0,0 +1,85 @@
+package com.ljw.sockautobot.bus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 매매 이벤트 (주문 접수 / 정정 / 취소 / 거부) + 거래 로그 문구
+ * price = 실제로 보낸 지정가 (0 = 시장가), qty = 주문/정정 수량
+ *
+ * 고정부 32B + UTF-8 문구 (슬롯에 안 들어가는 부분은 잘린다)
+ */
+public final class TradeEventMessage implements BusMessage {
+
+    public static final int TYPE = 2;
+
+    public static final byte BUY = 1;
+    public static final byte SELL = 2;
+    public static final byte REVISE = 3;
+    public static final byte CANCEL = 4;
+    public static final byte REJECT = 5;     // 주문/정정 거부 (문구에 msg_cd)
+
+    private static final int FIXED = 8 + 8 + 4 + 4 + 4 + 4;
+    private static final int MAX_TEXT = 512;
+
+    private final byte[] symbol = new byte[8];
+    private final byte[] text = new byte[MAX_TEXT];
+    private int textLength;
+
+    public byte side;
+    public int qty;
+    public double price;
+
+    @Override
+    public int type() { return TYPE; }
+
+    public void setSymbol(String s) {
+        Arrays.fill(symbol, (byte) 0);
+        byte[] b = s.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(b, 0, symbol, 0, Math.min(b.length, symbol.length));
+    }
+
+    public String symbol() {
+        int n = 0;
+        while (n < symbol.length && symbol[n] != 0) n++;
+        return new String(symbol, 0, n, StandardCharsets.US_ASCII);
+    }
+
+    public void setText(String s) {
+        byte[] b = s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+        textLength = Math.min(b.length, MAX_TEXT);
+        System.arraycopy(b, 0, text, 0, textLength);
+    }
+
+    public String text() {
+        return new String(text, 0, textLength, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int encode(ByteBuffer buf, int offset, int maxLength) {
+        if (maxLength < FIXED) throw new IllegalStateException("slot too small for trade event");
+
+        int len = Math.min(textLength, maxLength - FIXED);
+
+        buf.put(offset, symbol);
+        buf.putDouble(offset + 8, price);
+        buf.putInt(offset + 16, qty);
+        buf.putInt(offset + 20, side);
+        buf.putInt(offset + 24, len);
+        buf.putInt(offset + 28, 0);
+        buf.put(offset + FIXED, text, 0, len);
+        return FIXED + len;
+    }
+
+    @Override
+    public void decode(ByteBuffer buf, int offset, int length) {
+        buf.get(offset, symbol);
+        price = buf.getDouble(offset + 8);
+        qty = buf.getInt(offset + 16);
+        side = (byte) buf.getInt(offset + 20);
+        textLength = Math.min(Math.min(buf.getInt(offset + 24), length - FIXED), MAX_TEXT);
+        if (textLength < 0) textLength = 0;
+        buf.get(offset + FIXED, text, 0, textLength);
+    }
+}
@@ -0,0 +1,374 @@
+package com.ljw.sockautobot.cluster;
+
+import jakarta.annotation.PreDestroy;
+import org.json.JSONObject;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 클러스터 모드 (cluster.enabled=true) — 여러 SockAutoBot 노드가 종목을 나눠 매매
+ *
+ * 하트비트마다 (조정 백엔드 위에서)
+ * 1) node/<id> 임대 갱신 (data = 대시보드 주소) — 임대가 살아 있는 노드만 멤버
+ * 2) leader 임대 시도 — 잡은 노드가 리더, 리더가 죽으면 임대 만료 후 다른 노드가 잡는다
+ * 3) 리더: 배정표 assign/<종목> = 노드 갱신 (노드당 1종목 — AutoTradeService 는 한 종목만 매매)
+ *    종목 임대 보유자 우선 → 기존 배정 유지 → 빈 노드에 남은 종목 순서대로
+ * 4) 각 노드: 자기 배정 종목의 symbol/<종목> 임대를 잡고, 배정에서 빠진 임대는 놓는다
+ *    단, 포지션/미체결이 남은 종목(pin)은 정리될 때까지 계속 잡고 있는다
+ *
+ * 종목 임대를 가진 노드만 그 종목을 매매 → 한 종목은 한 노드만.
+ * 하트비트가 끊기면 임대 만료 전(여유 1 하트비트)에 스스로 매매를 멈춘다.
+ *
+ * 주문은 guardOrder() 안에서만 보낸다 — 하트비트의 임대 해제/획득과 같은 락을 잡고
+ * pin → 임대 재확인 → 백엔드의 현재 임대와 epoch 대조 후 전송. 그 사이 소유권이 넘어갔으면 보내지 않는다.
+ * 전송 중에는 하트비트가 임대를 갱신하지 못하므로, 남은 임대가 전송 최대 소요(cluster.order-budget-ms)보다
+ * 짧으면 보내지 않는다. 요청 슬롯 대기(KisApiGuard.acquire)는 락 밖에서 먼저 끝낸다.
+ * (증권사 API 가 fencing 토큰을 받지 않으므로 epoch 검사는 이 노드의 전송 직전까지만 보장)
+ */
+@Component
+@Lazy(false)
+public class ClusterNode {
+
+    private static final String NODE = "node/";
+    private static final String LEADER = "leader";
+    private static final String ASSIGN = "assign/";
+    private static final String SYMBOL = "symbol/";
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final String advertiseUrl;
+    private final List<String> symbols;
+    private final long leaseMillis;
+    private final long heartbeatMillis;
+    private final long orderBudgetMillis;
+    private final CoordinationBackend backend;
+
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+    private final Object ownership = new Object();   // 종목 임대 해제/획득 ↔ 주문 전송
+    private volatile boolean leader = false;
+    private volatile String assigned;
+    private volatile String pinned;
+    private volatile long lastHeartbeat = 0;
+
+    private final RestTemplate http;
+
+    public ClusterNode(ObjectProvider<CoordinationBackend> backends,
+                       @Value("${cluster.enabled:false}") boolean enabled,
+                       @Value("${cluster.node-id:}") String nodeId,
+                       @Value("${cluster.advertise-url:}") String advertiseUrl,
+                       @Value("${server.port:8080}") int serverPort,
+                       @Value("${cluster.symbols:}") String symbols,
+                       @Value("${watchlist.symbols:}") String watchlistSymbols,
+                       @Value("${cluster.dir:data/cluster}") String dir,
+                       @Value("${cluster.lease-ms:10000}") long leaseMillis,
+                       @Value("${cluster.heartbeat-ms:2000}") long heartbeatMillis,
+                       @Value("${cluster.order-budget-ms:6000}") long orderBudgetMillis) {
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId.trim();
+        this.advertiseUrl = advertiseUrl.isBlank() ? "http://localhost:" + serverPort : advertiseUrl.trim();
+        this.leaseMillis = leaseMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.orderBudgetMillis = orderBudgetMillis;
+
+        LinkedHashSet<String> set = new LinkedHashSet<>();
+        for (String s : (symbols.isBlank() ? watchlistSymbols : symbols).split(",")) {
+            if (s.trim().length() == 6) set.add(s.trim());
+        }
+        this.symbols = List.copyOf(set);
+
+        // 다른 백엔드 빈이 있으면 그걸, 없으면 파일
+        this.backend = enabled ? backends.getIfAvailable(() -> new FileCoordinationBackend(Path.of(dir))) : null;
+
+        SimpleClientHttpRequestFactory f = new SimpleClientHttpRequestFactory();
+        f.setConnectTimeout(1000);
+        f.setReadTimeout(1500);
+        this.http = new RestTemplate(f);
+
+        if (enabled) {
+            System.out.println("🕸️ [Cluster] 노드 " + this.nodeId + " (" + backend.describe() + ", 종목 "
+                    + this.symbols.size() + "개, 임대 " + leaseMillis + "ms)");
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+
+    // ============================================================
+    // 🔵 매매 쪽에서 보는 API
+    // ============================================================
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 이 노드가 지금 symbol 을 매매해도 되는지 (클러스터 꺼져 있으면 항상 true) */
+    public boolean owns(String symbol) {
+        if (!enabled) return true;
+
+        Lease l = held.get(symbol);
+        return l != null && l.expiresAt() - heartbeatMillis > System.currentTimeMillis();
+    }
+
+    /** 배정받고 임대까지 잡은 종목 (없으면 null) */
+    public String tradeSymbol() {
+        String s = assigned;
+        return s != null && owns(s) ? s : null;
+    }
+
+    /** 포지션/미체결이 남은 종목 — 배정이 바뀌어도 정리될 때까지 임대 유지 (null = 없음) */
+    public void pin(String symbol) {
+        this.pinned = symbol;
+    }
+
+    /**
+     * symbol 임대를 확인한 상태에서 주문 전송 (클러스터 꺼져 있으면 그냥 전송)
+     *
+     * 하트비트와 같은 락 안에서 symbol 을 pin 하고, 보유 임대가 유효하며 백엔드의 현재 임대가
+     * 같은 owner / 같은 epoch 이고 전송 최대 소요만큼 임대가 남았을 때만 order 를 호출한다
+     * — 전송 중에는 하트비트가 임대를 놓지도, 갱신하지도 못한다.
+     * @return order 결과, 소유권을 확인하지 못해 보내지 않았으면 null
+     */
+    public <T> T guardOrder(String symbol, Callable<T> order) throws Exception {
+        if (!enabled) return order.call();
+
+        synchronized (ownership) {
+            pinned = symbol;   // 주문이 나가면 포지션/미체결이 생긴다 → 확인 전에 먼저 고정
+
+            Lease mine = held.get(symbol);
+            if (mine == null || !owns(symbol)) return null;
+
+            Lease current = backend.leases(SYMBOL).get(symbol);
+            if (current == null || !nodeId.equals(current.owner()) || current.epoch() != mine.epoch()) {
+                held.remove(symbol);
+                System.err.println("⛔ [Cluster] " + symbol + " 임대 epoch 불일치 (보유 " + mine.epoch() + ", 현재 "
+                        + (current == null ? "-" : current.owner() + "/" + current.epoch()) + ") — 주문 보류");
+                return null;
+            }
+
+            long left = current.expiresAt() - System.currentTimeMillis();
+            if (left <= orderBudgetMillis) {
+                System.err.println("⛔ [Cluster] " + symbol + " 임대 잔여 " + left + "ms ≤ 전송 한도 "
+                        + orderBudgetMillis + "ms — 주문 보류 (하트비트 지연?)");
+                return null;
+            }
+            return order.call();
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 하트비트
+    // ============================================================
+    @Scheduled(fixedDelayString = "${cluster.heartbeat-ms:2000}")
+    public synchronized void heartbeat() {
+        if (!enabled) return;
+
+        try {
+            backend.acquire(NODE + nodeId, nodeId, advertiseUrl, leaseMillis);
+
+            Lease l = backend.acquire(LEADER, nodeId, advertiseUrl, leaseMillis);
+            boolean wasLeader = leader;
+            leader = l != null;
+            if (leader && !wasLeader) System.out.println("👑 [Cluster] 리더 선출: " + nodeId + " (epoch " + l.epoch() + ")");
+            if (!leader && wasLeader) System.out.println("👑 [Cluster] 리더 지위 상실: " + nodeId);
+
+            if (leader) rebalance();
+            syncOwnership();
+            lastHeartbeat = System.currentTimeMillis();
+
+        } catch (Exception e) {
+            System.err.println("❌ [Cluster] 하트비트 실패: " + e.getMessage());
+        }
+    }
+
+    // 리더만 — 배정표 갱신
+    private void rebalance() {
+        Map<String, Lease> nodes = backend.leases(NODE);
+        Map<String, String> current = backend.values(ASSIGN);
+        Map<String, Lease> symbolLeases = backend.leases(SYMBOL);
+
+        Map<String, String> next = new LinkedHashMap<>();
+        Set<String> busy = new HashSet<>();
+
+        // 1) 임대 보유자 (정리 중인 포지션 포함) 그대로
+        for (String s : symbols) {
+            Lease h = symbolLeases.get(s);
+            if (h != null && nodes.containsKey(h.owner())) {
+                next.put(s, h.owner());
+                busy.add(h.owner());
+            }
+        }
+
+        // 2) 기존 배정 노드가 살아 있고 비어 있으면 유지
+        for (String s : symbols) {
+            if (next.containsKey(s)) continue;
+            String n = current.get(s);
+            if (n != null && nodes.containsKey(n) && busy.add(n)) next.put(s, n);
+        }
+
+        // 3) 남은 종목을 빈 노드에 (목록 순서 = 우선순위)
+        Iterator<String> free = new TreeSet<>(nodes.keySet()).stream().filter(n -> !busy.contains(n)).iterator();
+        for (String s : symbols) {
+            if (next.containsKey(s)) continue;
+            if (!free.hasNext()) break;
+            next.put(s, free.next());
+        }
+
+        Set<String> keys = new HashSet<>(current.keySet());
+        keys.addAll(next.keySet());
+        for (String s : keys) {
+            String before = current.get(s);
+            String after = next.get(s);
+            if (Objects.equals(before, after)) continue;
+
+            backend.put(ASSIGN + s, after);
+            System.out.println("🔀 [Cluster] " + s + " : " + (before == null ? "-" : before)
+                    + " → " + (after == null ? "-" : after));
+        }
+    }
+
+    // 모든 노드 — 배정표대로 종목 임대 획득/해제
+    private void syncOwnership() {
+        synchronized (ownership) {
+            syncOwnershipLocked();
+        }
+    }
+
+    private void syncOwnershipLocked() {
+        Map<String, String> table = backend.values(ASSIGN);
+
+        String mine = null;
+        for (String s : symbols) {
+            if (nodeId.equals(table.get(s))) {
+                mine = s;
+                break;
+            }
+        }
+        if (mine == null) {
+            mine = table.entrySet().stream()
+                    .filter(e -> nodeId.equals(e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .findFirst().orElse(null);
+        }
+        assigned = mine;
+
+        String pin = pinned;
+        for (String s : new ArrayList<>(held.keySet())) {
+            if (s.equals(mine) || s.equals(pin)) continue;
+            backend.release(SYMBOL + s, nodeId);
+            held.remove(s);
+            System.out.println("🔓 [Cluster] " + s + " 임대 해제");
+        }
+
+        for (String s : new LinkedHashSet<>(Arrays.asList(pin, mine))) {
+            if (s == null) continue;
+
+            Lease l = backend.acquire(SYMBOL + s, nodeId, advertiseUrl, leaseMillis);
+            if (l == null) {
+                held.remove(s);   // 이전 보유자가 아직 정리 중
+                continue;
+            }
+            if (!held.containsKey(s)) System.out.println("🔒 [Cluster] " + s + " 임대 획득 (epoch " + l.epoch() + ")");
+            held.put(s, l);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (!enabled) return;
+
+        // 정상 종료 시 임대를 바로 놓아 다른 노드가 만료를 기다리지 않게
+        try {
+            synchronized (ownership) {
+                for (String s : held.keySet()) backend.release(SYMBOL + s, nodeId);
+                held.clear();
+            }
+            backend.release(LEADER, nodeId);
+            backend.release(NODE + nodeId, nodeId);
+        } catch (Exception e) {
+            System.err.println("⚠️ [Cluster] 임대 해제 실패: " + e.getMessage());
+        }
+        backend.close();
+    }
+
+
+    // ============================================================
+    // 🔵 대시보드
+    // ============================================================
+    public Map<String, Object> getStatus() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("nodeId", nodeId);
+        if (!enabled) return map;
+
+        Lease l = backend.leases(LEADER).get("");
+        Map<String, Object> heldMap = new LinkedHashMap<>();
+        held.forEach((s, lease) -> heldMap.put(s, lease.epoch()));
+
+        map.put("backend", backend.describe());
+        map.put("leader", l == null ? null : l.owner());
+        map.put("isLeader", leader);
+        map.put("assigned", assigned);
+        map.put("pinned", pinned);
+        map.put("held", heldMap);
+        map.put("assignments", new TreeMap<>(backend.values(ASSIGN)));
+        map.put("lastHeartbeatAgoMs", lastHeartbeat == 0 ? null : System.currentTimeMillis() - lastHeartbeat);
+        return map;
+    }
+
+    /** 살아 있는 모든 노드의 /status 를 모아 합산 */
+    public Map<String, Object> aggregate() {
+        Map<String, Object> res = new LinkedHashMap<>(getStatus());
+        if (!enabled) return res;
+
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        double totalProfit = 0;
+        double balanceChange = 0;
+
+        for (Map.Entry<String, Lease> e : new TreeMap<>(backend.leases(NODE)).entrySet()) {
+            Map<String, Object> n = new LinkedHashMap<>();
+            n.put("node", e.getKey());
+            n.put("url", e.getValue().data());
+            try {
+                JSONObject s = new JSONObject(http.getForObject(e.getValue().data() + "/api/dashboard/status", String.class));
+                n.put("ok", true);
+                n.put("symbol", s.optString("symbol"));
+                n.put("qty", s.optInt("qty"));
+                n.put("price", s.optDouble("price", 0));
+                n.put("profitRate", s.optDouble("profitRate", 0));
+                n.put("totalProfit", s.optDouble("totalProfit", 0));
+                n.put("balanceChange", s.optDouble("balanceChange", 0));
+                totalProfit += s.optDouble("totalProfit", 0);
+                balanceChange += s.optDouble("balanceChange", 0);
+            } catch (Exception ex) {
+                n.put("ok", false);
+                n.put("error", ex.getMessage());
+            }
+            nodes.add(n);
+        }
+
+        res.put("nodes", nodes);
+        res.put("totalProfit", totalProfit);
+        res.put("balanceChange", balanceChange);
+        return res;
+    }
+}
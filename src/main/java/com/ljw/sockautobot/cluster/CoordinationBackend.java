@@ -0,0 +1,37 @@
+package com.ljw.sockautobot.cluster;
+
+import java.util.Map;
+
+/**
+ * 노드 간 조정 저장소 — 만료되는 임대(lease) + 단순 key/value
+ *
+ * 기본 구현은 FileCoordinationBackend (같은 호스트/공유 디스크).
+ * etcd / ZooKeeper / DB 등으로 바꾸려면 이 인터페이스 구현을 빈으로 등록하면 ClusterNode 가 그걸 쓴다.
+ * 모든 연산은 원자적이어야 한다.
+ */
+public interface CoordinationBackend extends AutoCloseable {
+
+    /**
+     * key 가 비었거나 만료됐거나 이미 owner 것이면 owner 로 (재)획득
+     * @return 획득한 임대, 다른 노드가 살아 있는 임대를 갖고 있으면 null
+     */
+    Lease acquire(String key, String owner, String data, long ttlMillis);
+
+    /** owner 것일 때만 해제 */
+    void release(String key, String owner);
+
+    /** prefix 로 시작하는 살아 있는 임대 (key 는 prefix 를 뗀 나머지) */
+    Map<String, Lease> leases(String prefix);
+
+    /** value 가 null 이면 삭제 */
+    void put(String key, String value);
+
+    /** prefix 로 시작하는 값 (key 는 prefix 를 뗀 나머지) */
+    Map<String, String> values(String prefix);
+
+    String describe();
+
+    @Override
+    default void close() {
+    }
+}
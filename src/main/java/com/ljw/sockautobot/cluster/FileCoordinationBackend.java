@@ -0,0 +1,177 @@
+package com.ljw.sockautobot.cluster;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 파일 하나로 된 조정 저장소 (로컬 테스트 / 같은 호스트 여러 JVM / 공유 디스크)
+ *
+ * dir/coordination.json 에 임대 + 값을 통째로 두고,
+ * 연산마다 dir/coordination.lock 에 OS 파일 락 → 읽기 → 수정 → 임시 파일에 쓰고 원자적 교체.
+ * 시각은 각 JVM 의 System.currentTimeMillis — 노드들의 시계가 맞아야 한다 (같은 호스트면 당연히).
+ *
+ * {"epoch": 12,
+ *  "leases": {"leader": {"owner": "a", "data": "...", "expiresAt": 1700000000000, "epoch": 12}},
+ *  "values": {"assign/005930": "a"}}
+ */
+public class FileCoordinationBackend implements CoordinationBackend {
+
+    private final Path file;
+    private final Path lockFile;
+
+    public FileCoordinationBackend(Path dir) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.file = dir.resolve("coordination.json");
+        this.lockFile = dir.resolve("coordination.lock");
+    }
+
+
+    // ============================================================
+    // 🔵 임대
+    // ============================================================
+    @Override
+    public Lease acquire(String key, String owner, String data, long ttlMillis) {
+        return locked(root -> {
+            long now = System.currentTimeMillis();
+            JSONObject leases = root.getJSONObject("leases");
+            purgeExpired(leases, now);
+
+            JSONObject cur = leases.optJSONObject(key);
+            if (cur != null && !owner.equals(cur.optString("owner"))) return null;   // 다른 노드가 보유 중
+
+            long epoch = cur != null ? cur.getLong("epoch") : root.getLong("epoch") + 1;
+            root.put("epoch", Math.max(root.getLong("epoch"), epoch));
+
+            JSONObject lease = new JSONObject();
+            lease.put("owner", owner);
+            lease.put("data", data == null ? "" : data);
+            lease.put("expiresAt", now + ttlMillis);
+            lease.put("epoch", epoch);
+            leases.put(key, lease);
+
+            return toLease(key, lease);
+        }, true);
+    }
+
+    @Override
+    public void release(String key, String owner) {
+        locked(root -> {
+            JSONObject leases = root.getJSONObject("leases");
+            JSONObject cur = leases.optJSONObject(key);
+            if (cur != null && owner.equals(cur.optString("owner"))) leases.remove(key);
+            return null;
+        }, true);
+    }
+
+    @Override
+    public Map<String, Lease> leases(String prefix) {
+        return locked(root -> {
+            long now = System.currentTimeMillis();
+            JSONObject leases = root.getJSONObject("leases");
+
+            Map<String, Lease> out = new HashMap<>();
+            for (String key : leases.keySet()) {
+                if (!key.startsWith(prefix)) continue;
+                Lease l = toLease(key, leases.getJSONObject(key));
+                if (l.isAlive(now)) out.put(key.substring(prefix.length()), l);
+            }
+            return out;
+        }, false);
+    }
+
+    private static void purgeExpired(JSONObject leases, long now) {
+        Iterator<String> it = leases.keySet().iterator();
+        while (it.hasNext()) {
+            if (leases.getJSONObject(it.next()).getLong("expiresAt") <= now) it.remove();
+        }
+    }
+
+    private static Lease toLease(String key, JSONObject o) {
+        return new Lease(key, o.optString("owner"), o.optString("data"), o.getLong("expiresAt"), o.getLong("epoch"));
+    }
+
+
+    // ============================================================
+    // 🔵 값
+    // ============================================================
+    @Override
+    public void put(String key, String value) {
+        locked(root -> {
+            if (value == null) root.getJSONObject("values").remove(key);
+            else root.getJSONObject("values").put(key, value);
+            return null;
+        }, true);
+    }
+
+    @Override
+    public Map<String, String> values(String prefix) {
+        return locked(root -> {
+            JSONObject values = root.getJSONObject("values");
+
+            Map<String, String> out = new HashMap<>();
+            for (String key : values.keySet()) {
+                if (key.startsWith(prefix)) out.put(key.substring(prefix.length()), values.getString(key));
+            }
+            return out;
+        }, false);
+    }
+
+    @Override
+    public String describe() {
+        return "file:" + file;
+    }
+
+
+    // ============================================================
+    // 🔵 파일 락 + 원자적 교체
+    // ============================================================
+    // 같은 JVM 안 스레드끼리는 FileLock 이 겹치면 예외 → synchronized 로 먼저 줄 세운다
+    @SuppressWarnings("try")   // 락은 try 블록 동안 잡고 있기만 하면 된다
+    private synchronized <T> T locked(Function<JSONObject, T> op, boolean write) {
+        try (FileChannel ch = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = ch.lock()) {
+
+            JSONObject root = read();
+            T result = op.apply(root);
+            if (write) writeAtomically(root);
+            return result;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("조정 파일 접근 실패: " + file, e);
+        }
+    }
+
+    private JSONObject read() throws IOException {
+        JSONObject root = Files.exists(file)
+                ? new JSONObject(Files.readString(file, StandardCharsets.UTF_8))
+                : new JSONObject();
+
+        if (!root.has("epoch")) root.put("epoch", 0L);
+        if (!root.has("leases")) root.put("leases", new JSONObject());
+        if (!root.has("values")) root.put("values", new JSONObject());
+        return root;
+    }
+
+    private void writeAtomically(JSONObject root) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, root.toString(), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ljw.sockautobot.cluster;
+
+/**
+ * 조정 백엔드의 임대 한 건
+ *
+ * epoch = 새로 획득할 때마다 백엔드 전체에서 하나씩 오르는 번호 (같은 owner 의 갱신은 그대로)
+ *         → 소유권이 넘어갔는지 판별하는 fencing 토큰
+ */
+public record Lease(String key, String owner, String data, long expiresAt, long epoch) {
+
+    public boolean isAlive(long now) {
+        return expiresAt > now;
+    }
+}
@@ -1,12 +1,32 @@
 package com.ljw.sockautobot.controller;
 
+import com.ljw.sockautobot.cluster.ClusterNode;
 import com.ljw.sockautobot.service.AutoTradeService;
-import com.ljw.sockautobot.service.TradeCalculatorHybrid;
+import com.ljw.sockautobot.service.DashboardStatusService;
+import com.ljw.sockautobot.service.KisApiGuard;
+import com.ljw.sockautobot.service.KisShardRouter;
+import com.ljw.sockautobot.service.LatencyTracer;
+import com.ljw.sockautobot.service.PnlAnalytics;
+import com.ljw.sockautobot.service.RiskEngine;
+import com.ljw.sockautobot.service.TradingSessionScheduler;
+import com.ljw.sockautobot.service.WatchlistQuoteService;
+import com.ljw.sockautobot.service.WatchlistScanner;
 import com.ljw.sockautobot.service.ProfitTracker;
+import com.ljw.sockautobot.store.ChartDownsampler;
+import com.ljw.sockautobot.store.TickSeries;
+import com.ljw.sockautobot.store.TickStore;
+import com.ljw.sockautobot.store.TradeJournal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -14,48 +34,110 @@ import java.util.Map;
 @RequestMapping("/api/dashboard")
 public class TradeDashboardController {
 
+    private static final String CBOR = "application/cbor";
+
     private final AutoTradeService autoTradeService;
-    private final TradeCalculatorHybrid calculator;
     private final ProfitTracker profitTracker;
+    private final PnlAnalytics pnlAnalytics;
+    private final TickStore tickStore;
+    private final RiskEngine riskEngine;
+    private final LatencyTracer latencyTracer;
+    private final KisApiGuard kisApiGuard;
+    private final KisShardRouter shardRouter;
+    private final WatchlistQuoteService watchlist;
+    private final WatchlistScanner scanner;
+    private final TradeJournal journal;
+    private final TradingSessionScheduler session;
+    private final DashboardStatusService dashboardStatus;
+    private final ClusterNode cluster;
 
+    // 엔진 상태 + 손익 (버전 단위 캐시)
+    // - If-None-Match 가 현재 ETag 면 304 (본문 없음)
+    // - ?since=<직전 ETag> 면 그 이후 바뀐 필드만 {"version", "since", "changes"} (재시작 후엔 전체)
+    // - Accept: application/cbor 면 CBOR (ETag 에 -cbor, Vary: Accept — 캐시가 표현을 섞지 않게)
     @GetMapping("/status")
-    public Map<String, Object> getStatus() {
+    public ResponseEntity<byte[]> getStatus(@RequestParam(required = false) String since,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
 
-        Map<String, Object> res = new HashMap<>();
+        boolean useCbor = accept != null && accept.contains(CBOR);
 
-        double price = calculator.getLastPrice();
-        double avg = autoTradeService.getAvgBuyPrice();
+        DashboardStatusService.Snapshot snap = dashboardStatus.snapshot();
+        String etag = dashboardStatus.etag(snap, useCbor);
 
-        res.put("symbol", autoTradeService.getSymbol());
-        res.put("price", price);
-        res.put("qty", autoTradeService.getQty());
-        res.put("avgBuyPrice", avg);
+        if (dashboardStatus.isNotModified(snap, ifNoneMatch, useCbor)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        long base = dashboardStatus.parseSince(snap, since);
+
+        byte[] body;
+        if (base >= 0) {
+            Map<String, Object> delta = dashboardStatus.delta(snap, base);
+            body = useCbor ? dashboardStatus.encodeCbor(delta) : dashboardStatus.encodeJson(delta);
+        } else {
+            body = useCbor ? dashboardStatus.fullCbor(snap) : dashboardStatus.fullJson(snap);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache())
+                .contentType(useCbor ? MediaType.parseMediaType(CBOR) : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // status 버전 / 스냅샷 생성 수 / 304 응답 수
+    @GetMapping("/status/stats")
+    public Map<String, Object> getStatusStats() {
+        return dashboardStatus.getStats();
+    }
+
+    // 당일 가격/거래량 차트 (서버에서 화면 폭에 맞게 다운샘플링)
+    @GetMapping("/chart")
+    public Map<String, Object> getChart(@RequestParam(defaultValue = "600") int width,
+                                        @RequestParam(defaultValue = "minmax") String mode) {
+
+        String symbol = autoTradeService.getSymbol();
+        TickSeries day = tickStore.day(symbol, TickStore.today());
 
-        res.put("profitRate", calculator.calculateNetProfit(price, avg));
+        int w = Math.max(50, Math.min(width, 4000));
+        TickSeries sampled = "lttb".equalsIgnoreCase(mode)
+                ? ChartDownsampler.lttb(day, w)
+                : ChartDownsampler.minMax(day, w / 2);
 
-        res.put("slope", calculator.getSlope());
-        res.put("accel", calculator.getAccel());
-        res.put("momentum", calculator.getInstantMomentum());
+        // 차트 시간축은 초 단위 + 중복 불가 → 같은 초는 마지막 점만 유지
+        List<Map<String, Object>> points = new ArrayList<>(sampled.size());
+        long prevSec = Long.MIN_VALUE;
+        long baseVol = -1;   // 직전 점(다른 초)의 누적거래량
+        long lastVol = -1;
 
-        res.put("shortMA", calculator.getShortMA());
-        res.put("longMA", calculator.getLongMA());
-        res.put("atr", calculator.getATR());
+        for (int i = 0; i < sampled.size(); i++) {
+            long sec = sampled.time(i) / 1000;
+            long vol = sampled.volume(i);
 
-        // 🔹  손익/잔고 현황
-        res.put("baseBalance", profitTracker.getBaseBalance());          // 시작 잔고
-        res.put("currentBalance", profitTracker.getCurrentBalance());    // 현재 잔고
-        res.put("totalProfit", profitTracker.getTotalProfit());          // 누적 수익
-        res.put("balanceChange", profitTracker.getBalanceChange());      // 잔고 변화액
-        res.put("balanceChangeRate", profitTracker.getBalanceChangeRate()); // 변화율 %
+            if (sec != prevSec) baseVol = lastVol;
 
-        res.put("dailyMomentum", calculator.getDailyMomentum(price));
+            Map<String, Object> p = new HashMap<>();
+            p.put("time", sec);
+            p.put("value", sampled.price(i));
+            p.put("volume", baseVol < 0 ? 0 : Math.max(vol - baseVol, 0)); // 직전 점 이후 체결량
 
-        res.put("volume", calculator.getVolume());
-        res.put("tickStrength", calculator.getTickStrength());
-        res.put("bidQty", calculator.getBidSum());
-        res.put("askQty", calculator.getAskSum());
-        res.put("kospi", calculator.getKospi());
+            if (sec == prevSec) points.set(points.size() - 1, p);
+            else points.add(p);
 
+            prevSec = sec;
+            lastVol = vol;
+        }
+
+        Map<String, Object> res = new HashMap<>();
+        res.put("symbol", symbol);
+        res.put("ticks", day.size());
+        res.put("points", points);
         return res;
     }
 
@@ -70,6 +152,95 @@ public class TradeDashboardController {
     }
 
 
+    // 실현손익 성과 — 세션 / 종목별 / 기동 이후 (승률, 거래당 Sharpe, 최대 낙폭, 회전율) + 최근 거래
+    @GetMapping("/pnl")
+    public Map<String, Object> getPnl() {
+        return pnlAnalytics.getStatus();
+    }
+
+
+    // 구간별 지연 백분위 (ms)
+    @GetMapping("/latency")
+    public Map<String, Object> getLatency() {
+        return latencyTracer.getSnapshot();
+    }
+
+    @PostMapping("/latency/reset")
+    public Map<String, Object> resetLatency() {
+        latencyTracer.reset();
+        return latencyTracer.getSnapshot();
+    }
+
+    // KIS 엔드포인트별 서킷브레이커 + 현재 요청 속도
+    @GetMapping("/kis-health")
+    public Map<String, Object> getKisHealth() {
+        return kisApiGuard.getStatus();
+    }
+
+    // KIS 계정별 제한기 / 배정 종목 수 / 재배정 횟수
+    @GetMapping("/accounts")
+    public Map<String, Object> getAccounts() {
+        return shardRouter.getStatus();
+    }
+
+    // 관심종목 시세 스냅샷 (사이클 번호, 예산, 가장 오래된 시세 나이)
+    @GetMapping("/watchlist")
+    public Map<String, Object> getWatchlist() {
+        return watchlist.getStatus();
+    }
+
+    // 관심종목 교체 — {"symbols": ["005930", "000660"]}
+    @PostMapping("/watchlist")
+    public Map<String, Object> setWatchlist(@RequestBody Map<String, List<String>> body) {
+        watchlist.setSymbols(body.getOrDefault("symbols", List.of()));
+        return watchlist.getStatus();
+    }
+
+    // 스캐너 순위 + 슬롯 (슬롯 0 = 매매 종목 후보)
+    @GetMapping("/scanner")
+    public Map<String, Object> getScanner() {
+        return scanner.getStatus();
+    }
+
+    // 매매 저널 (기록 수, fsync 배치 수, 배치당 기록 수)
+    @GetMapping("/journal")
+    public Map<String, Object> getJournal() {
+        return journal.getStatus();
+    }
+
+    // 클러스터 — 리더 / 배정표 / 보유 임대 (이 노드 기준)
+    @GetMapping("/cluster")
+    public Map<String, Object> getCluster() {
+        return cluster.getStatus();
+    }
+
+    // 클러스터 전체 — 살아 있는 노드마다 /status 를 받아 손익 합산
+    @GetMapping("/cluster/aggregate")
+    public Map<String, Object> getClusterAggregate() {
+        return cluster.aggregate();
+    }
+
+    // 세션 단계 (PRE_OPEN / OPEN / CLOSE_AUCTION / POST_CLOSE / CLOSED) + 워밍업 단계별 소요 ms
+    @GetMapping("/session")
+    public Map<String, Object> getSession() {
+        return session.getStatus();
+    }
+
+    @GetMapping("/risk")
+    public Map<String, Object> getRisk() {
+        return riskEngine.getStatus();
+    }
+
+    // 킬스위치 on/off — {"enabled": true, "reason": "..."}
+    @PostMapping("/risk/kill")
+    public Map<String, Object> setKillSwitch(@RequestBody Map<String, Object> body) {
+        boolean enabled = Boolean.parseBoolean(String.valueOf(body.getOrDefault("enabled", true)));
+        Object reason = body.get("reason");
+        riskEngine.setKillSwitch(enabled, reason == null ? null : reason.toString());
+        return riskEngine.getStatus();
+    }
+
+
     // 주식 종목 변경
     @PostMapping("/updateSymbol")
     public Map<String, Object> updateSymbol(@RequestBody Map<String, String> body) {
@@ -0,0 +1,70 @@
+package com.ljw.sockautobot.indicator;
+
+/**
+ * 볼린저 밴드 — 고정 크기 링버퍼 + 누적합/제곱합으로 O(1) 갱신
+ */
+public class BollingerBands {
+
+    private final int period;
+    private final double k;
+
+    private final double[] window;
+    private int head = 0;
+    private int count = 0;
+    private double sum = 0;
+    private double sumSq = 0;
+
+    public BollingerBands(int period, double k) {
+        if (period <= 1) throw new IllegalArgumentException("period must be > 1: " + period);
+        this.period = period;
+        this.k = k;
+        this.window = new double[period];
+    }
+
+    public void update(double x) {
+        if (count == period) {
+            double old = window[head];
+            sum -= old;
+            sumSq -= old * old;
+        } else {
+            count++;
+        }
+
+        window[head] = x;
+        head = (head + 1) % period;
+
+        sum += x;
+        sumSq += x * x;
+    }
+
+    public double getMiddle() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    public double getStdDev() {
+        if (count == 0) return 0;
+        double mean = sum / count;
+        double var = sumSq / count - mean * mean;
+        return var > 0 ? Math.sqrt(var) : 0;
+    }
+
+    public double getUpper() { return getMiddle() + k * getStdDev(); }
+
+    public double getLower() { return getMiddle() - k * getStdDev(); }
+
+    /** 밴드 내 위치 (0 = 하단, 1 = 상단), 밴드 폭이 0이면 0.5 */
+    public double getPercentB(double price) {
+        double width = 2 * k * getStdDev();
+        if (width <= 0) return 0.5;
+        return (price - getLower()) / width;
+    }
+
+    public boolean isReady() { return count == period; }
+
+    public void reset() {
+        head = 0;
+        count = 0;
+        sum = 0;
+        sumSq = 0;
+    }
+}
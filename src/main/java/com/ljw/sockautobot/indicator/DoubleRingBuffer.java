@@ -0,0 +1,58 @@
+package com.ljw.sockautobot.indicator;
+
+/**
+ * 고정 크기 double 링버퍼 — 꽉 차면 가장 오래된 값을 덮어쓴다
+ *
+ * LinkedList&lt;Double&gt; 대신 사용 (원소당 박싱 + 노드 객체가 없어 메모리 8바이트/값, 할당 없음)
+ */
+public final class DoubleRingBuffer {
+
+    private final double[] buf;
+    private int head = 0;   // 다음에 쓸 위치
+    private int size = 0;
+
+    public DoubleRingBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.buf = new double[capacity];
+    }
+
+    public void add(double v) {
+        buf[head] = v;
+        head = (head + 1) % buf.length;
+        if (size < buf.length) size++;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /** i = 0 이 가장 오래된 값 */
+    public double get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return buf[Math.floorMod(head - size + i, buf.length)];
+    }
+
+    /** k = 0 이 가장 최근 값 */
+    public double fromEnd(int k) {
+        return get(size - 1 - k);
+    }
+
+    public double last() {
+        return fromEnd(0);
+    }
+
+    /** 최근 n 개 평균 (n > size 면 있는 만큼) */
+    public double meanOfLast(int n) {
+        int len = Math.min(n, size);
+        if (len == 0) return 0;
+
+        double sum = 0;
+        for (int k = 0; k < len; k++) sum += fromEnd(k);
+        return sum / len;
+    }
+}
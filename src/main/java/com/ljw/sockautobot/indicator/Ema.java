@@ -0,0 +1,37 @@
+package com.ljw.sockautobot.indicator;
+
+/**
+ * 지수이동평균 (EMA) — 틱마다 O(1) 갱신
+ */
+public class Ema {
+
+    private final int period;
+    private final double alpha;
+
+    private double value = 0;
+    private int count = 0;
+
+    public Ema(int period) {
+        if (period <= 0) throw new IllegalArgumentException("period must be > 0: " + period);
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    public double update(double x) {
+        value = (count == 0) ? x : value + alpha * (x - value);
+        count++;
+        return value;
+    }
+
+    public double getValue() { return value; }
+
+    /** period 만큼 표본이 쌓였는지 */
+    public boolean isReady() { return count >= period; }
+
+    public int getPeriod() { return period; }
+
+    public void reset() {
+        value = 0;
+        count = 0;
+    }
+}
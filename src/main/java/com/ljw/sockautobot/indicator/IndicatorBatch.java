@@ -0,0 +1,177 @@
+package com.ljw.sockautobot.indicator;
+
+/**
+ * 백테스트용 일괄 계산 (double[] 컬럼 단위)
+ *
+ * 결과는 같은 데이터를 증분 지표 클래스에 순서대로 넣었을 때와 동일하다.
+ * 원소별 연산(차분, 가격×거래량 등)은 별도 루프로 분리해 JIT 자동 벡터화가 적용되도록 했다.
+ */
+public final class IndicatorBatch {
+
+    private IndicatorBatch() {}
+
+    // ============================================================
+    // EMA
+    // ============================================================
+    public static void ema(double[] src, int period, double[] dst) {
+        checkLength(src, dst);
+        if (period <= 0) throw new IllegalArgumentException("period must be > 0: " + period);
+        if (src.length == 0) return;
+
+        double alpha = 2.0 / (period + 1);
+        double v = src[0];
+        dst[0] = v;
+        for (int i = 1; i < src.length; i++) {
+            v += alpha * (src[i] - v);
+            dst[i] = v;
+        }
+    }
+
+
+    // ============================================================
+    // RSI (Wilder)
+    // ============================================================
+    public static void rsi(double[] src, int period, double[] dst) {
+        checkLength(src, dst);
+        if (period <= 0) throw new IllegalArgumentException("period must be > 0: " + period);
+        int n = src.length;
+        if (n == 0) return;
+
+        // 1) 원소별 상승/하락폭
+        double[] gain = new double[n];
+        double[] loss = new double[n];
+        for (int i = 1; i < n; i++) {
+            double d = src[i] - src[i - 1];
+            gain[i] = Math.max(d, 0);
+            loss[i] = Math.max(-d, 0);
+        }
+
+        // 2) 평활 (순차)
+        double avgGain = 0;
+        double avgLoss = 0;
+        dst[0] = 50;
+        for (int i = 1; i < n; i++) {
+            if (i <= period) {
+                avgGain += (gain[i] - avgGain) / i;
+                avgLoss += (loss[i] - avgLoss) / i;
+            } else {
+                avgGain = (avgGain * (period - 1) + gain[i]) / period;
+                avgLoss = (avgLoss * (period - 1) + loss[i]) / period;
+            }
+            dst[i] = Rsi.value(avgGain, avgLoss);
+        }
+    }
+
+
+    // ============================================================
+    // VWAP (누적 거래량 컬럼 기준)
+    // ============================================================
+    public static void vwap(double[] price, double[] cumVolume, double[] dst) {
+        checkLength(price, cumVolume);
+        checkLength(price, dst);
+        int n = price.length;
+        if (n == 0) return;
+
+        // 1) 원소별 거래량 증분 / 가격×증분 (누적량이 줄면 세션 리셋 표시로 -1)
+        double[] dv = new double[n];
+        double[] pv = new double[n];
+        for (int i = 1; i < n; i++) {
+            double d = cumVolume[i] - cumVolume[i - 1];
+            dv[i] = d < 0 ? -1 : d;
+        }
+        for (int i = 1; i < n; i++) {
+            pv[i] = price[i] * Math.max(dv[i], 0);
+        }
+
+        // 2) 누적합 (순차)
+        double sumPv = 0;
+        double sumV = 0;
+        dst[0] = price[0];
+        for (int i = 1; i < n; i++) {
+            if (dv[i] < 0) {
+                sumPv = 0;
+                sumV = 0;
+            } else {
+                sumPv += pv[i];
+                sumV += dv[i];
+            }
+            dst[i] = sumV > 0 ? sumPv / sumV : price[i];
+        }
+    }
+
+
+    // ============================================================
+    // 볼린저 밴드
+    // ============================================================
+    public static void bollinger(double[] src, int period, double k,
+                                 double[] middle, double[] upper, double[] lower) {
+        checkLength(src, middle);
+        checkLength(src, upper);
+        checkLength(src, lower);
+        if (period <= 1) throw new IllegalArgumentException("period must be > 1: " + period);
+        int n = src.length;
+
+        // 1) 원소별 제곱
+        double[] sq = new double[n];
+        for (int i = 0; i < n; i++) {
+            sq[i] = src[i] * src[i];
+        }
+
+        // 2) 슬라이딩 합 (빼고 더하는 순서까지 BollingerBands 와 같게 — 보합 구간 분산은 상쇄 오차에 민감)
+        double sum = 0;
+        double sumSq = 0;
+        for (int i = 0; i < n; i++) {
+            if (i >= period) {
+                sum -= src[i - period];
+                sumSq -= sq[i - period];
+            }
+            sum += src[i];
+            sumSq += sq[i];
+            int count = Math.min(i + 1, period);
+            double mean = sum / count;
+            double var = sumSq / count - mean * mean;
+            middle[i] = mean;
+            upper[i] = var > 0 ? Math.sqrt(var) : 0;
+        }
+
+        // 3) 원소별 밴드 (upper 에 임시로 담아둔 표준편차 사용)
+        for (int i = 0; i < n; i++) {
+            double band = k * upper[i];
+            lower[i] = middle[i] - band;
+            upper[i] = middle[i] + band;
+        }
+    }
+
+
+    // ============================================================
+    // MACD
+    // ============================================================
+    public static void macd(double[] src, int fastPeriod, int slowPeriod, int signalPeriod,
+                            double[] macd, double[] signal, double[] histogram) {
+        checkLength(src, macd);
+        checkLength(src, signal);
+        checkLength(src, histogram);
+        int n = src.length;
+
+        double[] fast = new double[n];
+        ema(src, fastPeriod, fast);
+        ema(src, slowPeriod, macd);
+
+        for (int i = 0; i < n; i++) {
+            macd[i] = fast[i] - macd[i];
+        }
+
+        ema(macd, signalPeriod, signal);
+
+        for (int i = 0; i < n; i++) {
+            histogram[i] = macd[i] - signal[i];
+        }
+    }
+
+
+    private static void checkLength(double[] a, double[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("column length mismatch: " + a.length + " != " + b.length);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ljw.sockautobot.indicator;
+
+/**
+ * MACD (fast EMA - slow EMA) + 시그널선
+ */
+public class Macd {
+
+    private final Ema fast;
+    private final Ema slow;
+    private final Ema signal;
+
+    private double macd = 0;
+
+    public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        this.fast = new Ema(fastPeriod);
+        this.slow = new Ema(slowPeriod);
+        this.signal = new Ema(signalPeriod);
+    }
+
+    public void update(double price) {
+        macd = fast.update(price) - slow.update(price);
+        signal.update(macd);
+    }
+
+    public double getMacd() { return macd; }
+
+    public double getSignal() { return signal.getValue(); }
+
+    public double getHistogram() { return macd - signal.getValue(); }
+
+    public boolean isReady() { return slow.isReady() && signal.isReady(); }
+
+    public void reset() {
+        fast.reset();
+        slow.reset();
+        signal.reset();
+        macd = 0;
+    }
+}
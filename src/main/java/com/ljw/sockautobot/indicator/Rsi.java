@@ -0,0 +1,63 @@
+package com.ljw.sockautobot.indicator;
+
+/**
+ * RSI (Wilder 평활) — 직전 가격과 평균 상승/하락폭만 유지
+ */
+public class Rsi {
+
+    private final int period;
+
+    private double prev = Double.NaN;
+    private double avgGain = 0;
+    private double avgLoss = 0;
+    private int changes = 0;
+
+    public Rsi(int period) {
+        if (period <= 0) throw new IllegalArgumentException("period must be > 0: " + period);
+        this.period = period;
+    }
+
+    public double update(double price) {
+        if (Double.isNaN(prev)) {
+            prev = price;
+            return getValue();
+        }
+
+        double change = price - prev;
+        prev = price;
+
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+
+        // 처음 period 개 변화량은 단순평균으로 시드
+        if (changes < period) {
+            changes++;
+            avgGain += (gain - avgGain) / changes;
+            avgLoss += (loss - avgLoss) / changes;
+        } else {
+            avgGain = (avgGain * (period - 1) + gain) / period;
+            avgLoss = (avgLoss * (period - 1) + loss) / period;
+        }
+        return getValue();
+    }
+
+    /** 0~100, 표본이 없으면 중립값 50 */
+    public double getValue() {
+        return value(avgGain, avgLoss);
+    }
+
+    static double value(double avgGain, double avgLoss) {
+        if (avgLoss == 0) return avgGain == 0 ? 50 : 100;
+        double rs = avgGain / avgLoss;
+        return 100 - 100 / (1 + rs);
+    }
+
+    public boolean isReady() { return changes >= period; }
+
+    public void reset() {
+        prev = Double.NaN;
+        avgGain = 0;
+        avgLoss = 0;
+        changes = 0;
+    }
+}
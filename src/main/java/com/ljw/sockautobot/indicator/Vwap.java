@@ -0,0 +1,51 @@
+package com.ljw.sockautobot.indicator;
+
+/**
+ * 세션 VWAP — KIS acml_vol(누적 거래량)의 증가분으로 가중
+ */
+public class Vwap {
+
+    private double sumPriceVolume = 0;
+    private double sumVolume = 0;
+    private double lastCumVolume = -1;
+    private double lastPrice = 0;
+
+    /**
+     * @param price     현재가
+     * @param cumVolume 당일 누적 거래량 (acml_vol)
+     */
+    public double update(double price, double cumVolume) {
+        lastPrice = price;
+
+        // 첫 표본이거나 누적 거래량이 줄었으면(새 세션/종목 변경) 기준점만 다시 잡음
+        if (lastCumVolume < 0 || cumVolume < lastCumVolume) {
+            sumPriceVolume = 0;
+            sumVolume = 0;
+            lastCumVolume = cumVolume;
+            return getValue();
+        }
+
+        double delta = cumVolume - lastCumVolume;
+        lastCumVolume = cumVolume;
+
+        if (delta > 0) {
+            sumPriceVolume += price * delta;
+            sumVolume += delta;
+        }
+        return getValue();
+    }
+
+    /** 체결이 아직 없으면 마지막 가격 */
+    public double getValue() {
+        return sumVolume > 0 ? sumPriceVolume / sumVolume : lastPrice;
+    }
+
+    public double getVolume() { return sumVolume; }
+
+    public void reset() {
+        sumPriceVolume = 0;
+        sumVolume = 0;
+        lastCumVolume = -1;
+        lastPrice = 0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ljw.sockautobot.market;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * KRX 정규장 달력 (주말 + 휴장일 목록)
+ *
+ *   08:50 ~ 09:00  PRE_OPEN       워밍업 (토큰/전일종가/연결/지표 예열)
+ *   09:00 ~ 15:20  OPEN           접속매매 — 자동매매 허용 구간
+ *   15:20 ~ 15:30  CLOSE_AUCTION  종가 단일가 — 신규 판단 중지
+ *   15:30 ~        POST_CLOSE     마감 정리
+ *   그 외 / 휴장일  CLOSED
+ *
+ * 휴장일은 session.holidays (yyyy-MM-dd 쉼표 구분) 와 session.holidays-file (한 줄에 하나) 을 합친다.
+ * 매년 KRX 휴장일 공지로 갱신할 것.
+ */
+@Component
+public class KrxCalendar {
+
+    public enum Phase { CLOSED, PRE_OPEN, OPEN, CLOSE_AUCTION, POST_CLOSE }
+
+    public static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    public static final LocalTime WARM_UP = LocalTime.of(8, 50);
+    public static final LocalTime OPEN = LocalTime.of(9, 0);
+    public static final LocalTime CLOSE_AUCTION = LocalTime.of(15, 20);
+    public static final LocalTime CLOSE = LocalTime.of(15, 30);
+    public static final LocalTime POST_CLOSE_END = LocalTime.of(16, 0);
+
+    private final Set<LocalDate> holidays = new TreeSet<>();
+
+    public KrxCalendar(@Value("${session.holidays:}") String holidays,
+                       @Value("${session.holidays-file:}") String holidaysFile) {
+        for (String s : holidays.split(",")) {
+            addHoliday(s);
+        }
+        if (!holidaysFile.isBlank()) {
+            try {
+                Files.readAllLines(Path.of(holidaysFile)).forEach(this::addHoliday);
+            } catch (IOException e) {
+                System.err.println("⚠️ [KrxCalendar] 휴장일 파일 읽기 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    private void addHoliday(String s) {
+        s = s.trim();
+        if (s.isEmpty() || s.startsWith("#")) return;
+        try {
+            holidays.add(LocalDate.parse(s));
+        } catch (Exception e) {
+            System.err.println("⚠️ [KrxCalendar] 휴장일 형식 오류: " + s);
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 조회
+    // ============================================================
+    public boolean isTradingDay(LocalDate day) {
+        DayOfWeek dow = day.getDayOfWeek();
+        return dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY && !holidays.contains(day);
+    }
+
+    public Phase phaseAt(LocalDateTime t) {
+        if (!isTradingDay(t.toLocalDate())) return Phase.CLOSED;
+
+        LocalTime time = t.toLocalTime();
+        if (time.isBefore(WARM_UP)) return Phase.CLOSED;
+        if (time.isBefore(OPEN)) return Phase.PRE_OPEN;
+        if (time.isBefore(CLOSE_AUCTION)) return Phase.OPEN;
+        if (time.isBefore(CLOSE)) return Phase.CLOSE_AUCTION;
+        if (time.isBefore(POST_CLOSE_END)) return Phase.POST_CLOSE;
+        return Phase.CLOSED;
+    }
+
+    public Phase phaseNow() {
+        return phaseAt(now());
+    }
+
+    /** 직전 거래일 (휴장일/주말 건너뜀) */
+    public LocalDate previousTradingDay(LocalDate day) {
+        LocalDate d = day.minusDays(1);
+        for (int i = 0; i < 30 && !isTradingDay(d); i++) {
+            d = d.minusDays(1);
+        }
+        return d;
+    }
+
+    public static LocalDateTime now() {
+        return LocalDateTime.now(KST);
+    }
+
+    public Set<LocalDate> getHolidays() {
+        return holidays;
+    }
+}
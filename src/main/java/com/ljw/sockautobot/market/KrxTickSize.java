@@ -0,0 +1,39 @@
+package com.ljw.sockautobot.market;
+
+/**
+ * KRX 호가가격단위 (2023.01.25 개편, 유가증권/코스닥 공통)
+ */
+public final class KrxTickSize {
+
+    private KrxTickSize() {}
+
+    public static int tickSize(double price) {
+        if (price < 2_000) return 1;
+        if (price < 5_000) return 5;
+        if (price < 20_000) return 10;
+        if (price < 50_000) return 50;
+        if (price < 200_000) return 100;
+        if (price < 500_000) return 500;
+        return 1_000;
+    }
+
+    /** 호가단위로 내림 (매수: 더 비싸게 사지 않도록) */
+    public static int roundDown(double price) {
+        if (price <= 0) return 0;
+        int tick = tickSize(price);
+        return (int) (Math.floor(price / tick) * tick);
+    }
+
+    /** 호가단위로 올림 (매도: 더 싸게 팔지 않도록) */
+    public static int roundUp(double price) {
+        if (price <= 0) return 0;
+        int tick = tickSize(price);
+        int up = (int) (Math.ceil(price / tick) * tick);
+        // 구간 경계를 넘으면 윗 구간 단위로 다시 맞춤 (예: 1999.5 → 2000)
+        return up % tickSize(up) == 0 ? up : roundUp(up);
+    }
+
+    public static boolean isValid(int price) {
+        return price > 0 && price % tickSize(price) == 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ljw.sockautobot.market;
+
+/**
+ * 매매 비용 (수수료 + 매도 세금) — 손익 계산은 전부 여기 하나로
+ *
+ * 보수적으로 잡은 값: 수수료 편도 0.15% (매수/매도 각각), 매도 세금 0.15%
+ */
+public final class KrxTradeCost {
+
+    public static final double COMMISSION_RATE = 0.0015;
+    public static final double SELL_TAX_RATE = 0.0015;
+
+    private KrxTradeCost() {}
+
+    /** 왕복 비용 (원) — 매수/매도 수수료 + 매도 세금 */
+    public static double roundTripCost(double sellPrice, double buyPrice, int qty) {
+        return ((sellPrice + buyPrice) * COMMISSION_RATE + sellPrice * SELL_TAX_RATE) * qty;
+    }
+
+    /** 비용 차감 순손익 (원) */
+    public static double netProfit(double sellPrice, double buyPrice, int qty) {
+        if (qty <= 0) return 0;
+        return (sellPrice - buyPrice) * qty - roundTripCost(sellPrice, buyPrice, qty);
+    }
+
+    /** 지금 팔면 얻는 비용 차감 수익률 (%) */
+    public static double netProfitRate(double currentPrice, double avgPrice) {
+        if (avgPrice <= 0 || currentPrice <= 0) return 0;
+        return netProfit(currentPrice, avgPrice, 1) / avgPrice * 100;
+    }
+}
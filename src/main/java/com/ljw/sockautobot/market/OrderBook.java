@@ -0,0 +1,149 @@
+package com.ljw.sockautobot.market;
+
+import org.json.JSONObject;
+
+/**
+ * 종목별 10단계 호가창 — 원시 배열을 제자리 갱신 (조회/갱신 시 할당 없음)
+ *
+ * level 0 = 1호가 (최우선 호가)
+ */
+public class OrderBook {
+
+    public static final int LEVELS = 10;
+
+    // KIS inquire-asking-price-exp-ccn output1 필드명 (문자열 결합 할당 방지용으로 미리 생성)
+    private static final String[] ASK_PRICE_KEYS = keys("askp");
+    private static final String[] BID_PRICE_KEYS = keys("bidp");
+    private static final String[] ASK_QTY_KEYS = keys("askp_rsqn");
+    private static final String[] BID_QTY_KEYS = keys("bidp_rsqn");
+
+    private final int[] askPrice = new int[LEVELS];
+    private final int[] bidPrice = new int[LEVELS];
+    private final long[] askQty = new long[LEVELS];
+    private final long[] bidQty = new long[LEVELS];
+
+    private long totalAskQty = 0;
+    private long totalBidQty = 0;
+    private long updatedAt = 0;
+
+    private static String[] keys(String prefix) {
+        String[] k = new String[LEVELS];
+        for (int i = 0; i < LEVELS; i++) k[i] = prefix + (i + 1);
+        return k;
+    }
+
+
+    // ============================================================
+    // 갱신
+    // ============================================================
+
+    /** REST 호가 스냅샷 (output1) 전체 반영 */
+    public void applySnapshot(JSONObject output1) {
+        for (int i = 0; i < LEVELS; i++) {
+            askPrice[i] = Math.max(output1.optInt(ASK_PRICE_KEYS[i], 0), 0);
+            bidPrice[i] = Math.max(output1.optInt(BID_PRICE_KEYS[i], 0), 0);
+            askQty[i] = Math.max(output1.optLong(ASK_QTY_KEYS[i], 0), 0);
+            bidQty[i] = Math.max(output1.optLong(BID_QTY_KEYS[i], 0), 0);
+        }
+        totalAskQty = Math.max(output1.optLong("total_askp_rsqn", cumulativeAskDepth(LEVELS)), 0);
+        totalBidQty = Math.max(output1.optLong("total_bidp_rsqn", cumulativeBidDepth(LEVELS)), 0);
+        updatedAt = System.currentTimeMillis();
+    }
+
+    /** 단일 호가 변경 (WebSocket 실시간 호가 등) */
+    public void applyLevel(boolean ask, int level, int price, long qty) {
+        if (level < 0 || level >= LEVELS) return;
+
+        long q = Math.max(qty, 0);
+        if (ask) {
+            totalAskQty += q - askQty[level];
+            askPrice[level] = price;
+            askQty[level] = q;
+        } else {
+            totalBidQty += q - bidQty[level];
+            bidPrice[level] = price;
+            bidQty[level] = q;
+        }
+        updatedAt = System.currentTimeMillis();
+    }
+
+    public void clear() {
+        for (int i = 0; i < LEVELS; i++) {
+            askPrice[i] = 0;
+            bidPrice[i] = 0;
+            askQty[i] = 0;
+            bidQty[i] = 0;
+        }
+        totalAskQty = 0;
+        totalBidQty = 0;
+        updatedAt = 0;
+    }
+
+
+    // ============================================================
+    // 조회
+    // ============================================================
+    public boolean isEmpty() {
+        return bidQty[0] <= 0 && askQty[0] <= 0;
+    }
+
+    public int getAskPrice(int level) { return askPrice[level]; }
+    public int getBidPrice(int level) { return bidPrice[level]; }
+    public long getAskQty(int level) { return askQty[level]; }
+    public long getBidQty(int level) { return bidQty[level]; }
+
+    public int getBestAsk() { return askPrice[0]; }
+    public int getBestBid() { return bidPrice[0]; }
+
+    public long getTotalAskQty() { return totalAskQty; }
+    public long getTotalBidQty() { return totalBidQty; }
+    public long getUpdatedAt() { return updatedAt; }
+
+    public int getSpread() {
+        if (askPrice[0] <= 0 || bidPrice[0] <= 0) return 0;
+        return askPrice[0] - bidPrice[0];
+    }
+
+    /** 1~levels 호가 매도 잔량 합 */
+    public long cumulativeAskDepth(int levels) {
+        long sum = 0;
+        for (int i = 0, n = Math.min(levels, LEVELS); i < n; i++) sum += askQty[i];
+        return sum;
+    }
+
+    /** 1~levels 호가 매수 잔량 합 */
+    public long cumulativeBidDepth(int levels) {
+        long sum = 0;
+        for (int i = 0, n = Math.min(levels, LEVELS); i < n; i++) sum += bidQty[i];
+        return sum;
+    }
+
+    /**
+     * 호가 깊이 가중 불균형 (-1 = 매도 우위, +1 = 매수 우위)
+     * 1호가 가중치 1, 2호가 1/2, 3호가 1/3 ... 으로 최우선 호가에 가까울수록 크게 반영
+     */
+    public double depthWeightedImbalance(int levels) {
+        double bid = 0;
+        double ask = 0;
+        for (int i = 0, n = Math.min(levels, LEVELS); i < n; i++) {
+            double w = 1.0 / (i + 1);
+            bid += bidQty[i] * w;
+            ask += askQty[i] * w;
+        }
+        double total = bid + ask;
+        return total <= 0 ? 0 : (bid - ask) / total;
+    }
+
+    /**
+     * 마이크로프라이스 — 1호가 잔량으로 가중한 공정가
+     * 매수 잔량이 많을수록 매도호가 쪽으로 기운다. 한쪽 호가가 비면 0
+     */
+    public double microprice() {
+        int bid = bidPrice[0];
+        int ask = askPrice[0];
+        long bq = bidQty[0];
+        long aq = askQty[0];
+        if (bid <= 0 || ask <= 0 || bq + aq <= 0) return 0;
+        return (bid * (double) aq + ask * (double) bq) / (bq + aq);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ljw.sockautobot.market;
+
+import org.json.JSONObject;
+
+/**
+ * 종목 하나의 시세 스냅샷 (통합 시세 JSON 한 줄)
+ */
+public record Quote(String symbol,
+                    double price,
+                    long volume,
+                    double tickStrength,
+                    long askQty,
+                    long bidQty,
+                    long fetchedAt) {
+
+    /** KisPriceClientApi.unify / KisMultiPriceApi 결과 → Quote */
+    public static Quote of(String symbol, JSONObject unified, long fetchedAt) {
+        return new Quote(symbol,
+                unified.optDouble("price", 0),
+                unified.optLong("volume", 0),
+                unified.optDouble("tick_strength", 100),
+                unified.optLong("ask1_qty", 0),
+                unified.optLong("bid1_qty", 0),
+                fetchedAt);
+    }
+
+    public long ageMillis(long now) {
+        return Math.max(now - fetchedAt, 0);
+    }
+}
@@ -0,0 +1,172 @@
+package com.ljw.sockautobot.market;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 종목 수천 개용 계산기 상태 — 종목 id 로 인덱싱하는 struct-of-arrays
+ *
+ * 종목마다 객체를 두지 않고 필드별 원시 배열 하나씩만 둔다. 최근 WINDOW 개 시세는
+ * prices[id * WINDOW + slot] 링으로 보관한다. 생성 시 전부 할당하고 이후로는 할당이 없다.
+ * 종목당 약 (WINDOW * 2 + 7) * 8 바이트로, 30 창 기준 0.5KB 남짓이다.
+ *
+ * 신호 계산식은 TradeCalculatorHybrid 와 같다 (이평 10/30, 거래량 스파이크 30, 직전 틱 대비 기울기).
+ * 단, 시세의 거래량은 당일 누적(acml_vol)이라 그대로 비교하면 늘 스파이크 → 시세 간 증분을 저장해 비교한다.
+ * 한 종목 id 는 동시에 한 스레드만 갱신해야 한다 (스캐너는 id 구간을 나눠 병렬 처리).
+ */
+public final class SymbolSlab {
+
+    public static final int WINDOW = 30;    // 장기 이평 / 거래량 스파이크 창
+    private static final int SHORT_MA = 10;
+
+    private final String[] symbols;
+    private final Map<String, Integer> ids;
+
+    private final double[] prices;
+    private final double[] volumes;        // 직전 시세 대비 거래량 증분
+    private final long[] lastCumVolume;    // 직전 시세의 누적 거래량 (-1 = 없음)
+    private final int[] head;
+    private final int[] count;
+
+    private final double[] tickStrength;
+    private final long[] bidQty;
+    private final long[] askQty;
+    private final long[] lastFetchedAt;
+
+    public SymbolSlab(List<String> universe) {
+        int n = universe.size();
+
+        this.symbols = universe.toArray(new String[0]);
+        this.ids = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) ids.put(symbols[i], i);
+
+        this.prices = new double[n * WINDOW];
+        this.volumes = new double[n * WINDOW];
+        this.lastCumVolume = new long[n];
+        Arrays.fill(lastCumVolume, -1);
+        this.head = new int[n];
+        this.count = new int[n];
+        this.tickStrength = new double[n];
+        this.bidQty = new long[n];
+        this.askQty = new long[n];
+        this.lastFetchedAt = new long[n];
+    }
+
+    public int size() { return symbols.length; }
+
+    /** 없는 종목이면 -1 */
+    public int id(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    public String symbol(int id) { return symbols[id]; }
+
+
+    // ============================================================
+    // 🔵 갱신
+    // ============================================================
+    /** 새 시세면 반영하고 true (같은 시세를 두 번 넣지 않는다) */
+    public boolean update(int id, Quote q) {
+        if (q.fetchedAt() <= lastFetchedAt[id] || q.price() <= 0) return false;
+        lastFetchedAt[id] = q.fetchedAt();
+
+        int slot = id * WINDOW + head[id];
+        prices[slot] = q.price();
+        volumes[slot] = volumeDelta(id, q.volume());
+        head[id] = (head[id] + 1) % WINDOW;
+        if (count[id] < WINDOW) count[id]++;
+
+        tickStrength[id] = q.tickStrength();
+        bidQty[id] = Math.max(q.bidQty(), 0);
+        askQty[id] = Math.max(q.askQty(), 0);
+        return true;
+    }
+
+    // 첫 시세는 0, 누적이 줄면(새 세션) 그 누적 전체가 증분
+    private double volumeDelta(int id, long cumVolume) {
+        long prev = lastCumVolume[id];
+        lastCumVolume[id] = cumVolume;
+        if (prev < 0) return 0;
+        return cumVolume >= prev ? cumVolume - prev : cumVolume;
+    }
+
+    public void reset(int id) {
+        head[id] = 0;
+        count[id] = 0;
+        lastFetchedAt[id] = 0;
+        lastCumVolume[id] = -1;
+    }
+
+
+    // ============================================================
+    // 🔵 조회 (k = 0 이 최신)
+    // ============================================================
+    public int count(int id) { return count[id]; }
+
+    public double price(int id, int k) {
+        return prices[id * WINDOW + Math.floorMod(head[id] - 1 - k, WINDOW)];
+    }
+
+    /** k 번째 시세의 거래량 증분 */
+    public double volume(int id, int k) {
+        return volumes[id * WINDOW + Math.floorMod(head[id] - 1 - k, WINDOW)];
+    }
+
+    public double lastPrice(int id) {
+        return count[id] == 0 ? 0 : price(id, 0);
+    }
+
+    public double tickStrength(int id) { return tickStrength[id]; }
+
+    public long bidQty(int id) { return bidQty[id]; }
+
+    public long askQty(int id) { return askQty[id]; }
+
+
+    // ============================================================
+    // 🔵 신호 (TradeCalculatorHybrid 와 같은 정의)
+    // ============================================================
+    private double meanPrice(int id, int len) {
+        if (count[id] < len) return lastPrice(id);
+
+        double sum = 0;
+        for (int k = 0; k < len; k++) sum += price(id, k);
+        return sum / len;
+    }
+
+    public double shortMA(int id) { return meanPrice(id, SHORT_MA); }
+
+    public double longMA(int id) { return meanPrice(id, WINDOW); }
+
+    public double slope(int id) {
+        if (count[id] < 2) return 0;
+        double prev = price(id, 1);
+        return prev == 0 ? 0 : (price(id, 0) - prev) / prev;
+    }
+
+    public boolean isVolumeSpike(int id) {
+        if (count[id] < WINDOW) return false;
+
+        double sum = 0;
+        for (int k = 0; k < WINDOW; k++) sum += volume(id, k);
+        return volume(id, 0) > sum / WINDOW;
+    }
+
+    /** 1호가 잔량 불균형 (-1 매도 우위 ~ +1 매수 우위) */
+    public double bookImbalance(int id) {
+        long total = bidQty[id] + askQty[id];
+        return total > 0 ? (bidQty[id] - askQty[id]) / (double) total : 0;
+    }
+
+
+    /** 배열 본체 크기 (바이트) */
+    public long footprintBytes() {
+        long n = symbols.length;
+        return n * WINDOW * 8L * 2      // prices, volumes
+                + n * 4L * 2            // head, count
+                + n * 8L * 5;           // tickStrength, bid, ask, fetchedAt, lastCumVolume
+    }
+}
@@ -0,0 +1,31 @@
+package com.ljw.sockautobot.market;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 관심종목 시세 한 사이클분 (불변)
+ *
+ * 사이클마다 요청 예산만큼만 새로 받아오므로 종목마다 시세 나이(age)가 다르다.
+ * 아직 한 번도 못 받은 종목은 quotes 에 없다.
+ */
+public record WatchlistSnapshot(long cycle, long takenAt, int refreshed, Map<String, Quote> quotes) {
+
+    public static final WatchlistSnapshot EMPTY = new WatchlistSnapshot(0, 0, 0, Map.of());
+
+    public WatchlistSnapshot {
+        quotes = Collections.unmodifiableMap(new LinkedHashMap<>(quotes));
+    }
+
+    public Quote quote(String symbol) {
+        return quotes.get(symbol);
+    }
+
+    /** 가장 오래된 시세의 나이 (ms) — 관심종목이 늘수록 커진다 */
+    public long maxAgeMillis() {
+        long max = 0;
+        for (Quote q : quotes.values()) max = Math.max(max, q.ageMillis(takenAt));
+        return max;
+    }
+}
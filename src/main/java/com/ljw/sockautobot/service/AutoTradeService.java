@@ -1,14 +1,24 @@
 package com.ljw.sockautobot.service;
 
 import com.ljw.sockautobot.api.*;
-import jakarta.annotation.PostConstruct;
+import com.ljw.sockautobot.cluster.ClusterNode;
+import com.ljw.sockautobot.market.KrxCalendar;
+import com.ljw.sockautobot.market.OrderBook;
+import com.ljw.sockautobot.market.Quote;
+import com.ljw.sockautobot.store.TickSeries;
+import com.ljw.sockautobot.store.TickStore;
+import com.ljw.sockautobot.store.TradeJournal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.json.JSONObject;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 @Service
+@Lazy(false)   // fast 프로필(지연 초기화)에서도 스케줄 등록
 @RequiredArgsConstructor
 public class AutoTradeService {
 
@@ -16,35 +26,52 @@ public class AutoTradeService {
 
     private final KisAuthClientApi authClient;
     private final KisPriceClientApi priceClient;
-    private final KisTradeClientApi tradeClient;
     private final KisBalanceClientApi balanceClient;
     private final KisTickApi kisTickApi;
     private final KisOrderBookApi kisOrderBookApi;
 
     private final TradeCalculatorHybrid calculator;
     private final ProfitTracker profitTracker;
+    private final PnlAnalytics pnl;
+    private final TickStore tickStore;
+    private final RiskEngine riskEngine;
+    private final OrderPlacementService placement;
+    private final LatencyTracer latencyTracer;
+    private final KisApiGuard guard;
+    private final WatchlistQuoteService watchlist;
+    private final EngineBusPublisher bus;
+    private final TradeJournal journal;
+    private final KrxCalendar calendar;
+    private final ClusterNode cluster;
 
     @Value("${kis.app-key}") private String appKey;
     @Value("${kis.app-secret}") private String appSecret;
     @Value("${kis.account-no}") private String accountNo;
-
-    // 🔥 초당 3건 제한 → 350ms 간격 유지
-    private final KisRateLimiter limiter = new KisRateLimiter();
+    @Value("${session.enforce-hours:true}") private boolean enforceHours;
 
     private String token;
+    private boolean journalRecovered = false;
+    private volatile boolean ready = false;   // initDaily 한 번 성공 전에는 매매하지 않음
     private int qty = 0;
     private double avgBuyPrice = 0;
 
     private volatile String SYMBOL = "000660";
 
+    // 대시보드 상태 버전 — 틱 처리 / 잔고 반영 / 종목 변경마다 +1 (DashboardStatusService 의 ETag)
+    private final AtomicLong statusVersion = new AtomicLong();
+
     public int getQty() { return qty; }
     public double getAvgBuyPrice() { return avgBuyPrice; }
     public String getSymbol() { return SYMBOL; }
+    public boolean hasPendingOrder() { return placement.hasPending(); }
+    public boolean isReady() { return ready; }
+    public long getStatusVersion() { return statusVersion.get(); }
 
     // ============================================================
     // 🔵 종목 변경
     // ============================================================
-    public void updateSymbol(String newSymbol){
+    // 매매 틱과 겹치지 않도록 autoTrade 와 같은 락 (스캐너 / 대시보드 스레드에서 호출)
+    public synchronized void updateSymbol(String newSymbol){
         if(newSymbol == null || newSymbol.isBlank()){
             System.out.println("종목코드가 비어있습니다.");
             return;
@@ -52,10 +79,12 @@ public class AutoTradeService {
 
         this.SYMBOL = newSymbol.trim();
         calculator.resetDaily();
+        placement.clear();
+        warmUpFromStore();
 
         try {
-            limiter.waitForNext();
-            JSONObject balanceJson = balanceClient.getBalance(token, appKey, appSecret, accountNo);
+            JSONObject balanceJson = guard.call("balance",
+                    () -> balanceClient.getBalance(token, appKey, appSecret, accountNo));
             loadCurrentHolding(balanceJson);
         } catch (Exception e) {
             e.printStackTrace();
@@ -63,53 +92,159 @@ public class AutoTradeService {
             this.avgBuyPrice = 0;
         }
 
+        statusVersion.incrementAndGet();
         System.out.println("종목 변경됨: " + SYMBOL);
     }
 
 
     // ============================================================
-    // 🔵 초기화 (매일 1회)
+    // 🔵 클러스터 — 임대를 가진 종목만 매매
     // ============================================================
-    @PostConstruct
-    public void initDaily() throws Exception {
+    private boolean clusterOwnsSymbol() {
+        if (!cluster.isEnabled()) return true;
+
+        // 포지션/미체결이 남아 있으면 배정이 바뀌어도 그 종목 임대를 놓지 않는다
+        boolean flat = qty == 0 && !placement.hasPending();
+        cluster.pin(flat ? null : SYMBOL);
 
-        token = authClient.getAccessToken(appKey, appSecret);
+        if (cluster.owns(SYMBOL)) return true;
+        if (!flat) return false;   // 임대 만료(하트비트 끊김) — 다시 잡을 때까지 손대지 않음
+
+        String mine = cluster.tradeSymbol();
+        if (mine == null) return false;
+
+        updateSymbol(mine);
+        return true;
+    }
 
-        limiter.waitForNext();
-        double prevClose = priceClient.getPrevClose(token, appKey, appSecret, SYMBOL, "virtual");
+
+    // ============================================================
+    // 🔵 초기화 — 기동 직후(비동기) + 매 거래일 08:50, 둘 다 TradingSessionScheduler 가 호출
+    // ============================================================
+    public synchronized void initDaily() throws Exception {
+        ready = false;   // 도중에 실패하면 어제 상태로 매매하지 않게 — 성공할 때까지 autoTrade 건너뜀
+
+        // 오늘 장 마감까지 유효한 토큰 (장중 만료 방지)
+        token = authClient.getAccessToken(appKey, appSecret,
+                KrxCalendar.now().toLocalDate().atTime(KrxCalendar.POST_CLOSE_END));
+
+        double prevClose = guard.call("daily-price",
+                () -> priceClient.getPrevClose(token, appKey, appSecret, SYMBOL, "virtual"));
 
         calculator.setPrevClose(prevClose);
         calculator.resetDaily();
+        riskEngine.resetDaily();
+        warmUpFromStore();
 
         qty = 0;
         avgBuyPrice = 0;
 
-        limiter.waitForNext();
-        JSONObject balanceJson = balanceClient.getBalance(token, appKey, appSecret, accountNo);
+        JSONObject balanceJson = guard.call("balance",
+                () -> balanceClient.getBalance(token, appKey, appSecret, accountNo));
 
         loadCurrentHolding(balanceJson);
+        profitTracker.resetDaily();
+        pnl.resetSession();
         profitTracker.trackBalance(balanceJson, false);
+        recoverFromJournal();
+        ready = true;
+        statusVersion.incrementAndGet();
 
         System.out.println("🌅 새날 시작 — 전일 종가: " + prevClose);
     }
 
 
+    /** 장 마감 (15:30) — 당일 주문은 소멸하므로 미체결 추적 종료 */
+    public synchronized void onSessionClose() {
+        if (placement.hasPending()) {
+            System.out.println("🌙 장 마감 — 미체결 주문 추적 종료");
+            placement.clear();
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 저널 복원 (매매 재개 전) — 미체결 주문 / 실현손익 / 체결 로그
+    // ============================================================
+    private void recoverFromJournal() {
+        if (journalRecovered) return;   // 시작 시 한 번만
+        journalRecovered = true;
+
+        TradeJournal.Recovered r = journal.getRecovered();
+        if (r.getRecords() == 0) return;
+
+        profitTracker.restore(r.getRealizedProfit(), r.getTradeLogs());
+        for (TradeJournal.Fill f : r.getFills()) {
+            if (f.buy()) pnl.onBuy(f.symbol(), f.qty(), f.price());
+            else pnl.onSell(f.symbol(), f.qty(), f.price(), f.costAvg(), f.realized(), f.time());
+        }
+
+        for (TradeJournal.OpenOrder o : r.getOpenOrders()) {
+            if (!o.acked) {
+                // 전송 직전/직후에 죽음 → 접수 여부를 알 수 없으니 잔고로만 판정
+                System.out.println("⚠️ 접수 미확인 주문 — " + o.symbol + " " + (o.buy ? "매수" : "매도")
+                        + " @" + o.price + " (잔고 기준으로 진행)");
+                journal.done(o.cid, "UNKNOWN_AFTER_RESTART");
+            } else if (o.symbol.equals(SYMBOL) && !placement.hasPending()) {
+                placement.restore(o);
+            } else {
+                journal.done(o.cid, "UNTRACKED");
+            }
+        }
+
+        int journalQty = r.positionQty(SYMBOL);
+        if (journalQty >= 0 && journalQty != qty) {
+            System.out.println("⚠️ 저널 보유수량 " + journalQty + "주 ≠ 잔고 " + qty + "주 — 잔고 기준으로 맞춤");
+        }
+        placement.onPosition(qty);
+    }
+
+
+    // ============================================================
+    // 🔵 당일 저장된 틱으로 계산기 워밍업 (장중 재시작 대비)
+    // ============================================================
+    private void warmUpFromStore() {
+        TickSeries today = tickStore.day(SYMBOL, TickStore.today());
+
+        for (int i = 0; i < today.size(); i++) {
+            calculator.addPrice(today.price(i), today.time(i));
+            calculator.updateVolume((int) today.volume(i));
+        }
+
+        if (!today.isEmpty()) {
+            System.out.println("♻️ 당일 틱 " + today.size() + "건으로 지표 복원 — " + SYMBOL);
+        }
+    }
+
+
     // ============================================================
     // 🔥 KOSPI는 10초마다 업데이트 (안정화)
     // ============================================================
     private double kospiCache = 0;
     private long lastKospiTime = 0;
 
-    private double getKospiSafe() throws Exception {
+    private double getKospiSafe() {
         long now = System.currentTimeMillis();
 
         if (now - lastKospiTime < 10_000) {
             return kospiCache; // 10초 이내는 캐시 사용
         }
 
-        limiter.waitForNext();
-        kospiCache = marketApi.getKospiIndex(token, appKey, appSecret);
+        // 관심종목 사이클에서 이미 받아온 KODEX200 이 있으면 요청 없이 사용
+        Quote q = watchlist.freshQuote(KisMarketApi.KOSPI_PROXY, 10_000);
+        if (q != null && q.price() > 0) {
+            kospiCache = q.price();
+            lastKospiTime = now;
+            return kospiCache;
+        }
+
+        // 실패해도 다음 10초까지는 재조회하지 않고 직전 값 사용
         lastKospiTime = now;
+        try {
+            kospiCache = guard.call("price", () -> marketApi.getKospiIndex(token, appKey, appSecret));
+        } catch (Exception e) {
+            System.out.println("⚠️ KOSPI 조회 실패 → 직전 값 사용: " + e.getMessage());
+        }
 
         return kospiCache;
     }
@@ -118,8 +253,13 @@ public class AutoTradeService {
     // ============================================================
     //  🚀 하이브리드 자동매매 (2초마다)
     // ============================================================
-    @Scheduled(cron = "*/1 * 9-15 * * MON-FRI")
-    public void autoTrade() {
+    @Scheduled(cron = "${trade.cron:*/1 * 9-15 * * MON-FRI}", zone = "Asia/Seoul")
+    public synchronized void autoTrade() {
+        // 접속매매 시간(09:00~15:20, 거래일)에만 — 종가 단일가/장 마감 후 틱은 건너뜀
+        if (enforceHours && calendar.phaseNow() != KrxCalendar.Phase.OPEN) return;
+        if (!ready) return;
+        if (!clusterOwnsSymbol()) return;
+
         try {
 
             if (token == null) {
@@ -129,8 +269,12 @@ public class AutoTradeService {
             // --------------------------------------------------------
             // ⭐ 1) 통합 시세
             // --------------------------------------------------------
-            limiter.waitForNext();
-            JSONObject info = priceClient.getUnifiedPrice(token, appKey, appSecret, SYMBOL, "virtual");
+            // 요청 슬롯 대기(제한기)는 시각을 찍기 전에 — 시세 구간엔 KIS 왕복만
+            KisApiGuard.Permit quotePermit = guard.acquire("price");
+            latencyTracer.beginTick();
+            JSONObject info = guard.call(quotePermit,
+                    () -> priceClient.getUnifiedPrice(token, appKey, appSecret, SYMBOL, "virtual"));
+            latencyTracer.mark(LatencyTracer.Hop.RECEIVED);
 
             if (info.isEmpty()) {
                 System.out.println("⚠️ 통합 시세 없음 — skip");
@@ -139,39 +283,46 @@ public class AutoTradeService {
 
             double newPrice = info.optDouble("price", 0);
             int volume = info.optInt("volume", 0);
+            latencyTracer.mark(LatencyTracer.Hop.PARSED);
 
             if (!Double.isFinite(newPrice) || newPrice <= 0) return;
 
+            tickStore.append(SYMBOL, System.currentTimeMillis(), newPrice, volume);
+            riskEngine.onTick(newPrice);   // 보유 포지션 평가손익 → 손실/낙폭 한도
+
 
             // --------------------------------------------------------
             // ⭐ 2) 체결강도
             // --------------------------------------------------------
-            limiter.waitForNext();
-            double tickStrength = kisTickApi.getTickStrength(token, appKey, appSecret, SYMBOL);
+            double tickStrength = guard.call("ccnl",
+                    () -> kisTickApi.getTickStrength(token, appKey, appSecret, SYMBOL));
 
 
             // --------------------------------------------------------
             // ⭐ 3) 호가 (orderbook)
             // --------------------------------------------------------
-            limiter.waitForNext();
-            JSONObject orderBook = kisOrderBookApi.getOrderBook(token, appKey, appSecret, SYMBOL);
+            JSONObject orderBook = guard.call("orderbook",
+                    () -> kisOrderBookApi.getOrderBook(token, appKey, appSecret, SYMBOL));
 
-            int askQty = 0;
-            int bidQty = 0;
+            OrderBook book = calculator.getOrderBook();
 
             if (orderBook != null) {
-                askQty = orderBook.optInt("askp_rsqn1", 0);  // 매도 잔량 1호가
-                bidQty = orderBook.optInt("bidp_rsqn1", 0);  // 매수 잔량 1호가
+                book.applySnapshot(orderBook);  // 10단계 호가 전체 반영
             } else {
+                book.clear();
                 System.out.println("⚠ 호가 데이터 없음 → 0 처리");
             }
 
+            int askQty = (int) book.getAskQty(0);  // 매도 잔량 1호가
+            int bidQty = (int) book.getBidQty(0);  // 매수 잔량 1호가
+
 
             // --------------------------------------------------------
             // ⭐ 4) KOSPI (10초 캐시)
             // --------------------------------------------------------
             double kospi = getKospiSafe();
             calculator.updateMarket(kospi);
+            latencyTracer.mark(LatencyTracer.Hop.INPUTS_READY);
 
 
             // --------------------------------------------------------
@@ -193,6 +344,20 @@ public class AutoTradeService {
             double instantMom = calculator.getInstantMomentum();
             double dailyMomentum = calculator.getDailyMomentum(newPrice);
             double atr = calculator.getATR();
+            latencyTracer.mark(LatencyTracer.Hop.INDICATORS);
+
+
+            // --------------------------------------------------------
+            // 🔵 미체결 주문이 있으면 새 주문 대신 정정/취소만
+            // --------------------------------------------------------
+            if (placement.hasPending()) {
+                latencyTracer.mark(LatencyTracer.Hop.DECIDED);
+                if (placement.isDue()) {
+                    reloadBalance();
+                    if (placement.hasPending()) replacePending();
+                }
+                return;
+            }
 
 
             // --------------------------------------------------------
@@ -200,41 +365,127 @@ public class AutoTradeService {
             // --------------------------------------------------------
             // 1차 매수
             if (qty == 0 && calculator.shouldBuyPro(newPrice)) {
-
-                tradeClient.buyStock(token, appKey, appSecret, accountNo, SYMBOL, 1, (int)newPrice);
-                reloadBalance();
-                profitTracker.logTrade("🟢 매수 — " + SYMBOL);
+                buy(newPrice, "매수");
                 return;
             }
 
             // 2차 매수
             if (qty == 1 && newPrice > avgBuyPrice * 1.002) {
-
-                tradeClient.buyStock(token, appKey, appSecret, accountNo, SYMBOL, 1, (int)newPrice);
-                reloadBalance();
-                profitTracker.logTrade("🟢 2차 매수 — " + SYMBOL);
+                buy(newPrice, "2차 매수");
                 return;
             }
 
             // 3차 매수
             if (qty == 2 && shortMA > longMA && slope > 0) {
-
-                tradeClient.buyStock(token, appKey, appSecret, accountNo, SYMBOL, 1, (int)newPrice);
-                reloadBalance();
-                profitTracker.logTrade("🟢 3차 매수 — " + SYMBOL);
+                buy(newPrice, "3차 매수");
                 return;
             }
 
             // 매도
             if (qty > 0 && calculator.shouldSellPro(newPrice, avgBuyPrice)) {
-                limiter.waitForNext();
-                tradeClient.sellStock(token, appKey, appSecret, accountNo, SYMBOL, qty, 0);
-                reloadBalance();
-                profitTracker.logTrade("🔴 매도 — " + SYMBOL);
+                sell();
+                return;
             }
 
+            latencyTracer.mark(LatencyTracer.Hop.DECIDED);
+
+        } catch (KisApiGuard.CircuitOpenException e) {
+            System.out.println(e.getMessage());
         } catch (Exception e) {
+            if (e instanceof KisApiException k && k.isTokenExpired()) {
+                authClient.invalidateToken();
+                token = null; // 다음 틱에서 재발급
+            }
             System.err.println("❌ autoTrade 오류 (안전복구됨): " + e.getMessage());
+        } finally {
+            latencyTracer.endTick();
+            bus.publishSnapshot(SYMBOL, qty, avgBuyPrice, placement.hasPending());
+            statusVersion.incrementAndGet();
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 주문 (리스크 체크 → 주문 → 잔고 반영)
+    // ============================================================
+    private void buy(double price, String label) throws Exception {
+        latencyTracer.mark(LatencyTracer.Hop.DECIDED);
+
+        RiskEngine.Result risk = riskEngine.checkBuy(1, price);
+        if (risk != RiskEngine.Result.OK) {
+            System.out.println("⛔ " + label + " 차단 — " + risk.getDescription());
+            return;
+        }
+
+        // 슬롯 대기는 ORDER_SENT 전에, 클러스터 소유권 락 밖에서
+        KisApiGuard.Permit permit = guard.acquire("order");
+        JSONObject res;
+        try {
+            latencyTracer.mark(LatencyTracer.Hop.ORDER_SENT);
+            res = cluster.guardOrder(SYMBOL, () -> placement.placeBuy(permit, token, appKey, appSecret, accountNo,
+                    SYMBOL, 1, qty, calculator.getOrderBook(), price));
+            if (res != null) latencyTracer.mark(LatencyTracer.Hop.ORDER_ACKED);   // 안 보냈으면 응답 구간 없음
+        } finally {
+            guard.release(permit);
+        }
+        if (res == null) {
+            System.out.println("⛔ " + label + " 보류 — " + SYMBOL + " 클러스터 임대 확인 실패");
+            return;
+        }
+
+        reloadBalance();
+        logOrder(res, "🟢 " + label);
+    }
+
+    private void sell() throws Exception {
+        latencyTracer.mark(LatencyTracer.Hop.DECIDED);
+
+        RiskEngine.Result risk = riskEngine.checkSell(qty);
+        if (risk != RiskEngine.Result.OK) {
+            System.out.println("⛔ 매도 차단 — " + risk.getDescription());
+            return;
+        }
+
+        KisApiGuard.Permit permit = guard.acquire("order");
+        JSONObject res;
+        try {
+            latencyTracer.mark(LatencyTracer.Hop.ORDER_SENT);
+            res = cluster.guardOrder(SYMBOL, () -> placement.placeSell(permit, token, appKey, appSecret, accountNo,
+                    SYMBOL, qty, qty, calculator.getOrderBook()));
+            if (res != null) latencyTracer.mark(LatencyTracer.Hop.ORDER_ACKED);   // 안 보냈으면 응답 구간 없음
+        } finally {
+            guard.release(permit);
+        }
+        if (res == null) {
+            System.out.println("⛔ 매도 보류 — " + SYMBOL + " 클러스터 임대 확인 실패");
+            return;
+        }
+
+        reloadBalance();
+        logOrder(res, "🔴 매도");
+    }
+
+    // 미체결 정정/취소 — 신규 주문과 같이 슬롯 대기 후 소유권 확인
+    private void replacePending() throws Exception {
+        KisApiGuard.Permit permit = guard.acquire("order-rvsecncl");
+        try {
+            Boolean sent = cluster.guardOrder(SYMBOL, () -> {
+                placement.replaceIfUnfilled(permit, token, appKey, appSecret, accountNo, qty, calculator.getOrderBook());
+                return Boolean.TRUE;
+            });
+            if (sent == null) System.out.println("⛔ 정정 보류 — " + SYMBOL + " 클러스터 임대 확인 실패");
+        } finally {
+            guard.release(permit);
+        }
+    }
+
+    // 매매 이벤트(링버스)는 OrderPlacementService 가 실제 주문가/결과로 보낸다 — 여기선 거래 로그만
+    private void logOrder(JSONObject res, String label) {
+        if (OrderPlacementService.isAccepted(res)) {
+            profitTracker.logTrade(label + " — " + SYMBOL, latencyTracer.breakdown());
+        } else {
+            profitTracker.logTrade("⚠️ " + label + " 거부 — " + SYMBOL + " "
+                    + res.optString("msg_cd") + " " + res.optString("msg1"));
         }
     }
 
@@ -243,27 +494,57 @@ public class AutoTradeService {
     // 🔵 잔고 업데이트
     // ============================================================
     private void reloadBalance() throws Exception {
-        limiter.waitForNext(); // API 부하 완화
-        JSONObject balanceJson = balanceClient.getBalance(token, appKey, appSecret, accountNo);
+        JSONObject balanceJson = guard.call("balance",
+                () -> balanceClient.getBalance(token, appKey, appSecret, accountNo));
+
+        int prevQty = qty;
+        double prevAvg = avgBuyPrice;
         loadCurrentHolding(balanceJson);
+        journalFill(prevQty, prevAvg);
         profitTracker.trackBalance(balanceJson, true);
+        riskEngine.onBalanceChange(profitTracker.getBalanceChange());
+        placement.onPosition(qty);
+        statusVersion.incrementAndGet();
+    }
+
+    // 보유수량 변화 = 체결 (매수 단가는 평균단가 변화로, 매도는 주문가/현재가로 추정)
+    private void journalFill(int prevQty, double prevAvg) {
+        int delta = qty - prevQty;
+        if (delta == 0) return;
+
+        double last = calculator.getLastPrice();
+        int orderPrice = placement.pendingPrice();
+
+        if (delta > 0) {
+            double price = (avgBuyPrice * qty - prevAvg * prevQty) / delta;
+            if (!(price > 0)) price = orderPrice > 0 ? orderPrice : last;
+            journal.fill(SYMBOL, true, delta, price, qty, avgBuyPrice, 0);
+            pnl.onBuy(SYMBOL, delta, price);
+        } else {
+            double price = orderPrice > 0 ? orderPrice : last;
+            double realized = profitTracker.recordProfit(price, prevAvg, -delta);
+            journal.fill(SYMBOL, false, -delta, price, qty, avgBuyPrice, realized);
+            pnl.onSell(SYMBOL, -delta, price, prevAvg, realized, System.currentTimeMillis());
+        }
     }
 
     private void loadCurrentHolding(JSONObject balanceJson) {
         var list = balanceJson.optJSONArray("output1");
         if (list == null) return;
 
+        this.qty = 0;
+        this.avgBuyPrice = 0;
+
         for (int i = 0; i < list.length(); i++) {
             var item = list.getJSONObject(i);
 
             if (item.optString("pdno", "").trim().equals(SYMBOL.trim())) {
                 this.qty = item.optInt("hldg_qty", 0);
                 this.avgBuyPrice = item.optDouble("pchs_avg_pric", 0);
-                return;
+                break;
             }
         }
 
-        this.qty = 0;
-        this.avgBuyPrice = 0;
+        riskEngine.onPosition(qty, avgBuyPrice);
     }
 }
@@ -0,0 +1,252 @@
+package com.ljw.sockautobot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.ljw.sockautobot.market.OrderBook;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 대시보드 /status 리소스 (버전 관리)
+ *
+ * - 엔진이 틱/잔고/종목 변경마다 올리는 버전(AutoTradeService.getStatusVersion)당 스냅샷을 한 번만 만든다
+ * - 직렬화 결과(JSON / CBOR)도 버전당 한 번 → 대시보드가 몇 개 열려 있어도 같은 바이트를 돌려준다
+ * - 필드별로 마지막으로 바뀐 버전을 기억해 ?since=N 이면 바뀐 필드만 (delta)
+ * - ETag = 기동 epoch + 버전 (+ CBOR 면 -cbor) → 재시작하면 전부 무효
+ */
+@Component
+public class DashboardStatusService {
+
+    // 응답 필드 순서 고정 (대시보드 JS 가 쓰는 이름 그대로)
+    private static final String CBOR_SUFFIX = "-cbor";
+
+    private static final String[] FIELDS = {
+            "symbol", "price", "qty", "avgBuyPrice", "profitRate",
+            "slope", "accel", "momentum", "shortMA", "longMA", "atr",
+            "rsi", "vwap", "bollingerUpper", "bollingerLower", "macd", "macdSignal",
+            "baseBalance", "currentBalance", "totalProfit", "balanceChange", "balanceChangeRate",
+            "dailyMomentum", "volume", "tickStrength", "bidQty", "askQty", "bookImbalance",
+            "microprice", "bidDepth", "askDepth", "kospi", "pendingOrder"
+    };
+
+    private final AutoTradeService autoTradeService;
+    private final TradeCalculatorHybrid calculator;
+    private final ProfitTracker profitTracker;
+
+    private final ObjectMapper json = new ObjectMapper();
+    // 정수 / float 로 손실 없이 담기는 double 은 짧게 (0.0, 가격 등)
+    private final CBORMapper cbor = CBORMapper.builder()
+            .enable(CBORGenerator.Feature.WRITE_MINIMAL_INTS)
+            .enable(CBORGenerator.Feature.WRITE_MINIMAL_DOUBLES)
+            .build();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private Snapshot current = new Snapshot(-1, new Object[FIELDS.length], new long[FIELDS.length]);
+
+    private long builds = 0;
+    private long notModified = 0;
+
+    public DashboardStatusService(AutoTradeService autoTradeService,
+                                  TradeCalculatorHybrid calculator,
+                                  ProfitTracker profitTracker) {
+        this.autoTradeService = autoTradeService;
+        this.calculator = calculator;
+        this.profitTracker = profitTracker;
+    }
+
+
+    // ============================================================
+    // 🔵 스냅샷 (버전이 바뀌었을 때만 새로 만든다)
+    // ============================================================
+    public synchronized Snapshot snapshot() {
+        long version = autoTradeService.getStatusVersion();
+        if (version == current.version) return current;
+
+        Object[] values = collect();
+        long[] changedAt = current.changedAt.clone();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (!Objects.equals(values[i], current.values[i])) changedAt[i] = version;
+        }
+
+        current = new Snapshot(version, values, changedAt);
+        builds++;
+        return current;
+    }
+
+    private Object[] collect() {
+        double price = calculator.getLastPrice();
+        double avg = autoTradeService.getAvgBuyPrice();
+        OrderBook book = calculator.getOrderBook();
+
+        return new Object[]{
+                autoTradeService.getSymbol(),
+                price,
+                autoTradeService.getQty(),
+                avg,
+                calculator.calculateNetProfit(price, avg),
+                calculator.getSlope(),
+                calculator.getAccel(),
+                calculator.getInstantMomentum(),
+                calculator.getShortMA(),
+                calculator.getLongMA(),
+                calculator.getATR(),
+                calculator.getRsi(),
+                calculator.getVwap(),
+                calculator.getBollingerUpper(),
+                calculator.getBollingerLower(),
+                calculator.getMacd(),
+                calculator.getMacdSignal(),
+                profitTracker.getBaseBalance(),
+                profitTracker.getCurrentBalance(),
+                profitTracker.getTotalProfit(),
+                profitTracker.getBalanceChange(),
+                profitTracker.getBalanceChangeRate(),
+                calculator.getDailyMomentum(price),
+                calculator.getVolume(),
+                calculator.getTickStrength(),
+                calculator.getBidSum(),
+                calculator.getAskSum(),
+                calculator.getOrderBookImbalance(),
+                book.microprice(),
+                book.cumulativeBidDepth(OrderBook.LEVELS),
+                book.cumulativeAskDepth(OrderBook.LEVELS),
+                calculator.getKospi(),
+                autoTradeService.hasPendingOrder()
+        };
+    }
+
+    /** 같은 URL 의 JSON / CBOR 는 바이트가 다르므로 표현별 강한 ETag (CBOR 는 -cbor 접미사) */
+    public String etag(Snapshot s, boolean cbor) {
+        return "\"" + epoch + "-" + s.version + (cbor ? CBOR_SUFFIX : "") + "\"";
+    }
+
+    /** If-None-Match 가 현재 버전 + 같은 표현이면 true (304) */
+    public boolean isNotModified(Snapshot s, String ifNoneMatch, boolean cbor) {
+        if (ifNoneMatch == null) return false;
+
+        String tag = etag(s, cbor);
+        for (String t : ifNoneMatch.split(",")) {
+            String v = t.trim();
+            if (v.startsWith("W/")) v = v.substring(2);
+            if (v.equals(tag) || v.equals("*")) {
+                synchronized (this) {
+                    notModified++;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    // ============================================================
+    // 🔵 직렬화 (버전당 1회 캐시)
+    // ============================================================
+    public byte[] fullJson(Snapshot s) {
+        return s.json(this);
+    }
+
+    public byte[] fullCbor(Snapshot s) {
+        return s.cbor(this);
+    }
+
+    /**
+     * ?since=<epoch>-<version>[-cbor] (= 직전 ETag) → 기준 버전
+     * 다른 epoch(재시작 전) 이거나 현재보다 앞선 버전이면 -1 (전체 응답)
+     */
+    public long parseSince(Snapshot s, String since) {
+        if (since == null) return -1;
+
+        String v = since.replace("\"", "").trim();
+        if (v.endsWith(CBOR_SUFFIX)) v = v.substring(0, v.length() - CBOR_SUFFIX.length());
+        int dash = v.lastIndexOf('-');
+        if (dash <= 0 || !v.substring(0, dash).equals(epoch)) return -1;
+
+        try {
+            long version = Long.parseLong(v.substring(dash + 1));
+            return version <= s.version ? version : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** since 이후 바뀐 필드만 */
+    public Map<String, Object> delta(Snapshot s, long since) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (s.changedAt[i] > since) changes.put(FIELDS[i], s.values[i]);
+        }
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("version", s.version);
+        res.put("since", since);
+        res.put("changes", changes);
+        return res;
+    }
+
+    public byte[] encodeJson(Object o) {
+        return encode(json, o);
+    }
+
+    public byte[] encodeCbor(Object o) {
+        return encode(cbor, o);
+    }
+
+    private static byte[] encode(ObjectMapper mapper, Object o) {
+        try {
+            return mapper.writeValueAsBytes(o);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("status 직렬화 실패", e);
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("version", current.version);
+        map.put("builds", builds);
+        map.put("notModified", notModified);
+        return map;
+    }
+
+
+    public static final class Snapshot {
+        final long version;
+        final Object[] values;
+        final long[] changedAt;
+
+        private byte[] json;
+        private byte[] cbor;
+
+        Snapshot(long version, Object[] values, long[] changedAt) {
+            this.version = version;
+            this.values = values;
+            this.changedAt = changedAt;
+        }
+
+        public long getVersion() { return version; }
+
+        Map<String, Object> asMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("version", version);
+            for (int i = 0; i < FIELDS.length; i++) {
+                map.put(FIELDS[i], values[i]);
+            }
+            return map;
+        }
+
+        synchronized byte[] json(DashboardStatusService owner) {
+            if (json == null) json = owner.encodeJson(asMap());
+            return json;
+        }
+
+        synchronized byte[] cbor(DashboardStatusService owner) {
+            if (cbor == null) cbor = owner.encodeCbor(asMap());
+            return cbor;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ljw.sockautobot.service;
+
+import com.ljw.sockautobot.bus.EngineSnapshotMessage;
+import com.ljw.sockautobot.bus.RingBusWriter;
+import com.ljw.sockautobot.bus.TradeEventMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * 엔진 상태 → 메모리 맵 링버스 (bus.enabled=true 일 때만)
+ *
+ * 대시보드/분석을 별도 JVM 으로 띄우면 RingBusReader 로 같은 파일을 읽는다.
+ * 메시지 객체는 재사용 → 틱당 할당 없음. reader 가 느려도 엔진은 기다리지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EngineBusPublisher {
+
+    private final TradeCalculatorHybrid calculator;
+    private final ProfitTracker profitTracker;
+
+    @Value("${bus.enabled:false}") private boolean enabled;
+    @Value("${bus.file:data/bus/engine.ring}") private String file;
+    @Value("${bus.capacity:4096}") private int capacity;
+    @Value("${bus.slot-size:512}") private int slotSize;
+
+    private RingBusWriter writer;
+
+    private final EngineSnapshotMessage snapshot = new EngineSnapshotMessage();
+    private final TradeEventMessage trade = new TradeEventMessage();
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+        try {
+            writer = new RingBusWriter(Path.of(file), capacity, slotSize);
+            System.out.println("📡 링버스 열림: " + file + " (" + capacity + " × " + slotSize + "B)");
+        } catch (Exception e) {
+            System.err.println("❌ 링버스 열기 실패 — 비활성화: " + e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() { return writer != null; }
+
+
+    // ============================================================
+    // 🔵 틱 스냅샷
+    // ============================================================
+    public synchronized void publishSnapshot(String symbol, int qty, double avgBuyPrice, boolean pendingOrder) {
+        if (writer == null) return;
+
+        double price = calculator.getLastPrice();
+        if (price <= 0) return;
+
+        EngineSnapshotMessage s = snapshot;
+        s.setSymbol(symbol);
+        s.qty = qty;
+        s.pendingOrder = pendingOrder ? 1 : 0;
+        s.price = price;
+        s.avgBuyPrice = avgBuyPrice;
+        s.shortMA = calculator.getShortMA();
+        s.longMA = calculator.getLongMA();
+        s.atr = calculator.getATR();
+        s.rsi = calculator.getRsi();
+        s.vwap = calculator.getVwap();
+        s.macd = calculator.getMacd();
+        s.macdSignal = calculator.getMacdSignal();
+        s.bookImbalance = calculator.getOrderBookImbalance();
+        s.tickStrength = calculator.getTickStrength();
+        s.kospi = calculator.getKospi();
+        s.balanceChange = profitTracker.getBalanceChange();
+        s.totalProfit = profitTracker.getTotalProfit();
+        s.profitRate = calculator.calculateNetProfit(price, avgBuyPrice);
+
+        writer.publish(s);
+    }
+
+
+    // ============================================================
+    // 🔵 매매 이벤트
+    // ============================================================
+    public synchronized void publishTrade(String symbol, byte side, int qty, double price, String text) {
+        if (writer == null) return;
+
+        TradeEventMessage t = trade;
+        t.setSymbol(symbol);
+        t.side = side;
+        t.qty = qty;
+        t.price = price;
+        t.setText(text);
+
+        writer.publish(t);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
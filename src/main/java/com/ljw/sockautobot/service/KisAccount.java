@@ -0,0 +1,52 @@
+package com.ljw.sockautobot.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * KIS 자격 증명 한 벌 (appKey / appSecret / 계좌) + 그 appKey 전용 요청 간격 제한
+ *
+ * 초당 건수 제한은 appKey 단위라서 계정이 늘면 그만큼 요청 속도도 는다.
+ * id 0 = 기본 계정 (kis.app-key — 매매/주문/잔고는 항상 여기)
+ */
+public final class KisAccount {
+
+    private final int id;
+    private final String appKey;
+    private final String appSecret;
+    private final String accountNo;
+    private final KisRateLimiter limiter;
+
+    public KisAccount(int id, String appKey, String appSecret, String accountNo, KisRateLimiter limiter) {
+        this.id = id;
+        this.appKey = appKey;
+        this.appSecret = appSecret;
+        this.accountNo = accountNo;
+        this.limiter = limiter;
+    }
+
+    public int getId() { return id; }
+    public String getAppKey() { return appKey; }
+    public String getAppSecret() { return appSecret; }
+    public String getAccountNo() { return accountNo; }
+    public KisRateLimiter getLimiter() { return limiter; }
+    public boolean isPrimary() { return id == 0; }
+
+    /** 로그/대시보드용 — appKey 앞 4자리만 */
+    public String label() {
+        return "#" + id + "(" + appKey.substring(0, Math.min(4, appKey.length())) + "…)";
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("account", label());
+        map.put("limiter", limiter.getStatus());
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return label();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ljw.sockautobot.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 설정된 KIS 계정 목록
+ *
+ * - #0 = kis.app-key / kis.app-secret / kis.account-no (기존 설정 그대로, 기존 KisRateLimiter 빈 사용)
+ * - #1.. = kis.shards.<n>.app-key / app-secret / account-no — n 은 1 부터 빈 번호 없이
+ *   계정마다 KisRateLimiter 를 따로 만든다 (같은 kis.mode / 한도)
+ */
+@Component
+public class KisAccountRegistry {
+
+    private final List<KisAccount> accounts;
+
+    public KisAccountRegistry(Environment env,
+                              KisRateLimiter primaryLimiter,
+                              @Value("${kis.app-key}") String appKey,
+                              @Value("${kis.app-secret}") String appSecret,
+                              @Value("${kis.account-no}") String accountNo,
+                              @Value("${kis.mode:virtual}") String mode,
+                              @Value("${kis.rate.virtual-max-per-second:2}") double virtualMaxRate,
+                              @Value("${kis.rate.real-max-per-second:15}") double realMaxRate,
+                              @Value("${kis.rate.initial-per-second:1}") double initialRate) {
+
+        List<KisAccount> list = new ArrayList<>();
+        list.add(new KisAccount(0, appKey, appSecret, accountNo, primaryLimiter));
+
+        for (int n = 1; ; n++) {
+            String prefix = "kis.shards." + n + ".";
+            String key = env.getProperty(prefix + "app-key", "").trim();
+            if (key.isEmpty()) break;
+
+            String secret = env.getProperty(prefix + "app-secret", "").trim();
+            if (secret.isEmpty()) {
+                System.err.println("⚠️ [KIS] " + prefix + "app-secret 없음 → 계정 #" + n + " 건너뜀");
+                break;
+            }
+            if (key.equals(appKey) || list.stream().anyMatch(a -> a.getAppKey().equals(key))) {
+                System.err.println("⚠️ [KIS] 계정 #" + n + " appKey 중복 → 건너뜀 (같은 appKey 는 한도를 공유)");
+                continue;
+            }
+
+            list.add(new KisAccount(list.size(), key, secret,
+                    env.getProperty(prefix + "account-no", accountNo).trim(),
+                    new KisRateLimiter(mode, virtualMaxRate, realMaxRate, initialRate)));
+        }
+
+        this.accounts = List.copyOf(list);
+        if (accounts.size() > 1) {
+            System.out.println("🔑 [KIS] 계정 " + accounts.size() + "개 — 관심종목 시세를 나눠 받음");
+        }
+    }
+
+    public KisAccount getPrimary() {
+        return accounts.get(0);
+    }
+
+    public List<KisAccount> getAccounts() {
+        return accounts;
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+}
@@ -0,0 +1,259 @@
+package com.ljw.sockautobot.service;
+
+import com.ljw.sockautobot.api.KisApiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * KIS 호출 관문 — 서킷브레이커(엔드포인트별) + 요청 간격 제한(appKey별) + 오류 분류
+ *
+ * 모든 KIS 호출은 guard.call("price", () -> ...) 형태로 감싼다.
+ * 기본 계정 외의 appKey 로 보낼 때는 guard.call(account, "price", () -> ...) — 그 계정의 제한기를 쓴다.
+ * 지연을 재거나 전송 직전에 확인할 게 있으면 acquire(슬롯 대기) → 시각/확인 → call(permit, ...) 로 나눈다
+ * (그래야 측정값에 제한기 대기가 섞이지 않는다).
+ * 오류는 rt_cd / msg_cd 로 나눠서
+ * - EGW00201 (초당 건수 초과) → 속도만 줄인다 (서버는 살아 있음)
+ * - 타임아웃 / msg_cd 없는 5xx → 속도를 줄이고 브레이커 실패로 센다 (KisApiException.isServerError)
+ * - EGW00123 (토큰 만료)      → 그대로 올려서 호출자가 토큰을 다시 받게 한다
+ * - 그 밖의 msg_cd            → 요청 거절 (HTTP 500 이어도 서버는 정상 응답한 것)
+ * HTTP 200 본문의 EGW* 도 KisHttp.parse 에서 예외로 바꿔 같은 분류를 탄다.
+ */
+@Component
+public class KisApiGuard {
+
+    public enum Failure {
+        RATE_LIMIT("초당 건수 초과"),
+        TOKEN("토큰 만료"),
+        TIMEOUT("타임아웃/연결 실패"),
+        SERVER("서버 오류"),
+        REJECTED("요청 거절");
+
+        private final String description;
+
+        Failure(String description) { this.description = description; }
+
+        public String getDescription() { return description; }
+    }
+
+    /** 브레이커가 열려 있어 요청을 보내지 않음 */
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException(String endpoint, long remainingMillis) {
+            super("⏸ " + endpoint + " 차단 중 (" + remainingMillis + "ms 후 재시도)");
+        }
+    }
+
+    private final KisRateLimiter limiter;
+    private final KisIoExecutor io;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long maxOpenMillis;
+
+    /** acquire() 결과 — 브레이커 통과 + 요청 슬롯 대기까지 끝난 상태. call(permit, ...) 한 번에 쓰거나 release */
+    public static final class Permit {
+        private final KisCircuitBreaker breaker;
+        private final KisRateLimiter limiter;
+        private final long ticket;
+        private boolean used;
+
+        private Permit(KisCircuitBreaker breaker, KisRateLimiter limiter, long ticket) {
+            this.breaker = breaker;
+            this.limiter = limiter;
+            this.ticket = ticket;
+        }
+    }
+
+    private final Map<String, KisCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<Failure, Long> failureCounts = new ConcurrentHashMap<>();
+
+    public KisApiGuard(KisRateLimiter limiter,
+                       KisIoExecutor io,
+                       @Value("${kis.breaker.failure-threshold:5}") int failureThreshold,
+                       @Value("${kis.breaker.open-ms:5000}") long openMillis,
+                       @Value("${kis.breaker.max-open-ms:60000}") long maxOpenMillis) {
+        this.limiter = limiter;
+        this.io = io;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.maxOpenMillis = maxOpenMillis;
+    }
+
+
+    // ============================================================
+    // 🔵 블로킹 호출 (스케줄러 스레드)
+    // ============================================================
+    public <T> T call(String endpoint, Callable<T> call) throws Exception {
+        return call(limiter, endpoint, call);
+    }
+
+    public <T> T call(KisAccount account, String endpoint, Callable<T> call) throws Exception {
+        return call(account.getLimiter(), endpoint, call);
+    }
+
+    private <T> T call(KisRateLimiter limiter, String endpoint, Callable<T> call) throws Exception {
+        return call(acquire(limiter, endpoint), call);
+    }
+
+    /** 브레이커 확인 + 요청 슬롯까지 대기 (보내지 않으면 release) */
+    public Permit acquire(String endpoint) {
+        return acquire(limiter, endpoint);
+    }
+
+    public Permit acquire(KisAccount account, String endpoint) {
+        return acquire(account.getLimiter(), endpoint);
+    }
+
+    private Permit acquire(KisRateLimiter limiter, String endpoint) {
+        KisCircuitBreaker breaker = breaker(endpoint);
+        long ticket = breaker.tryAcquire();
+        if (ticket == KisCircuitBreaker.REJECTED) {
+            throw new CircuitOpenException(endpoint, breaker.remainingOpenMillis());
+        }
+
+        limiter.waitForNext();
+        return new Permit(breaker, limiter, ticket);
+    }
+
+    /** acquire 로 받은 슬롯으로 바로 전송 (대기 없음) */
+    public <T> T call(Permit permit, Callable<T> call) throws Exception {
+        synchronized (permit) {
+            if (permit.used) throw new IllegalStateException("이미 사용한 KIS 전송 허가");
+            permit.used = true;
+        }
+
+        try {
+            T result = call.call();
+            onSuccess(permit.breaker, permit.limiter);
+            return result;
+        } catch (Exception e) {
+            onFailure(permit.breaker, permit.limiter, e);
+            throw e;
+        }
+    }
+
+    /** 쓰지 않은 허가 반납 — 시험 요청 자리였으면 브레이커가 HALF_OPEN 에 갇히지 않게 (사용했으면 무시) */
+    public void release(Permit permit) {
+        if (permit == null) return;
+        synchronized (permit) {
+            if (permit.used) return;
+            permit.used = true;
+        }
+        permit.breaker.cancelProbe(permit.ticket);
+    }
+
+
+    // ============================================================
+    // 🔵 블로킹 호출을 I/O 실행기에서 (가상 스레드 모드면 호출마다 가상 스레드)
+    // ============================================================
+    public <T> CompletableFuture<T> submit(String endpoint, Callable<T> call) {
+        return io.submit(() -> call(limiter, endpoint, call));
+    }
+
+    public <T> CompletableFuture<T> submit(KisAccount account, String endpoint, Callable<T> call) {
+        return io.submit(() -> call(account.getLimiter(), endpoint, call));
+    }
+
+
+    // ============================================================
+    // 🔵 논블로킹 호출 (KisReactiveClientApi) — 슬롯 예약 후 지연 구독
+    // ============================================================
+    public <T> Mono<T> callAsync(String endpoint, Supplier<Mono<T>> call) {
+        return callAsync(limiter, endpoint, call);
+    }
+
+    public <T> Mono<T> callAsync(KisAccount account, String endpoint, Supplier<Mono<T>> call) {
+        return callAsync(account.getLimiter(), endpoint, call);
+    }
+
+    private <T> Mono<T> callAsync(KisRateLimiter limiter, String endpoint, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            KisCircuitBreaker breaker = breaker(endpoint);
+            long ticket = breaker.tryAcquire();
+            if (ticket == KisCircuitBreaker.REJECTED) {
+                return Mono.<T>error(new CircuitOpenException(endpoint, breaker.remainingOpenMillis()));
+            }
+
+            // 구독 취소(block 타임아웃 등)면 성공/실패 어느 쪽도 안 온다 → 시험 요청 자리 반납
+            return Mono.delay(Duration.ofMillis(limiter.reserve()))
+                    .then(Mono.defer(call))
+                    .doOnSuccess(r -> onSuccess(breaker, limiter))
+                    .doOnError(e -> onFailure(breaker, limiter, e))
+                    .doOnCancel(() -> breaker.cancelProbe(ticket));
+        });
+    }
+
+
+    // ============================================================
+    // 🔵 오류 분류 + 피드백
+    // ============================================================
+    public static Failure classify(Throwable e) {
+        if (e instanceof KisApiException k) {
+            if (k.isRateLimited()) return Failure.RATE_LIMIT;
+            if (k.isTokenExpired()) return Failure.TOKEN;
+            return k.isServerError() ? Failure.SERVER : Failure.REJECTED;
+        }
+        if (e instanceof ResourceAccessException
+                || e instanceof WebClientRequestException
+                || e instanceof TimeoutException) {
+            return Failure.TIMEOUT;
+        }
+        return Failure.REJECTED;
+    }
+
+    private void onSuccess(KisCircuitBreaker breaker, KisRateLimiter limiter) {
+        breaker.onSuccess();
+        limiter.onSuccess();
+    }
+
+    private void onFailure(KisCircuitBreaker breaker, KisRateLimiter limiter, Throwable e) {
+        Failure f = classify(e);
+        failureCounts.merge(f, 1L, Long::sum);
+
+        switch (f) {
+            case RATE_LIMIT -> {
+                breaker.onSuccess();
+                limiter.onThrottled();
+            }
+            case TIMEOUT, SERVER -> {
+                breaker.onFailure(f.getDescription() + " " + e.getMessage());
+                limiter.onThrottled();
+            }
+            default -> breaker.onSuccess();
+        }
+    }
+
+    private KisCircuitBreaker breaker(String endpoint) {
+        return breakers.computeIfAbsent(endpoint,
+                k -> new KisCircuitBreaker(k, failureThreshold, openMillis, maxOpenMillis));
+    }
+
+
+    /** 대시보드용 */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        breakers.forEach((k, b) -> endpoints.put(k, b.getStatus()));
+
+        Map<String, Object> failures = new LinkedHashMap<>();
+        for (Failure f : Failure.values()) {
+            failures.put(f.name(), failureCounts.getOrDefault(f, 0L));
+        }
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("limiter", limiter.getStatus());
+        res.put("io", io.getStatus());
+        res.put("endpoints", endpoints);
+        res.put("failures", failures);
+        return res;
+    }
+}
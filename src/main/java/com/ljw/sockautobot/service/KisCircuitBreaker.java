@@ -0,0 +1,122 @@
+package com.ljw.sockautobot.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 엔드포인트 하나의 서킷브레이커
+ *
+ * CLOSED ─(연속 실패 N회)→ OPEN ─(대기 시간 경과)→ HALF_OPEN ─(시험 요청 성공)→ CLOSED
+ *                                                         └(실패)→ OPEN (대기 시간 2배, 상한까지)
+ */
+class KisCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    static final long REJECTED = -1;   // tryAcquire: 차단 중
+    static final long PASS = 0;        // tryAcquire: 정상 통과 (시험 요청 아님)
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long baseOpenMillis;
+    private final long maxOpenMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private long openMillis;
+    private long probeSeq = 0;   // HALF_OPEN 시험 요청 번호
+
+    private long successCount = 0;
+    private long failureCount = 0;
+    private long rejectedCount = 0;
+    private String lastError = "";
+
+    KisCircuitBreaker(String endpoint, int failureThreshold, long baseOpenMillis, long maxOpenMillis) {
+        this.endpoint = endpoint;
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.baseOpenMillis = baseOpenMillis;
+        this.maxOpenMillis = Math.max(maxOpenMillis, baseOpenMillis);
+        this.openMillis = baseOpenMillis;
+    }
+
+    /**
+     * 요청을 보내도 되는지 — HALF_OPEN 에서는 시험 요청 한 건만 통과
+     * @return REJECTED / PASS / 시험 요청 번호(> 0, 결과 없이 끝나면 cancelProbe 로 반납)
+     */
+    synchronized long tryAcquire() {
+        if (state == State.CLOSED) return PASS;
+
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            System.out.println("🟡 [Breaker] " + endpoint + " 시험 요청 허용");
+            return ++probeSeq;
+        }
+
+        rejectedCount++;
+        return REJECTED;
+    }
+
+    /**
+     * 시험 요청이 성공/실패 없이 끝남 (보내지 않음 / 구독 취소) → OPEN 으로 되돌려 다음 요청이 다시 시험
+     * (HALF_OPEN 에 머물면 이후 요청이 전부 거절된다)
+     */
+    synchronized void cancelProbe(long ticket) {
+        if (ticket <= PASS || ticket != probeSeq || state != State.HALF_OPEN) return;
+
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis() - openMillis;   // 대기 시간은 이미 지났음
+        System.out.println("🟡 [Breaker] " + endpoint + " 시험 요청 취소 — 다음 요청이 다시 시험");
+    }
+
+    /** 서버가 응답함 (업무 오류·초당 건수 초과 포함) */
+    synchronized void onSuccess() {
+        successCount++;
+        consecutiveFailures = 0;
+
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            openMillis = baseOpenMillis;
+            System.out.println("🟢 [Breaker] " + endpoint + " 복구");
+        }
+    }
+
+    /** 타임아웃 / 5xx — 서버 쪽 장애 */
+    synchronized void onFailure(String error) {
+        failureCount++;
+        lastError = error == null ? "" : error;
+
+        if (state == State.HALF_OPEN) {
+            openMillis = Math.min(openMillis * 2, maxOpenMillis);
+            open();
+            return;
+        }
+
+        if (++consecutiveFailures >= failureThreshold && state == State.CLOSED) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        System.out.println("🔴 [Breaker] " + endpoint + " 차단 " + openMillis + "ms — " + lastError);
+    }
+
+    synchronized long remainingOpenMillis() {
+        if (state != State.OPEN) return 0;
+        return Math.max(openMillis - (System.currentTimeMillis() - openedAt), 0);
+    }
+
+    synchronized Map<String, Object> getStatus() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("state", state.name());
+        map.put("consecutiveFailures", consecutiveFailures);
+        map.put("remainingOpenMs", remainingOpenMillis());
+        map.put("successCount", successCount);
+        map.put("failureCount", failureCount);
+        map.put("rejectedCount", rejectedCount);
+        map.put("lastError", lastError);
+        return map;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ljw.sockautobot.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 블로킹 KIS I/O 전용 실행기 (종목별 작업 / API 호출)
+ *
+ * - spring.threads.virtual.enabled=true + Java 21 이상 → 작업마다 가상 스레드
+ *   (수천 개가 동시에 KIS 응답을 기다려도 캐리어 스레드는 코어 수만큼)
+ * - 그 외 (Java 17 등) → kis.io.platform-threads 크기의 플랫폼 스레드 풀
+ *
+ * 빌드는 Java 17 그대로 — 가상 스레드 API 는 실행 시점에 리플렉션으로 찾는다.
+ */
+@Component
+public class KisIoExecutor {
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+
+    public KisIoExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualEnabled,
+                         @Value("${kis.io.platform-threads:16}") int platformThreads) {
+        ExecutorService v = virtualEnabled ? newVirtualThreadExecutor() : null;
+        this.virtual = v != null;
+
+        if (v != null) {
+            this.executor = v;
+            System.out.println("🧵 KIS I/O: 가상 스레드 (Java " + Runtime.version().feature() + ")");
+        } else {
+            AtomicInteger seq = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(Math.max(platformThreads, 1), r -> {
+                Thread t = new Thread(r, "kis-io-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            if (virtualEnabled) {
+                System.out.println("⚠️ 가상 스레드는 Java 21 이상 필요 (현재 " + Runtime.version().feature()
+                        + ") → 플랫폼 스레드 " + platformThreads + "개");
+            }
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;   // Java 17~20
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 실행
+    // ============================================================
+    /** 검사 예외는 CompletionException 으로 감싸진다 */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        submitted.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            inFlight.incrementAndGet();
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }, executor);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("mode", virtual ? "virtual" : "platform");
+        map.put("javaVersion", Runtime.version().feature());
+        map.put("inFlight", inFlight.get());
+        map.put("submitted", submitted.get());
+        return map;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+}
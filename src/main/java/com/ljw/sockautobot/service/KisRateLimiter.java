@@ -1,46 +1,114 @@
 package com.ljw.sockautobot.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * KIS 요청 간격 제한 (appKey 하나에 하나 — 모든 호출이 공유)
+ *
+ * AIMD 로 서버 허용량에 맞춘다.
+ * - 정상 응답이 이어지면 초당 요청 수를 1초에 0.5건씩 올리고 (가산 증가, 서버 한도까지)
+ * - 초당 건수 초과(EGW00201)나 타임아웃이 오면 절반으로 줄인다 (승산 감소)
+ */
+@Component
 public class KisRateLimiter {
 
+    private static final double INCREASE_PER_SECOND = 0.5;    // 정상 응답이 이어지면 1초마다 +0.5 req/s
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double MIN_RATE = 0.1;                // 최소 10초에 1건
+    private static final long DECREASE_HOLD_MILLIS = 1000;     // 같은 폭주에 연달아 반감하지 않도록
+
+
     private long lastRequestTime = 0L;
     private long interval = 1000; // 기본 1초
 
+    private double rate = 1.0;     // 현재 허용 req/s (interval 과 항상 같이 갱신)
+    private final double maxRate;  // 서버 허용 한도
+    private long lastDecrease = 0L;
+    private long throttledCount = 0;
+
+    public KisRateLimiter(@Value("${kis.mode:virtual}") String mode,
+                          @Value("${kis.rate.virtual-max-per-second:2}") double virtualMaxRate,
+                          @Value("${kis.rate.real-max-per-second:15}") double realMaxRate,
+                          @Value("${kis.rate.initial-per-second:1}") double initialRate) {
+        this.maxRate = "real".equalsIgnoreCase(mode) ? realMaxRate : virtualMaxRate;
+        setRate(Math.max(Math.min(initialRate, maxRate), MIN_RATE));   // 이후 AIMD 로 한도까지
+    }
+
     /**
-     * 모드 설정 (virtual = 모의투자, real = 실거래)
+     * 다음 요청까지 대기 (API 초당 제한 방지)
      */
-    public void setMode(String mode) {
-        if ("virtual".equalsIgnoreCase(mode)) {
-            interval = 2500; // ✅ 모의투자: 최소 2.5초 간격 (KIS 권장)
-        } else {
-            interval = 300;  // ✅ 실거래: 0.3초 (초당 3회 이하)
+    public void waitForNext() {
+        long waitTime = reserve();
+
+        if (waitTime > 0) {
+            try {
+                Thread.sleep(waitTime);
+            } catch (InterruptedException e) {
+                System.err.println("⚠️ [KIS RateLimiter] sleep 중 인터럽트 발생");
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
     /**
-     * 다음 요청까지 대기 (API 초당 제한 방지)
+     * 다음 요청 슬롯을 예약하고 그때까지 남은 시간(ms)을 돌려준다 (논블로킹 호출용)
+     * 동시에 여러 스레드가 불러도 슬롯이 겹치지 않는다.
      */
-    public synchronized void waitForNext() {
+    public synchronized long reserve() {
         long now = System.currentTimeMillis();
 
         // 첫 호출이라면 바로 통과
         if (lastRequestTime == 0L) {
             lastRequestTime = now;
-            return;
+            return 0;
         }
 
-        long nextAllowedTime = lastRequestTime + interval;
-        long waitTime = nextAllowedTime - now;
+        long nextAllowedTime = Math.max(now, lastRequestTime + interval);
+        lastRequestTime = nextAllowedTime;
+        return nextAllowedTime - now;
+    }
 
-        if (waitTime > 0) {
-            try {
-                Thread.sleep(waitTime);
-            } catch (InterruptedException e) {
-                System.err.println("⚠️ [KIS RateLimiter] sleep 중 인터럽트 발생");
-                Thread.currentThread().interrupt();
-            }
-        }
 
-        // ✅ 대기가 끝난 직후, 실제 요청 시점 기준으로 갱신
-        lastRequestTime = System.currentTimeMillis();
+    // ============================================================
+    // 🔵 AIMD 피드백
+    // ============================================================
+    public synchronized void onSuccess() {
+        if (rate >= maxRate) return;
+        // 응답 1건당 INCREASE_PER_SECOND / rate → 속도와 무관하게 초당 일정하게 증가
+        setRate(Math.min(rate + INCREASE_PER_SECOND / rate, maxRate));
+    }
+
+    /** 초당 건수 초과 / 타임아웃 */
+    public synchronized void onThrottled() {
+        throttledCount++;
+
+        long now = System.currentTimeMillis();
+        if (now - lastDecrease < DECREASE_HOLD_MILLIS) return;
+        lastDecrease = now;
+
+        setRate(Math.max(rate * DECREASE_FACTOR, MIN_RATE));
+        System.out.printf("🐢 [KIS RateLimiter] 과부하 감지 → 초당 %.2f건으로 감속%n", rate);
+    }
+
+    private void setRate(double newRate) {
+        rate = newRate;
+        interval = Math.round(1000.0 / newRate);
+    }
+
+    public synchronized double getRatePerSecond() {
+        return rate;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("ratePerSecond", rate);
+        map.put("maxRatePerSecond", maxRate);
+        map.put("intervalMs", interval);
+        map.put("throttledCount", throttledCount);
+        return map;
     }
 }
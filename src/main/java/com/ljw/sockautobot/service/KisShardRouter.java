@@ -0,0 +1,131 @@
+package com.ljw.sockautobot.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 종목 → KIS 계정 배정 (일관 해싱)
+ *
+ * - 계정마다 가상 노드 kis.shards.virtual-nodes 개를 해시 링에 올리고, 종목은 시계 방향 첫 노드의 계정으로
+ * - 계정이 내려가면(markDown) 그 계정 종목만 링의 다음 계정으로 옮겨가고 나머지는 그대로
+ * - 쿨다운이 끝나면 원래 자리로 돌아온다 (배정이 바뀐 종목 수는 moved 로 센다)
+ */
+@Component
+public class KisShardRouter {
+
+    private final KisAccountRegistry registry;
+    private final long downMillis;
+
+    private final TreeMap<Long, KisAccount> ring = new TreeMap<>();
+    private final Map<Integer, Long> downUntil = new HashMap<>();
+    private final Map<String, Integer> lastAssigned = new HashMap<>();
+    private long moved = 0;
+
+    public KisShardRouter(KisAccountRegistry registry,
+                          @Value("${kis.shards.virtual-nodes:64}") int virtualNodes,
+                          @Value("${kis.shards.down-ms:60000}") long downMillis) {
+        this.registry = registry;
+        this.downMillis = downMillis;
+
+        for (KisAccount a : registry.getAccounts()) {
+            for (int v = 0; v < Math.max(virtualNodes, 1); v++) {
+                ring.put(hash(a.getAppKey() + "#" + v), a);
+            }
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 배정
+    // ============================================================
+    public synchronized KisAccount shardFor(String symbol) {
+        if (registry.size() == 1) return registry.getPrimary();
+
+        long now = System.currentTimeMillis();
+        long h = hash(symbol);
+
+        // 시계 방향으로 돌며 살아 있는 첫 계정
+        Map.Entry<Long, KisAccount> e = ring.ceilingEntry(h);
+        for (int i = 0; i < ring.size(); i++) {
+            if (e == null) e = ring.firstEntry();
+            if (isUp(e.getValue(), now)) return e.getValue();
+            e = ring.higherEntry(e.getKey());
+        }
+        return registry.getPrimary();   // 전부 내려갔으면 기본 계정
+    }
+
+    /** 계정별 종목 목록 (계정 id 순, 입력 순서 유지) */
+    public synchronized Map<KisAccount, List<String>> partition(List<String> symbols) {
+        Map<KisAccount, List<String>> out = new TreeMap<>(Comparator.comparingInt(KisAccount::getId));
+
+        for (String s : symbols) {
+            KisAccount a = shardFor(s);
+            out.computeIfAbsent(a, k -> new ArrayList<>()).add(s);
+
+            Integer prev = lastAssigned.put(s, a.getId());
+            if (prev != null && prev != a.getId()) moved++;
+        }
+        lastAssigned.keySet().retainAll(symbols);
+        return out;
+    }
+
+
+    // ============================================================
+    // 🔵 재배정 (계정 장애)
+    // ============================================================
+    public synchronized void markDown(KisAccount account, String reason) {
+        if (registry.size() == 1) return;
+
+        downUntil.put(account.getId(), System.currentTimeMillis() + downMillis);
+        System.err.println("🔀 [Shard] 계정 " + account.label() + " 제외 (" + downMillis / 1000 + "초) — " + reason);
+    }
+
+    private boolean isUp(KisAccount a, long now) {
+        Long until = downUntil.get(a.getId());
+        if (until == null) return true;
+        if (now < until) return false;
+
+        downUntil.remove(a.getId());
+        System.out.println("🔀 [Shard] 계정 " + a.label() + " 복귀");
+        return true;
+    }
+
+
+    // FNV-1a 64 + 비트 섞기 (짧은 종목코드도 링에 고르게)
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        long now = System.currentTimeMillis();
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        lastAssigned.values().forEach(id -> counts.merge(id, 1, Integer::sum));
+
+        List<Map<String, Object>> accounts = new ArrayList<>();
+        for (KisAccount a : registry.getAccounts()) {
+            Map<String, Object> m = a.getStatus();
+            Long until = downUntil.get(a.getId());
+            m.put("up", until == null || now >= until);
+            m.put("symbols", counts.getOrDefault(a.getId(), 0));
+            accounts.add(m);
+        }
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("accounts", accounts);
+        map.put("virtualNodes", ring.size() / registry.size());
+        map.put("moved", moved);
+        return map;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ljw.sockautobot.service;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 틱 단위 지연 추적 (시세 수신 → 판단 → 주문 응답)
+ *
+ * 각 구간을 nanoTime 으로 찍고 틱이 끝나면 구간별 HdrHistogram(μs)에 기록한다.
+ * 기록은 스케줄러 스레드 하나에서만, 조회는 대시보드 스레드에서 한다.
+ */
+@Component
+public class LatencyTracer {
+
+    public enum Hop {
+        REQUESTED,     // 시세 요청 직전
+        RECEIVED,      // 시세 응답 수신
+        PARSED,        // 시세 응답 → 가격/거래량 추출 완료
+        INPUTS_READY,  // 체결강도/호가/KOSPI 조회까지 입력 준비 완료
+        INDICATORS,    // 계산기 갱신 완료
+        DECIDED,       // 매매 판단 완료
+        ORDER_SENT,    // 주문 전송 직전
+        ORDER_ACKED    // 주문 응답 수신
+    }
+
+    public enum Stage {
+        QUOTE("시세 조회", Hop.REQUESTED, Hop.RECEIVED),
+        PARSE("시세 파싱", Hop.RECEIVED, Hop.PARSED),
+        INPUTS("체결/호가 조회", Hop.PARSED, Hop.INPUTS_READY),
+        INDICATORS("지표 계산", Hop.INPUTS_READY, Hop.INDICATORS),
+        DECISION("매매 판단", Hop.INDICATORS, Hop.DECIDED),
+        PRE_ORDER("리스크/주문 준비", Hop.DECIDED, Hop.ORDER_SENT),
+        ORDER_ACK("주문 응답", Hop.ORDER_SENT, Hop.ORDER_ACKED),
+        QUOTE_AGE("시세 수신→판단", Hop.RECEIVED, Hop.DECIDED),
+        TICK_TO_ACK("시세 수신→주문 응답", Hop.RECEIVED, Hop.ORDER_ACKED);
+
+        private final String label;
+        private final Hop from;
+        private final Hop to;
+
+        Stage(String label, Hop from, Hop to) {
+            this.label = label;
+            this.from = from;
+            this.to = to;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private final long[] stamps = new long[Hop.values().length];
+    private final Map<Stage, Histogram> histograms = new EnumMap<>(Stage.class);
+
+    public LatencyTracer() {
+        for (Stage s : Stage.values()) {
+            histograms.put(s, new ConcurrentHistogram(3));
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 기록 (스케줄러 스레드)
+    // ============================================================
+    public void beginTick() {
+        Arrays.fill(stamps, 0);
+        mark(Hop.REQUESTED);
+    }
+
+    public void mark(Hop hop) {
+        stamps[hop.ordinal()] = System.nanoTime();
+    }
+
+    /** 찍힌 구간만 히스토그램에 반영 (중복 기록 방지를 위해 반영 후 초기화) */
+    public void endTick() {
+        for (Stage s : Stage.values()) {
+            long d = elapsedNanos(s);
+            if (d >= 0) histograms.get(s).recordValue(d / 1_000);
+        }
+        Arrays.fill(stamps, 0);
+    }
+
+    /** 현재 틱의 구간별 소요시간 — 매매 로그 첨부용 (예: "시세 조회 120.4ms, ...") */
+    public String breakdown() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage s : Stage.values()) {
+            long d = elapsedNanos(s);
+            if (d < 0) continue;
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(s.label).append(' ').append(String.format("%.1fms", d / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+
+    private long elapsedNanos(Stage s) {
+        long from = stamps[s.from.ordinal()];
+        long to = stamps[s.to.ordinal()];
+        if (from == 0 || to == 0) return -1;
+        return Math.max(to - from, 0);
+    }
+
+
+    // ============================================================
+    // 🔵 조회 (대시보드)
+    // ============================================================
+    public Map<String, Object> getSnapshot() {
+        Map<String, Object> res = new LinkedHashMap<>();
+
+        for (Stage s : Stage.values()) {
+            Histogram h = histograms.get(s).copy();
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("label", s.label);
+            m.put("count", h.getTotalCount());
+            m.put("meanMs", h.getMean() / 1_000.0);
+            m.put("p50Ms", h.getValueAtPercentile(50) / 1_000.0);
+            m.put("p90Ms", h.getValueAtPercentile(90) / 1_000.0);
+            m.put("p99Ms", h.getValueAtPercentile(99) / 1_000.0);
+            m.put("p999Ms", h.getValueAtPercentile(99.9) / 1_000.0);
+            m.put("maxMs", h.getMaxValue() / 1_000.0);
+            res.put(s.name(), m);
+        }
+        return res;
+    }
+
+    public void reset() {
+        for (Histogram h : histograms.values()) {
+            h.reset();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.ljw.sockautobot.service;
+
+import com.ljw.sockautobot.api.KisTradeClientApi;
+import com.ljw.sockautobot.bus.TradeEventMessage;
+import com.ljw.sockautobot.market.KrxTickSize;
+import com.ljw.sockautobot.market.OrderBook;
+import com.ljw.sockautobot.store.TradeJournal;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 호가창 기반 지정가 주문 + 미체결 정정
+ *
+ * - 매수: 마이크로프라이스가 중간가 이상(매수세 우위)이면 매도1호가, 아니면 매수1호가에 건다
+ * - 매도: 매수1호가 지정가 (호가창이 없을 때만 시장가)
+ * - 가격은 항상 KRX 호가단위로 맞춘다
+ * - 제한시간 안에 체결(보유수량 변화)이 안 되면 반대편 최우선 호가로 정정, 횟수 초과 시 취소
+ * - 모든 주문은 전송 전에 저널(INTENT)에 먼저 남기고, 접수/거부/종료도 기록한다
+ * - 링버스 매매 이벤트도 여기서 — 실제 보낸 가격(호가단위 반영)과 접수/거부 결과로
+ */
+@Component
+public class OrderPlacementService {
+
+    private final KisTradeClientApi tradeClient;
+    private final RiskEngine riskEngine;
+    private final KisApiGuard guard;
+    private final TradeJournal journal;
+    private final EngineBusPublisher bus;
+
+    private final long replaceTimeoutMillis;
+    private final int maxReplaces;
+
+    private PendingOrder pending;
+
+    public OrderPlacementService(KisTradeClientApi tradeClient,
+                                 RiskEngine riskEngine,
+                                 KisApiGuard guard,
+                                 TradeJournal journal,
+                                 EngineBusPublisher bus,
+                                 @Value("${order.replace-timeout-ms:5000}") long replaceTimeoutMillis,
+                                 @Value("${order.max-replaces:2}") int maxReplaces) {
+        this.tradeClient = tradeClient;
+        this.riskEngine = riskEngine;
+        this.guard = guard;
+        this.journal = journal;
+        this.bus = bus;
+        this.replaceTimeoutMillis = replaceTimeoutMillis;
+        this.maxReplaces = maxReplaces;
+    }
+
+
+    // ============================================================
+    // 🔵 가격 결정
+    // ============================================================
+    public int buyPrice(OrderBook book, double lastPrice) {
+        if (book.isEmpty() || book.getBestBid() <= 0 || book.getBestAsk() <= 0) {
+            return KrxTickSize.roundDown(lastPrice);
+        }
+
+        double mid = (book.getBestBid() + book.getBestAsk()) / 2.0;
+        double micro = book.microprice();
+
+        int price = (micro >= mid) ? book.getBestAsk() : book.getBestBid();
+        return KrxTickSize.roundDown(price);
+    }
+
+    /** 0 = 시장가 */
+    public int sellPrice(OrderBook book) {
+        if (book.isEmpty() || book.getBestBid() <= 0) return 0;
+        return KrxTickSize.roundUp(book.getBestBid());
+    }
+
+
+    // ============================================================
+    // 🔵 주문
+    // ============================================================
+    /**
+     * @param permit     guard.acquire("order") 로 미리 받은 전송 슬롯 (제한기 대기는 호출 전에 끝남)
+     * @param holdingQty 주문 전 보유수량 (체결 판정 기준)
+     */
+    public JSONObject placeBuy(KisApiGuard.Permit permit, String token, String appKey, String appSecret, String accountNo,
+                               String symbol, int qty, int holdingQty,
+                               OrderBook book, double lastPrice) throws Exception {
+
+        int price = buyPrice(book, lastPrice);
+        String cid = journal.intent("NEW", symbol, true, qty, price, holdingQty + qty, null);
+        JSONObject res;
+        try {
+            res = guard.call(permit,
+                    () -> tradeClient.buyStock(token, appKey, appSecret, accountNo, symbol, qty, price));
+        } catch (Exception e) {
+            sendFailed(cid, symbol, e);
+            throw e;
+        }
+        riskEngine.onOrderSent();
+
+        track(res, cid, symbol, true, qty, price, holdingQty + qty);
+        return res;
+    }
+
+    public JSONObject placeSell(KisApiGuard.Permit permit, String token, String appKey, String appSecret, String accountNo,
+                                String symbol, int qty, int holdingQty,
+                                OrderBook book) throws Exception {
+
+        int price = sellPrice(book);
+        String cid = journal.intent("NEW", symbol, false, qty, price, holdingQty - qty, null);
+        JSONObject res;
+        try {
+            res = guard.call(permit,
+                    () -> tradeClient.sellStock(token, appKey, appSecret, accountNo, symbol, qty, price));
+        } catch (Exception e) {
+            sendFailed(cid, symbol, e);
+            throw e;
+        }
+        riskEngine.onOrderSent();
+
+        track(res, cid, symbol, false, qty, price, holdingQty - qty);
+
+        // 시장가는 정정 대상이 아님
+        if (price == 0 && pending != null) {
+            journal.done(cid, "MARKET");
+            pending = null;
+        }
+        return res;
+    }
+
+    private void track(JSONObject res, String cid, String symbol, boolean buy, int qty, int price, int targetQty) {
+        String side = buy ? "매수" : "매도";
+
+        if (!isAccepted(res)) {
+            System.out.println("⚠️ 주문 거부 — " + res.optString("msg_cd") + " " + res.optString("msg1"));
+            journal.reject(cid, res.optString("msg_cd") + " " + res.optString("msg1"));
+            bus.publishTrade(symbol, TradeEventMessage.REJECT, qty, price,
+                    side + " 거부 " + res.optString("msg_cd") + " " + res.optString("msg1"));
+            pending = null;
+            return;
+        }
+
+        bus.publishTrade(symbol, buy ? TradeEventMessage.BUY : TradeEventMessage.SELL, qty, price,
+                side + " 접수" + (price == 0 ? " (시장가)" : "") + " #" + orderNo(res));
+
+        JSONObject out = res.optJSONObject("output");
+        if (out == null) {
+            journal.done(cid, "NO_ORDER_NO");
+            pending = null;
+            return;
+        }
+
+        journal.ack(cid, out.optString("KRX_FWDG_ORD_ORGNO"), out.optString("ODNO"), price);
+        pending = new PendingOrder(cid, symbol, buy, price, targetQty,
+                out.optString("KRX_FWDG_ORD_ORGNO"), out.optString("ODNO"));
+    }
+
+    // 신규 주문 전송 예외 — INTENT 가 열린 채 남지 않게 (타임아웃이면 접수 여부를 모름)
+    private void sendFailed(String cid, String symbol, Exception e) {
+        if (KisApiGuard.classify(e) == KisApiGuard.Failure.TIMEOUT) {
+            System.out.println("⚠️ 주문 결과 모름 (타임아웃) — " + symbol + " 잔고로 확인 필요: " + e.getMessage());
+            journal.unknown(cid, String.valueOf(e.getMessage()));
+        } else {
+            journal.reject(cid, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /** KIS 접수 여부 (rt_cd == 0) */
+    public static boolean isAccepted(JSONObject res) {
+        return res != null && "0".equals(res.optString("rt_cd"));
+    }
+
+    private static String orderNo(JSONObject res) {
+        JSONObject out = res.optJSONObject("output");
+        return out == null ? "" : out.optString("ODNO");
+    }
+
+    /** 저널에서 복원한 미체결 주문을 다시 추적 (제한시간은 지금부터) */
+    public void restore(TradeJournal.OpenOrder o) {
+        PendingOrder p = new PendingOrder(o.cid, o.symbol, o.buy, o.price, o.targetQty, o.orgNo, o.orderNo);
+        p.replaces = o.replaces;
+        pending = p;
+        System.out.println("♻️ 미체결 주문 복원 — " + o.symbol + " " + (o.buy ? "매수" : "매도")
+                + " @" + o.price + " (주문번호 " + o.orderNo + ")");
+    }
+
+
+    // ============================================================
+    // 🔵 미체결 관리
+    // ============================================================
+    public boolean hasPending() {
+        return pending != null;
+    }
+
+    /** 미체결 주문 지정가 (없거나 시장가면 0) */
+    public int pendingPrice() {
+        return pending == null ? 0 : pending.price;
+    }
+
+    /** 제한시간이 지나 보유수량 확인이 필요한지 */
+    public boolean isDue() {
+        return pending != null && System.currentTimeMillis() - pending.sentAt >= replaceTimeoutMillis;
+    }
+
+    /** 잔고 재조회 후 호출 — 목표 수량에 도달했으면 체결 완료 */
+    public void onPosition(int holdingQty) {
+        if (pending == null) return;
+
+        boolean filled = pending.buy ? holdingQty >= pending.targetQty : holdingQty <= pending.targetQty;
+        if (filled) {
+            System.out.println("✅ 체결 확인 — " + pending.symbol + " @" + pending.price);
+            journal.done(pending.cid, "FILLED");
+            pending = null;
+        }
+    }
+
+    /**
+     * isDue() 이후 잔고 반영까지 끝났는데도 미체결이면 정정 또는 취소
+     * @param permit guard.acquire("order-rvsecncl") 로 미리 받은 전송 슬롯
+     */
+    public void replaceIfUnfilled(KisApiGuard.Permit permit, String token, String appKey, String appSecret, String accountNo,
+                                  int holdingQty, OrderBook book) throws Exception {
+        onPosition(holdingQty);
+        if (pending == null) return;
+
+        PendingOrder p = pending;
+        int remaining = Math.abs(p.targetQty - holdingQty);
+
+        if (p.replaces >= maxReplaces || remaining <= 0) {
+            journal.intent("CANCEL", p.symbol, p.buy, remaining, p.price, p.targetQty, p.cid);
+            JSONObject res;
+            try {
+                res = guard.call(permit,
+                        () -> tradeClient.cancelOrder(token, appKey, appSecret, accountNo, p.orgNo, p.orderNo));
+            } catch (Exception e) {
+                resendLater(p);
+                throw e;
+            }
+            riskEngine.onOrderSent();
+
+            if (!isAccepted(res)) {
+                // 원주문은 아직 살아 있을 수 있다 → 추적 유지, 체결(잔고)로 확인되거나 취소가 접수될 때까지 재시도
+                keepTracking(p, p.price, remaining, false, res);
+                return;
+            }
+
+            System.out.println("🗑️ 미체결 취소 — " + p.symbol + " @" + p.price);
+            journal.done(p.cid, "CANCELLED");
+            bus.publishTrade(p.symbol, TradeEventMessage.CANCEL, remaining, p.price,
+                    (p.buy ? "매수" : "매도") + " 취소 #" + p.orderNo);
+            pending = null;
+            return;
+        }
+
+        // 반대편 최우선 호가로 정정 (호가창이 없으면 기존 가격 유지)
+        int price = p.buy
+                ? (book.getBestAsk() > 0 ? KrxTickSize.roundDown(book.getBestAsk()) : p.price)
+                : (book.getBestBid() > 0 ? KrxTickSize.roundUp(book.getBestBid()) : p.price);
+
+        journal.intent("REVISE", p.symbol, p.buy, remaining, price, p.targetQty, p.cid);
+        JSONObject res;
+        try {
+            res = guard.call(permit,
+                    () -> tradeClient.reviseOrder(token, appKey, appSecret, accountNo,
+                            p.orgNo, p.orderNo, remaining, price));
+        } catch (Exception e) {
+            resendLater(p);
+            throw e;
+        }
+        riskEngine.onOrderSent();
+
+        if (!isAccepted(res)) {
+            // 이미 체결됐으면 다음 잔고 조회(onPosition)에서 끝난다 — 그 전까지 원주문은 살아 있는 것으로
+            keepTracking(p, price, remaining, true, res);
+            return;
+        }
+
+        JSONObject out = res.optJSONObject("output");
+        p.replaces++;
+        p.price = price;
+        p.sentAt = System.currentTimeMillis();
+        if (out != null && !out.optString("ODNO").isEmpty()) {
+            p.orgNo = out.optString("KRX_FWDG_ORD_ORGNO", p.orgNo);
+            p.orderNo = out.optString("ODNO");
+        }
+        journal.ack(p.cid, p.orgNo, p.orderNo, price);
+        bus.publishTrade(p.symbol, TradeEventMessage.REVISE, remaining, price,
+                (p.buy ? "매수" : "매도") + " 정정 " + p.replaces + "회 #" + p.orderNo);
+        System.out.println("🔁 미체결 정정 — " + p.symbol + " → " + price + " (" + p.replaces + "회)");
+    }
+
+    /**
+     * 정정/취소 거부 — 원주문(가격/주문번호 그대로)을 계속 추적하고 제한시간 뒤 다시 시도
+     * 정정 거부도 횟수에 넣어 결국 취소로 넘어가게 한다
+     */
+    private void keepTracking(PendingOrder p, int price, int remaining, boolean revise, JSONObject res) {
+        String action = revise ? "정정" : "취소";
+        String reason = res.optString("msg_cd") + " " + res.optString("msg1");
+        System.out.println("⚠️ " + action + " 거부 — " + p.symbol + " #" + p.orderNo + " " + reason + " (추적 유지)");
+
+        bus.publishTrade(p.symbol, TradeEventMessage.REJECT, remaining, price, action + " 거부 " + reason);
+
+        if (revise) p.replaces++;
+        resendLater(p);
+    }
+
+    // 정정/취소 전송 예외 — 원주문은 살아 있다고 보고 저널을 원주문으로 되돌린 뒤 제한시간 뒤 재시도
+    private void resendLater(PendingOrder p) {
+        journal.ack(p.cid, p.orgNo, p.orderNo, p.price);
+        p.sentAt = System.currentTimeMillis();
+    }
+
+    /** 종목 변경 등으로 추적 중단 */
+    public void clear() {
+        if (pending != null) journal.done(pending.cid, "UNTRACKED");
+        pending = null;
+    }
+
+
+    private static final class PendingOrder {
+        final String cid;       // 저널 주문 ID
+        final String symbol;
+        final boolean buy;
+        final int targetQty;
+        int price;
+        String orgNo;
+        String orderNo;
+        long sentAt = System.currentTimeMillis();
+        int replaces = 0;
+
+        PendingOrder(String cid, String symbol, boolean buy, int price, int targetQty, String orgNo, String orderNo) {
+            this.cid = cid;
+            this.symbol = symbol;
+            this.buy = buy;
+            this.price = price;
+            this.targetQty = targetQty;
+            this.orgNo = orgNo;
+            this.orderNo = orderNo;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.ljw.sockautobot.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 실현손익 성과 통계 — 체결마다 O(1) 갱신, 대시보드는 로그를 다시 훑지 않고 바로 읽는다
+ *
+ * - 거래 1건 = 매도 체결 1건 (순손익은 ProfitTracker.recordProfit → KrxTradeCost 와 같은 비용 모델)
+ * - 평균/분산은 Welford 누적 (건당 손익, 건당 수익률) → 승률 / 손익비 / 거래당 Sharpe
+ * - 최대 낙폭 = 누적 실현손익 곡선의 고점 대비 최대 하락
+ * - 회전율 = 매수 + 매도 체결 금액 (기준 잔고 대비 배수도 같이)
+ *
+ * 범위: 세션(당일, resetSession 으로 초기화) / 세션 내 종목별 / 기동 이후 전체 + 최근 거래 N건
+ */
+@Component
+public class PnlAnalytics {
+
+    private static final int RECENT_TRADES = 50;
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final ProfitTracker profitTracker;
+
+    private Stats session = new Stats();
+    private final Stats lifetime = new Stats();
+    private final Map<String, Stats> bySymbol = new TreeMap<>();
+    private final ArrayDeque<Trade> recent = new ArrayDeque<>(RECENT_TRADES);
+
+    public PnlAnalytics(ProfitTracker profitTracker) {
+        this.profitTracker = profitTracker;
+    }
+
+    /** 매도 체결 1건 */
+    public record Trade(long time, String symbol, int qty, double price, double avgCost,
+                        double netProfit, double returnPct) {
+    }
+
+
+    // ============================================================
+    // 🔵 체결 반영
+    // ============================================================
+    public synchronized void onBuy(String symbol, int qty, double price) {
+        if (qty <= 0) return;
+
+        double notional = qty * price;
+        session.addTurnover(notional);
+        lifetime.addTurnover(notional);
+        symbol(symbol).addTurnover(notional);
+    }
+
+    /** netProfit = 비용 차감 순손익 (ProfitTracker.recordProfit 결과) */
+    public synchronized void onSell(String symbol, int qty, double price, double avgCost, double netProfit, long time) {
+        if (qty <= 0) return;
+
+        double notional = qty * price;
+        double cost = avgCost * qty;
+        double returnPct = cost > 0 ? netProfit / cost * 100 : 0;
+
+        for (Stats s : List.of(session, lifetime, symbol(symbol))) {
+            s.addTurnover(notional);
+            s.addTrade(netProfit, returnPct);
+        }
+
+        if (recent.size() == RECENT_TRADES) recent.removeFirst();
+        recent.addLast(new Trade(time, symbol, qty, price, avgCost, netProfit, returnPct));
+    }
+
+    private Stats symbol(String symbol) {
+        return bySymbol.computeIfAbsent(symbol, k -> new Stats());
+    }
+
+    /** 새 거래일 (ProfitTracker.resetDaily 와 같이) */
+    public synchronized void resetSession() {
+        session = new Stats();
+        bySymbol.clear();
+        recent.clear();
+    }
+
+
+    // ============================================================
+    // 🔵 조회
+    // ============================================================
+    public synchronized Map<String, Object> getStatus() {
+        double base = profitTracker.getBaseBalance();
+
+        Map<String, Object> sessionMap = session.toMap();
+        sessionMap.put("turnoverRatio", base > 0 ? session.turnover / base : 0);
+
+        Map<String, Object> symbols = new LinkedHashMap<>();
+        bySymbol.forEach((k, v) -> symbols.put(k, v.toMap()));
+
+        List<Map<String, Object>> trades = new ArrayList<>(recent.size());
+        for (Iterator<Trade> it = recent.descendingIterator(); it.hasNext(); ) {
+            Trade t = it.next();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("time", Instant.ofEpochMilli(t.time()).atZone(KST).toLocalTime().withNano(0).toString());
+            m.put("symbol", t.symbol());
+            m.put("qty", t.qty());
+            m.put("price", t.price());
+            m.put("avgCost", t.avgCost());
+            m.put("netProfit", t.netProfit());
+            m.put("returnPct", t.returnPct());
+            trades.add(m);
+        }
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("session", sessionMap);
+        map.put("bySymbol", symbols);
+        map.put("lifetime", lifetime.toMap());
+        map.put("recentTrades", trades);
+        return map;
+    }
+
+
+    // ============================================================
+    // 🔵 누적 통계 (상수 크기)
+    // ============================================================
+    private static final class Stats {
+        long trades = 0;
+        long wins = 0;
+        double grossProfit = 0;
+        double grossLoss = 0;      // 양수로
+
+        // Welford — 건당 순손익 / 건당 수익률(%)
+        double pnlMean = 0;
+        double pnlM2 = 0;
+        double retMean = 0;
+        double retM2 = 0;
+
+        double equity = 0;         // 누적 실현손익
+        double peak = 0;
+        double maxDrawdown = 0;
+
+        double turnover = 0;
+
+        void addTurnover(double notional) {
+            turnover += notional;
+        }
+
+        void addTrade(double pnl, double ret) {
+            trades++;
+            if (pnl > 0) {
+                wins++;
+                grossProfit += pnl;
+            } else {
+                grossLoss -= pnl;
+            }
+
+            double d = pnl - pnlMean;
+            pnlMean += d / trades;
+            pnlM2 += d * (pnl - pnlMean);
+
+            double r = ret - retMean;
+            retMean += r / trades;
+            retM2 += r * (ret - retMean);
+
+            equity += pnl;
+            peak = Math.max(peak, equity);
+            maxDrawdown = Math.max(maxDrawdown, peak - equity);
+        }
+
+        double pnlStd() {
+            return trades > 1 ? Math.sqrt(pnlM2 / (trades - 1)) : 0;
+        }
+
+        double retStd() {
+            return trades > 1 ? Math.sqrt(retM2 / (trades - 1)) : 0;
+        }
+
+        Map<String, Object> toMap() {
+            double retStd = retStd();
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("trades", trades);
+            map.put("winRate", trades == 0 ? 0 : (double) wins / trades * 100);
+            map.put("realized", equity);
+            map.put("avgPnl", pnlMean);
+            map.put("pnlStd", pnlStd());
+            map.put("avgReturnPct", retMean);
+            map.put("sharpePerTrade", retStd > 0 ? retMean / retStd : 0);
+            map.put("profitFactor", grossLoss > 0 ? grossProfit / grossLoss : null);
+            map.put("maxDrawdown", maxDrawdown);
+            map.put("turnover", turnover);
+            return map;
+        }
+    }
+}
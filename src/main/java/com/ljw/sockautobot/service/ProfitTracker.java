@@ -1,5 +1,6 @@
 package com.ljw.sockautobot.service;
 
+import com.ljw.sockautobot.market.KrxTradeCost;
 import org.json.JSONObject;
 import org.springframework.stereotype.Component;
 
@@ -33,6 +34,13 @@ public class ProfitTracker {
         return (lastBalance - baseBalance) / baseBalance * 100.0;
     }
 
+    /** 새 거래일 — 다음 잔고 조회를 기준 잔고로 */
+    public void resetDaily() {
+        initialized = false;
+        totalProfit = 0;
+        tradeLogs.clear();
+    }
+
     /** 잔고 추적 */
     public void trackBalance(JSONObject balanceResponse, boolean showChange) {
         if (balanceResponse == null) return;
@@ -64,18 +72,22 @@ public class ProfitTracker {
     }
 
 
-    /** 거래 수익 누적 */
-    public void recordProfit(double sellPrice, double buyPrice, int qty) {
-
-        if (qty <= 0) return;
+    /** 거래 수익 누적 — 이번 거래 순손익 반환 (비용은 KrxTradeCost) */
+    public double recordProfit(double sellPrice, double buyPrice, int qty) {
 
-        double commission = (sellPrice + buyPrice) * 0.0015 * qty;
-        double tax = sellPrice * 0.0015 * qty;
+        if (qty <= 0) return 0;
 
-        double netProfit = (sellPrice - buyPrice) * qty - commission - tax;
+        double netProfit = KrxTradeCost.netProfit(sellPrice, buyPrice, qty);
         totalProfit += netProfit;
 
         tradeLogs.add("거래 수익: " + netProfit + "원 (누적: " + totalProfit + "원)");
+        return netProfit;
+    }
+
+    /** 재시작 시 저널에서 복원한 당일 실현손익 / 체결 로그 */
+    public void restore(double realizedProfit, List<String> logs) {
+        totalProfit = realizedProfit;
+        tradeLogs.addAll(logs);
     }
 
 
@@ -85,6 +97,15 @@ public class ProfitTracker {
         tradeLogs.add("[" + time + "] " + message);
     }
 
+    /** 거래 로그 + 지연 구간 내역 (LatencyTracer.breakdown) */
+    public void logTrade(String message, String latencyBreakdown) {
+        if (latencyBreakdown == null || latencyBreakdown.isEmpty()) {
+            logTrade(message);
+            return;
+        }
+        logTrade(message + " ⏱ " + latencyBreakdown);
+    }
+
 
     /** 로그 반환 (프론트) */
     public List<String> getLogs() {
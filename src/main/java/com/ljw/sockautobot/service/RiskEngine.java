@@ -0,0 +1,201 @@
+package com.ljw.sockautobot.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 주문 직전 리스크 체크 (전략 → 리스크 → KisTradeClientApi)
+ *
+ * 모든 판단은 메모리 카운터만 보고 O(1) 로 끝난다. 잔고 조회 같은 API 호출은 하지 않는다.
+ * 킬스위치가 켜지면 신규 매수만 막고, 포지션을 줄이는 매도는 허용한다.
+ *
+ * 손실/낙폭은 평가손익 기준: 마지막 잔고 조회의 변화액 + 보유수량 × (현재가 − 잔고 조회 시점 가격)
+ * → 포지션을 들고 있는 동안에도 틱마다(onTick) 갱신되고 한도를 넘으면 그 틱에 킬스위치가 켜진다.
+ */
+@Component
+public class RiskEngine {
+
+    public enum Result {
+        OK("통과"),
+        KILL_SWITCH("킬스위치 작동 중"),
+        MAX_POSITION("최대 보유수량 초과"),
+        MAX_NOTIONAL("최대 투자금액 초과"),
+        DAILY_LOSS("일 손실한도 도달"),
+        DRAWDOWN("고점 대비 손실한도 도달"),
+        ORDER_RATE("주문 빈도 초과");
+
+        private final String description;
+
+        Result(String description) { this.description = description; }
+
+        public String getDescription() { return description; }
+    }
+
+    private static final long RATE_WINDOW_MILLIS = 60_000;
+
+    private final int maxPositionQty;
+    private final double maxNotional;
+    private final double maxDailyLoss;
+    private final double maxDrawdown;
+
+    // 최근 주문 시각 링버퍼 — 가장 오래된 칸이 1분 이내면 한도 초과
+    private final long[] orderTimes;
+    private int orderHead = 0;
+
+    private volatile boolean killSwitch = false;
+    private volatile String killReason = "";
+
+    // 엔진이 갱신하는 카운터
+    private volatile int positionQty = 0;
+    private volatile double avgPrice = 0;
+    private volatile double balanceChange = 0;     // 마지막 잔고 조회 기준 (tot_evlu_amt − 기준 잔고)
+    private volatile double markPrice = 0;         // 그 잔고가 포지션을 평가한 가격 (≈ 조회 시점 틱)
+    private volatile double lastPrice = 0;
+    private volatile double equityChange = 0;      // 현재가로 다시 평가한 변화액
+    private volatile double peakEquityChange = 0;
+
+    private volatile Result lastResult = Result.OK;
+    private volatile long rejectCount = 0;
+
+    public RiskEngine(@Value("${risk.max-position-qty:3}") int maxPositionQty,
+                      @Value("${risk.max-notional:5000000}") double maxNotional,
+                      @Value("${risk.max-daily-loss:200000}") double maxDailyLoss,
+                      @Value("${risk.max-drawdown:300000}") double maxDrawdown,
+                      @Value("${risk.max-orders-per-minute:10}") int maxOrdersPerMinute) {
+        this.maxPositionQty = maxPositionQty;
+        this.maxNotional = maxNotional;
+        this.maxDailyLoss = maxDailyLoss;
+        this.maxDrawdown = maxDrawdown;
+        this.orderTimes = new long[Math.max(maxOrdersPerMinute, 1)];
+    }
+
+
+    // ============================================================
+    // 🔵 주문 전 체크
+    // ============================================================
+    public synchronized Result checkBuy(int qty, double price) {
+        Result r;
+
+        if (killSwitch) r = Result.KILL_SWITCH;
+        else if (positionQty + qty > maxPositionQty) r = Result.MAX_POSITION;
+        else if (positionQty * avgPrice + qty * price > maxNotional) r = Result.MAX_NOTIONAL;
+        else if (equityChange <= -maxDailyLoss) r = trip(Result.DAILY_LOSS);
+        else if (peakEquityChange - equityChange >= maxDrawdown) r = trip(Result.DRAWDOWN);
+        else if (!rateAvailable(System.currentTimeMillis())) r = Result.ORDER_RATE;
+        else r = Result.OK;
+
+        return record(r);
+    }
+
+    /** 매도는 위험을 줄이므로 주문 빈도만 본다 (킬스위치 중에도 청산 가능) */
+    public synchronized Result checkSell(int qty) {
+        Result r = rateAvailable(System.currentTimeMillis()) ? Result.OK : Result.ORDER_RATE;
+        return record(r);
+    }
+
+    /** 주문 전송 직후 호출 */
+    public synchronized void onOrderSent() {
+        orderTimes[orderHead] = System.currentTimeMillis();
+        orderHead = (orderHead + 1) % orderTimes.length;
+    }
+
+    private boolean rateAvailable(long now) {
+        long oldest = orderTimes[orderHead];
+        return oldest == 0 || now - oldest >= RATE_WINDOW_MILLIS;
+    }
+
+    private Result trip(Result reason) {
+        if (!killSwitch) {
+            killSwitch = true;
+            killReason = reason.getDescription();
+            System.out.println("🛑 [Risk] 킬스위치 자동 작동 — " + killReason);
+        }
+        return reason;
+    }
+
+    private Result record(Result r) {
+        lastResult = r;
+        if (r != Result.OK) rejectCount++;
+        return r;
+    }
+
+
+    // ============================================================
+    // 🔵 카운터 갱신 (잔고 재조회 시 / 틱마다)
+    // ============================================================
+    public synchronized void onPosition(int qty, double avg) {
+        this.positionQty = qty;
+        this.avgPrice = avg;
+    }
+
+    /** 잔고 재조회 — 이 시점 평가액이 새 기준, 이후 틱은 여기서부터 평가 */
+    public synchronized void onBalanceChange(double change) {
+        this.balanceChange = change;
+        this.markPrice = lastPrice;
+        mark(change);
+    }
+
+    /** 매 틱 — 보유 포지션을 현재가로 평가하고 손실/낙폭 한도 확인 */
+    public synchronized void onTick(double price) {
+        if (!(price > 0)) return;
+        lastPrice = price;
+        if (markPrice <= 0) markPrice = price;
+
+        mark(balanceChange + positionQty * (price - markPrice));
+    }
+
+    private void mark(double equity) {
+        equityChange = equity;
+        if (equity > peakEquityChange) peakEquityChange = equity;
+
+        if (killSwitch) return;
+        if (equity <= -maxDailyLoss) trip(Result.DAILY_LOSS);
+        else if (peakEquityChange - equity >= maxDrawdown) trip(Result.DRAWDOWN);
+    }
+
+    /** 새 거래일 — 손실 카운터 초기화 (킬스위치는 수동 해제) */
+    public synchronized void resetDaily() {
+        balanceChange = 0;
+        markPrice = 0;
+        equityChange = 0;
+        peakEquityChange = 0;
+        rejectCount = 0;
+        lastResult = Result.OK;
+    }
+
+
+    // ============================================================
+    // 🔵 킬스위치
+    // ============================================================
+    public void setKillSwitch(boolean enabled, String reason) {
+        this.killSwitch = enabled;
+        this.killReason = enabled ? (reason == null || reason.isBlank() ? "수동 작동" : reason) : "";
+        System.out.println(enabled ? "🛑 [Risk] 킬스위치 ON — " + killReason : "✅ [Risk] 킬스위치 OFF");
+    }
+
+    public boolean isKillSwitch() { return killSwitch; }
+
+
+    /** 대시보드용 */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("killSwitch", killSwitch);
+        map.put("killReason", killReason);
+        map.put("positionQty", positionQty);
+        map.put("maxPositionQty", maxPositionQty);
+        map.put("exposure", positionQty * avgPrice);
+        map.put("maxNotional", maxNotional);
+        map.put("balanceChange", balanceChange);
+        map.put("equityChange", equityChange);
+        map.put("maxDailyLoss", maxDailyLoss);
+        map.put("drawdown", peakEquityChange - equityChange);
+        map.put("maxDrawdown", maxDrawdown);
+        map.put("maxOrdersPerMinute", orderTimes.length);
+        map.put("lastResult", lastResult.name());
+        map.put("rejectCount", rejectCount);
+        return map;
+    }
+}
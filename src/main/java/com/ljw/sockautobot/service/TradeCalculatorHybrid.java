@@ -1,20 +1,30 @@
 package com.ljw.sockautobot.service;
 
+import com.ljw.sockautobot.indicator.BollingerBands;
+import com.ljw.sockautobot.indicator.DoubleRingBuffer;
+import com.ljw.sockautobot.indicator.Macd;
+import com.ljw.sockautobot.indicator.Rsi;
+import com.ljw.sockautobot.indicator.Vwap;
+import com.ljw.sockautobot.market.KrxTradeCost;
+import com.ljw.sockautobot.market.OrderBook;
 import org.springframework.stereotype.Component;
-import java.util.LinkedList;
 
 @Component
 public class TradeCalculatorHybrid {
 
-    private final LinkedList<Double> priceHistory = new LinkedList<>();
-    private final LinkedList<Integer> volumeHistory = new LinkedList<>();
-    private final LinkedList<Double> kospiHistory = new LinkedList<>();
-    private final LinkedList<Double> trHistory = new LinkedList<>();
+    // 원시 배열 링버퍼 (박싱 없음, 크기 고정)
+    private final DoubleRingBuffer priceHistory = new DoubleRingBuffer(3000);
+    private final DoubleRingBuffer volumeHistory = new DoubleRingBuffer(1500);
+    private final DoubleRingBuffer kospiHistory = new DoubleRingBuffer(500);
 
     private double tickStrength = 100;
     private int bidSum = 0;
     private int askSum = 0;
 
+    private final OrderBook orderBook = new OrderBook();
+    private static final int BOOK_DEPTH = 5;                // 불균형 계산에 쓰는 호가 단계
+    private static final double BULLISH_IMBALANCE = -0.25;  // bid > ask * 0.6 과 같은 경계
+
     private double todayOpen = -1;
     private double todayHigh = -1;
     private double todayLow = Double.MAX_VALUE;
@@ -23,11 +33,43 @@ public class TradeCalculatorHybrid {
     private static final int SHORT_MA = 10;   // 현실적인 단기선 (2~3분 기준)
     private static final int LONG_MA = 30;    // 현실적인 장기선 (6~9분 기준)
 
+    private static final long ATR_BAR_MILLIS = 60_000; // ATR 계산용 1분봉
+    private static final int ATR_PERIOD = 14;
+
+    // 진행 중인 1분봉 (틱 → 봉 집계)
+    private long barStart = -1;
+    private double barHigh = 0;
+    private double barLow = 0;
+    private double barClose = 0;
+    private double prevBarClose = -1;
+
+    // Wilder 평활 ATR (상수 크기 상태만 유지)
+    private double atr = 0;
+    private int atrBars = 0;
+
+    // 증분 지표 (틱마다 O(1))
+    private final Rsi rsi = new Rsi(14);
+    private final Vwap vwap = new Vwap();
+    private final BollingerBands bollinger = new BollingerBands(20, 2.0);
+    private final Macd macd = new Macd(12, 26, 9);
+
     private double kospi = 0;
 
+    // 틱 단위 신호 캐시 — 입력(addPrice / updateVolume / resetDaily)마다 tickSeq 가 오르고,
+    // 그 뒤 첫 조회에서 한 번만 계산 → 매매 판단 / 로그 / 대시보드가 몇 번을 읽어도 같은 값
+    private volatile long tickSeq = 0;
+    private volatile long signalSeq = -1;    // 값보다 나중에 씀 → 같은 seq 를 본 스레드는 값도 본다
+    private double sigShortMA;
+    private double sigLongMA;
+    private double sigSlope;
+    private double sigAccel;
+    private double sigMomentum;
+    private double sigAvgVolume;
+    private boolean sigVolumeSpike;
+
     public int getVolume() {
         if (volumeHistory.isEmpty()) return 0;
-        return volumeHistory.getLast();
+        return (int) volumeHistory.last();
     }
 
     public double getTickStrength() {
@@ -64,7 +106,19 @@ public class TradeCalculatorHybrid {
         priceHistory.clear();
         volumeHistory.clear();
         kospiHistory.clear();
-        trHistory.clear();
+
+        barStart = -1;
+        prevBarClose = -1;
+        atr = 0;
+        atrBars = 0;
+
+        rsi.reset();
+        vwap.reset();
+        bollinger.reset();
+        macd.reset();
+
+        orderBook.clear();
+        tickSeq++;
     }
 
 
@@ -72,6 +126,10 @@ public class TradeCalculatorHybrid {
     // 가격 업데이트
     // ============================================================
     public void addPrice(double price) {
+        addPrice(price, System.currentTimeMillis());
+    }
+
+    public void addPrice(double price, long timeMillis) {
 
         if (todayOpen < 0) todayOpen = price;
 
@@ -79,37 +137,90 @@ public class TradeCalculatorHybrid {
         todayLow = Math.min(todayLow, price);
 
         priceHistory.add(price);
-        if (priceHistory.size() > 3000) priceHistory.removeFirst();
 
-        updateATR(price);
+        updateATR(price, timeMillis);
+
+        rsi.update(price);
+        bollinger.update(price);
+        macd.update(price);
+        tickSeq++;
     }
 
 
     // ============================================================
-    // ATR (정식 TR 기반)
+    // 신호 캐시 (틱당 1회 계산)
     // ============================================================
-    private void updateATR(double price) {
-        if (todayHigh < 0 || todayLow == Double.MAX_VALUE) return;
-
-        double prev = (priceHistory.size() > 1)
-                ? priceHistory.get(priceHistory.size() - 2)
-                : todayOpen;
-
-        double tr = Math.max(
-                todayHigh - todayLow,
-                Math.max(
-                        Math.abs(todayHigh - prev),
-                        Math.abs(todayLow - prev)
-                )
-        );
+    private void ensureSignals() {
+        long seq = tickSeq;
+        if (signalSeq == seq) return;
+
+        synchronized (this) {
+            if (signalSeq == seq) return;
+
+            sigShortMA = calcMA(SHORT_MA);
+            sigLongMA = calcMA(LONG_MA);
+            sigSlope = calcSlope();
+            sigAccel = calcAccel();
+            sigMomentum = calcInstantMomentum();
+            sigAvgVolume = volumeHistory.size() < 30 ? 0 : volumeHistory.meanOfLast(30);
+            sigVolumeSpike = volumeHistory.size() >= 30 && volumeHistory.last() > sigAvgVolume;
+
+            signalSeq = seq;   // 계산 중 새 틱이 들어왔으면 다음 조회에서 다시
+        }
+    }
+
+
+    // ============================================================
+    // ATR (1분봉 True Range + Wilder 평활, O(1))
+    // ============================================================
+    private void updateATR(double price, long timeMillis) {
+        long bucket = timeMillis - Math.floorMod(timeMillis, ATR_BAR_MILLIS);
+
+        if (barStart < 0) {
+            openBar(bucket, price);
+            return;
+        }
+
+        if (bucket != barStart) {
+            closeBar();
+            openBar(bucket, price);
+            return;
+        }
+
+        barHigh = Math.max(barHigh, price);
+        barLow = Math.min(barLow, price);
+        barClose = price;
+    }
+
+    private void openBar(long bucket, double price) {
+        barStart = bucket;
+        barHigh = price;
+        barLow = price;
+        barClose = price;
+    }
 
-        trHistory.add(tr);
-        if (trHistory.size() > 14) trHistory.removeFirst();
+    private void closeBar() {
+        double tr = barHigh - barLow;
+        if (prevBarClose > 0) {
+            tr = Math.max(tr, Math.max(
+                    Math.abs(barHigh - prevBarClose),
+                    Math.abs(barLow - prevBarClose)
+            ));
+        }
+        prevBarClose = barClose;
+
+        // 처음 ATR_PERIOD 개 봉은 단순평균으로 시드, 이후 Wilder 평활
+        if (atrBars < ATR_PERIOD) {
+            atrBars++;
+            atr += (tr - atr) / atrBars;
+        } else {
+            atr = (atr * (ATR_PERIOD - 1) + tr) / ATR_PERIOD;
+        }
     }
 
+    /** 완성된 1분봉 기준 ATR (첫 봉이 닫히기 전에는 0) */
     public double getATR() {
-        if (trHistory.isEmpty()) return 0;
-        return trHistory.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        return atr;
     }
 
 
@@ -119,20 +230,18 @@ public class TradeCalculatorHybrid {
     private double calcMA(int len) {
         if (priceHistory.size() < len) return getLastPrice();
 
-        return priceHistory.subList(priceHistory.size() - len, priceHistory.size())
-                .stream().mapToDouble(Double::doubleValue)
-                .average().orElse(0);
+        return priceHistory.meanOfLast(len);
     }
 
-    public double getShortMA() { return calcMA(SHORT_MA); }
-    public double getLongMA() { return calcMA(LONG_MA); }
+    public double getShortMA() { ensureSignals(); return sigShortMA; }
+    public double getLongMA() { ensureSignals(); return sigLongMA; }
 
 
     // ============================================================
     // 모멘텀 지표
     // ============================================================
     public double getLastPrice() {
-        return priceHistory.isEmpty() ? 0 : priceHistory.getLast();
+        return priceHistory.isEmpty() ? 0 : priceHistory.last();
     }
 
     public double getDailyMomentum(double price) {
@@ -141,53 +250,71 @@ public class TradeCalculatorHybrid {
     }
 
 
-    public double getSlope() {
+    public double getSlope() { ensureSignals(); return sigSlope; }
+    public double getAccel() { ensureSignals(); return sigAccel; }
+    public double getInstantMomentum() { ensureSignals(); return sigMomentum; }
+
+    private double calcSlope() {
         int n = priceHistory.size();
         if (n < 2) return 0;
 
-        double y1 = priceHistory.get(n - 1);
-        double y2 = priceHistory.get(n - 2);
+        double y1 = priceHistory.fromEnd(0);
+        double y2 = priceHistory.fromEnd(1);
 
         if (y2 == 0) return 0;
         return (y1 - y2) / y2;
     }
 
-    public double getAccel() {
+    private double calcAccel() {
         int n = priceHistory.size();
         if (n < 3) return 0;
 
-        double s1 = priceHistory.get(n - 1) - priceHistory.get(n - 2);
-        double s2 = priceHistory.get(n - 2) - priceHistory.get(n - 3);
+        double s1 = priceHistory.fromEnd(0) - priceHistory.fromEnd(1);
+        double s2 = priceHistory.fromEnd(1) - priceHistory.fromEnd(2);
 
         return s1 - s2;
     }
 
-    public double getInstantMomentum() {
+    private double calcInstantMomentum() {
         int n = priceHistory.size();
         if (n < 2) return 0;
 
-        double cur = priceHistory.get(n - 1);
-        double prev = priceHistory.get(n - 2);
+        double cur = priceHistory.fromEnd(0);
+        double prev = priceHistory.fromEnd(1);
 
         return (cur - prev) / prev * 100;
     }
 
 
+    // ============================================================
+    // 보조 지표 (RSI / VWAP / 볼린저 / MACD)
+    // ============================================================
+    public double getRsi() { return rsi.getValue(); }
+    public double getVwap() { return vwap.getValue(); }
+
+    public double getBollingerUpper() { return bollinger.getUpper(); }
+    public double getBollingerLower() { return bollinger.getLower(); }
+    public double getBollingerPercentB() { return bollinger.getPercentB(getLastPrice()); }
+
+    public double getMacd() { return macd.getMacd(); }
+    public double getMacdSignal() { return macd.getSignal(); }
+    public double getMacdHistogram() { return macd.getHistogram(); }
+
+
     // ============================================================
     // 거래량 지표
     // ============================================================
     public void updateVolume(int v) {
         volumeHistory.add(v);
-        if (volumeHistory.size() > 1500) volumeHistory.removeFirst();
+        tickSeq++;
+
+        // v = acml_vol (당일 누적) → 직전 대비 증분을 현재가로 가중
+        if (!priceHistory.isEmpty()) vwap.update(getLastPrice(), v);
     }
 
     public boolean isVolumeSpike() {
-        //if (volumeHistory.size() < 30) return false;
-
-        double avg = volumeHistory.subList(volumeHistory.size() - 30, volumeHistory.size())
-                .stream().mapToInt(Integer::intValue).average().orElse(0);
-
-        return volumeHistory.getLast() > avg ;
+        ensureSignals();
+        return sigVolumeSpike;
     }
 
 
@@ -211,7 +338,20 @@ public class TradeCalculatorHybrid {
         askSum = Math.max(ask1Qty, 0);
     }
 
+    /** 10단계 호가창 (AutoTradeService 가 스냅샷을 제자리 반영) */
+    public OrderBook getOrderBook() {
+        return orderBook;
+    }
+
+    public double getOrderBookImbalance() {
+        return orderBook.depthWeightedImbalance(BOOK_DEPTH);
+    }
+
     public boolean isOrderBookBullish() {
+        // 전체 호가가 있으면 깊이 가중 불균형, 없으면 1호가 잔량 비교
+        if (!orderBook.isEmpty()) {
+            return getOrderBookImbalance() > BULLISH_IMBALANCE;
+        }
         if (askSum <= 0) return false;
         return bidSum > askSum * 0.6;
     }
@@ -223,13 +363,11 @@ public class TradeCalculatorHybrid {
     public void updateMarket(double k) {
         this.kospi = k;
         kospiHistory.add(k);
-        if (kospiHistory.size() > 500) kospiHistory.removeFirst();
     }
 
     public boolean isMarketUp() {
         if (kospiHistory.size() < 20) return true;
-        double avg = kospiHistory.subList(kospiHistory.size() - 20, kospiHistory.size())
-                .stream().mapToDouble(Double::doubleValue).average().orElse(kospi);
+        double avg = kospiHistory.meanOfLast(20);
         return kospi >= avg * 0.999;
     }
 
@@ -243,10 +381,8 @@ public class TradeCalculatorHybrid {
                 "\n===== BUY CHECK =====" +
                         "\nprice=" + price +
                         "\nVolumeSpike=" + isVolumeSpike() +
-                        " (lastVol=" + (volumeHistory.isEmpty() ? 0 : volumeHistory.getLast()) +
-                        ", avgVol=" + (volumeHistory.size() < 30 ? 0 :
-                        volumeHistory.subList(volumeHistory.size() - 30, volumeHistory.size())
-                                .stream().mapToInt(Integer::intValue).average().orElse(0)) + ")" +
+                        " (lastVol=" + getVolume() +
+                        ", avgVol=" + sigAvgVolume + ")" +
                         "\ntickStrength=" + tickStrength +
                         "\norderBook=" + bidSum + "/" + askSum +
                         "\nShortMA=" + getShortMA() +
@@ -268,7 +404,8 @@ public class TradeCalculatorHybrid {
         }
 
         if (!isOrderBookBullish()) {
-            System.out.println("❌ BuyFail — 호가 잔량 약함 (bid=" + bidSum + ", ask=" + askSum + ")");
+            System.out.println("❌ BuyFail — 호가 잔량 약함 (bid=" + bidSum + ", ask=" + askSum
+                    + ", imbalance=" + getOrderBookImbalance() + ")");
             return false;
         }
 
@@ -306,26 +443,16 @@ public class TradeCalculatorHybrid {
 
         if (getShortMA() < getLongMA()) return true;
 
-        if (Math.abs(price - avg) > getATR() * 1.4) return true;
+        double atr = getATR();
+        if (atr > 0 && Math.abs(price - avg) > atr * 1.4) return true;
 
         return false;
     }
 
     // ==================== 실질 수익률 계산 함수 ====================
+    /** 비용(수수료 + 세금) 차감 수익률 % — KrxTradeCost */
     public double calculateNetProfit(double currentPrice, double avgPrice) {
-        if (avgPrice <= 0 || currentPrice <= 0) return 0;
-
-        // 수익(원)
-        double profit = currentPrice - avgPrice;
-
-        // 실 매매 비용(수수료 + 세금) — 보수적 적용
-        double commission = (currentPrice + avgPrice) * 0.0015;  // 왕복 수수료
-        double tax = currentPrice * 0.0015;                      // 매도세금(0.15%)
-
-        double net = profit - commission - tax;
-
-        // 최종 수익률(%)
-        return (net / avgPrice) * 100;
+        return KrxTradeCost.netProfitRate(currentPrice, avgPrice);
     }
 
 }
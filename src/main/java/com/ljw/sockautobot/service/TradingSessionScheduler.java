@@ -0,0 +1,325 @@
+package com.ljw.sockautobot.service;
+
+import com.ljw.sockautobot.api.KisAuthClientApi;
+import com.ljw.sockautobot.api.KisOrderBookApi;
+import com.ljw.sockautobot.api.KisPriceClientApi;
+import com.ljw.sockautobot.api.KisReactiveClientApi;
+import com.ljw.sockautobot.api.KisTickApi;
+import com.ljw.sockautobot.market.KrxCalendar;
+import com.ljw.sockautobot.store.TickSeries;
+import com.ljw.sockautobot.store.TickStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 거래일 세션 관리 (KrxCalendar 기준, KST)
+ *
+ * - 08:50 워밍업: 토큰 갱신 → initDaily (전일종가 / 일일 리셋 / 기준 잔고)
+ *                → 관심종목 전일종가 병렬 조회 → HTTP 연결 예열 → 직전 거래일 틱으로 지표 코드 예열
+ * - 09:00 장 시작 / 15:20 종가 단일가 (신규 판단 중지) / 15:30 마감 정리
+ *
+ * 프로세스를 계속 띄워 둬도 매 거래일 첫 틱이 차가운 상태로 처리되지 않게 한다.
+ *
+ * 기동 시 네트워크 초기화도 여기서 — 빈 생성(@PostConstruct)이 아니라 준비 완료 이후 별도 스레드에서
+ * 돌리므로 컨텍스트 기동은 KIS 응답을 기다리지 않는다. 성공 전까지 autoTrade 는 건너뛴다.
+ * 08:50 워밍업의 initDaily 가 실패해도 같은 재시도 루프로 — 전날 상태로 매매하지 않는다.
+ */
+@Component
+@Lazy(false)
+public class TradingSessionScheduler {
+
+    private final KrxCalendar calendar;
+    private final AutoTradeService autoTradeService;
+    private final WatchlistQuoteService watchlist;
+    private final KisApiGuard guard;
+    private final KisAuthClientApi authClient;
+    private final KisPriceClientApi priceClient;
+    private final KisTickApi tickApi;
+    private final KisOrderBookApi orderBookApi;
+    private final KisReactiveClientApi reactiveClient;
+    private final TickStore tickStore;
+    private final ProfitTracker profitTracker;
+
+    @Value("${kis.app-key}") private String appKey;
+    @Value("${kis.app-secret}") private String appSecret;
+
+    private final Map<String, Double> prevCloses = new ConcurrentHashMap<>();
+    private final Map<String, Long> warmUpSteps = new LinkedHashMap<>();
+
+    private volatile LocalDate warmedUpDay;
+    private volatile LocalDateTime warmedUpAt;
+    private volatile String lastEvent = "-";
+    private final AtomicBoolean initRetrying = new AtomicBoolean();
+    private double warmUpSink;
+
+    public TradingSessionScheduler(KrxCalendar calendar,
+                                   AutoTradeService autoTradeService,
+                                   WatchlistQuoteService watchlist,
+                                   KisApiGuard guard,
+                                   KisAuthClientApi authClient,
+                                   KisPriceClientApi priceClient,
+                                   KisTickApi tickApi,
+                                   KisOrderBookApi orderBookApi,
+                                   KisReactiveClientApi reactiveClient,
+                                   TickStore tickStore,
+                                   ProfitTracker profitTracker) {
+        this.calendar = calendar;
+        this.autoTradeService = autoTradeService;
+        this.watchlist = watchlist;
+        this.guard = guard;
+        this.authClient = authClient;
+        this.priceClient = priceClient;
+        this.tickApi = tickApi;
+        this.orderBookApi = orderBookApi;
+        this.reactiveClient = reactiveClient;
+        this.tickStore = tickStore;
+        this.profitTracker = profitTracker;
+    }
+
+
+    // ============================================================
+    // 🔵 기동 직후 / 워밍업 초기화 실패 시 (비동기) — initDaily 가 성공할 때까지 재시도
+    // ============================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        retryInit();
+    }
+
+    private void retryInit() {
+        if (!initRetrying.compareAndSet(false, true)) return;   // 이미 재시도 중
+
+        Thread t = new Thread(() -> {
+            try {
+                bootstrap();
+            } finally {
+                initRetrying.set(false);
+            }
+        }, "session-bootstrap");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void bootstrap() {
+        long t0 = System.nanoTime();
+        long delay = 2000;
+
+        while (!autoTradeService.isReady()) {
+            try {
+                autoTradeService.initDaily();
+            } catch (Exception e) {
+                System.err.println("⚠️ [Session] 초기화 실패 — " + delay / 1000 + "초 후 재시도: " + e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                delay = Math.min(delay * 2, 60_000);
+            }
+        }
+        event("🚀 초기화 완료 (" + (System.nanoTime() - t0) / 1_000_000 + "ms)");
+
+        // 장중 재배포(또는 워밍업 실패 후 복구)면 나머지 워밍업도 바로
+        KrxCalendar.Phase phase = calendar.phaseNow();
+        if (phase == KrxCalendar.Phase.PRE_OPEN || phase == KrxCalendar.Phase.OPEN) {
+            LocalDate today = KrxCalendar.now().toLocalDate();
+            warmCaches(today);
+            warmedUpDay = today;
+            warmedUpAt = KrxCalendar.now();
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 08:50 워밍업
+    // ============================================================
+    @Scheduled(cron = "${session.warmup-cron:0 50 8 * * MON-FRI}", zone = "Asia/Seoul")
+    public void warmUp() {
+        LocalDate today = KrxCalendar.now().toLocalDate();
+        if (!calendar.isTradingDay(today)) {
+            event("💤 휴장일 — 워밍업 생략 (" + today + ")");
+            return;
+        }
+
+        System.out.println("🌅 [Session] 장 시작 전 워밍업 시작 — " + today);
+        synchronized (warmUpSteps) {
+            warmUpSteps.clear();
+        }
+
+        step("token", () -> {
+            authClient.getAccessToken(appKey, appSecret, today.atTime(KrxCalendar.POST_CLOSE_END));
+            watchlist.invalidateToken();
+        });
+        if (!step("initDaily", autoTradeService::initDaily)) {
+            // 워밍업 완료로 기록하지 않는다 — ready 는 initDaily 가 내려 두었고, 09:00 onOpen 도 다시 시도
+            event("❌ 워밍업 초기화 실패 — 성공할 때까지 재시도 " + warmUpSteps);
+            retryInit();
+            return;
+        }
+        warmCaches(today);
+
+        warmedUpDay = today;
+        warmedUpAt = KrxCalendar.now();
+        event("✅ 워밍업 완료 " + warmUpSteps);
+    }
+
+    private void warmCaches(LocalDate today) {
+        step("prevClose", this::prefetchPrevCloses);
+        step("connections", this::warmConnections);
+        step("indicators", () -> warmIndicators(today));
+    }
+
+    private boolean step(String name, Step step) {
+        long t0 = System.nanoTime();
+        boolean ok = true;
+        try {
+            step.run();
+        } catch (Exception e) {
+            System.err.println("⚠️ [Session] 워밍업 " + name + " 실패: " + e.getMessage());
+            ok = false;
+        }
+        synchronized (warmUpSteps) {
+            warmUpSteps.put(name, (System.nanoTime() - t0) / 1_000_000);
+        }
+        return ok;
+    }
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    // 관심종목 + 매매 종목 전일종가를 동시에 (요청 간격은 guard 가 맞춘다)
+    private void prefetchPrevCloses() throws Exception {
+        String token = authClient.getAccessToken(appKey, appSecret);
+
+        List<String> symbols = new ArrayList<>(watchlist.getSymbols());
+        if (!symbols.contains(autoTradeService.getSymbol())) symbols.add(autoTradeService.getSymbol());
+
+        Map<String, CompletableFuture<Double>> futures = new LinkedHashMap<>();
+        for (String s : symbols) {
+            futures.put(s, guard.submit("daily-price",
+                    () -> priceClient.getPrevClose(token, appKey, appSecret, s, "virtual")));
+        }
+
+        long deadline = System.currentTimeMillis() + 60_000;
+        prevCloses.clear();
+        for (Map.Entry<String, CompletableFuture<Double>> e : futures.entrySet()) {
+            try {
+                double pc = e.getValue().get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (pc > 0) prevCloses.put(e.getKey(), pc);
+            } catch (Exception ex) {
+                e.getValue().cancel(true);
+            }
+        }
+        System.out.println("📥 [Session] 전일종가 " + prevCloses.size() + "/" + symbols.size() + "종목");
+    }
+
+    // TLS 핸드셰이크 / keep-alive 연결 / 응답 파싱 경로를 장 시작 전에 한 번씩
+    private void warmConnections() throws Exception {
+        String token = authClient.getAccessToken(appKey, appSecret);
+        String symbol = autoTradeService.getSymbol();
+
+        guard.call("price", () -> priceClient.getUnifiedPrice(token, appKey, appSecret, symbol, "virtual"));
+        guard.call("ccnl", () -> tickApi.getTickStrength(token, appKey, appSecret, symbol));
+        guard.call("orderbook", () -> orderBookApi.getOrderBook(token, appKey, appSecret, symbol));
+
+        // WebClient 연결 풀도
+        guard.callAsync("price", () -> reactiveClient.getUnifiedPrice(token, appKey, appSecret, symbol))
+                .block(Duration.ofSeconds(10));
+    }
+
+    // 직전 거래일 틱을 임시 계산기에 흘려 지표 코드를 JIT 예열 (실제 계산기 상태는 건드리지 않음)
+    private void warmIndicators(LocalDate today) {
+        String symbol = autoTradeService.getSymbol();
+        TickSeries prev = tickStore.day(symbol, calendar.previousTradingDay(today));
+        if (prev.isEmpty()) return;
+
+        TradeCalculatorHybrid scratch = new TradeCalculatorHybrid();
+        double sink = 0;
+        for (int i = 0; i < prev.size(); i++) {
+            scratch.addPrice(prev.price(i), prev.time(i));
+            scratch.updateVolume((int) prev.volume(i));
+            sink += scratch.getShortMA() + scratch.getLongMA() + scratch.getSlope() + scratch.getAccel()
+                    + scratch.getInstantMomentum() + scratch.getATR() + scratch.getRsi() + scratch.getVwap()
+                    + scratch.getMacd() + scratch.getBollingerPercentB();
+        }
+        warmUpSink = sink;   // 결과를 남겨 JIT 가 계산을 지우지 않게
+        System.out.println("🔥 [Session] 직전 거래일 틱 " + prev.size() + "건으로 지표 예열");
+    }
+
+
+    // ============================================================
+    // 🔵 장중 단계
+    // ============================================================
+    @Scheduled(cron = "${session.open-cron:0 0 9 * * MON-FRI}", zone = "Asia/Seoul")
+    public void onOpen() {
+        LocalDate today = KrxCalendar.now().toLocalDate();
+        if (!calendar.isTradingDay(today)) return;
+
+        // 08:50 이후에 기동했거나 워밍업을 놓쳤으면 지금이라도
+        if (!today.equals(warmedUpDay)) warmUp();
+        event("🔔 장 시작");
+    }
+
+    @Scheduled(cron = "${session.close-auction-cron:0 20 15 * * MON-FRI}", zone = "Asia/Seoul")
+    public void onCloseAuction() {
+        if (!calendar.isTradingDay(KrxCalendar.now().toLocalDate())) return;
+        event("⏳ 종가 단일가 — 신규 매매 판단 중지");
+    }
+
+    @Scheduled(cron = "${session.post-close-cron:0 30 15 * * MON-FRI}", zone = "Asia/Seoul")
+    public void onPostClose() {
+        if (!calendar.isTradingDay(KrxCalendar.now().toLocalDate())) return;
+
+        autoTradeService.onSessionClose();
+        tickStore.flush();
+        profitTracker.logTrade("📊 장 마감 — 누적 수익 " + Math.round(profitTracker.getTotalProfit())
+                + "원, 잔고 변화 " + Math.round(profitTracker.getBalanceChange()) + "원");
+        event("🌙 장 마감 정리 완료");
+    }
+
+    private void event(String msg) {
+        lastEvent = KrxCalendar.now().toLocalTime().withNano(0) + " " + msg;
+        System.out.println("📅 [Session] " + msg);
+    }
+
+
+    // ============================================================
+    // 🔵 조회
+    // ============================================================
+    public Double getPrevClose(String symbol) {
+        return prevCloses.get(symbol);
+    }
+
+    public Map<String, Object> getStatus() {
+        LocalDateTime now = KrxCalendar.now();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("phase", calendar.phaseAt(now).name());
+        map.put("tradingDay", calendar.isTradingDay(now.toLocalDate()));
+        map.put("warmedUpAt", warmedUpAt == null ? null : warmedUpAt.toString());
+        synchronized (warmUpSteps) {
+            map.put("warmUpMs", new LinkedHashMap<>(warmUpSteps));
+        }
+        map.put("prevCloses", prevCloses);
+        map.put("lastEvent", lastEvent);
+        map.put("holidays", calendar.getHolidays().stream()
+                .filter(d -> !d.isBefore(now.toLocalDate())).limit(5).map(LocalDate::toString).toList());
+        return map;
+    }
+}
@@ -0,0 +1,326 @@
+package com.ljw.sockautobot.service;
+
+import com.ljw.sockautobot.api.KisAuthClientApi;
+import com.ljw.sockautobot.api.KisMultiPriceApi;
+import com.ljw.sockautobot.api.KisPriceClientApi;
+import com.ljw.sockautobot.api.KisReactiveClientApi;
+import com.ljw.sockautobot.market.Quote;
+import com.ljw.sockautobot.market.WatchlistSnapshot;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 관심종목 시세 수집 (사이클마다 WatchlistSnapshot 발행)
+ *
+ * - 실거래 + 멀티종목 TR 사용 시: 30종목씩 묶어 요청 1건
+ * - 그 외(모의투자 등): 종목별 현재가를 라운드로빈으로 돌며 이번 사이클 예산만큼만 파이프라인 요청
+ *   (가상 스레드 모드면 종목마다 블로킹 호출을 가상 스레드로, 아니면 WebClient 논블로킹)
+ * - KIS 계정이 여러 개면 종목을 KisShardRouter 로 계정에 나눠, 계정마다 자기 토큰 / 제한기 / 예산으로 동시에 받는다
+ *
+ * 예산 = 계정 요청 속도 × 사이클 길이 × 몫 (기본 계정은 rate-share — 나머지는 매매 루프 몫, 추가 계정은 전부 시세용)
+ * 관심종목이 예산보다 많으면 한 바퀴에 여러 사이클이 걸리고, 그만큼 시세 나이가 늘어난다.
+ */
+@Component
+@Lazy(false)
+public class WatchlistQuoteService {
+
+    private static final int DOWN_AFTER_EMPTY_CYCLES = 3;   // 계정이 연속 N 사이클 시세 0건이면 재배정
+
+    private final KisAuthClientApi authClient;
+    private final KisReactiveClientApi reactiveClient;
+    private final KisMultiPriceApi multiPriceApi;
+    private final KisPriceClientApi priceClient;
+    private final KisApiGuard guard;
+    private final KisIoExecutor io;
+    private final KisAccountRegistry accounts;
+    private final KisShardRouter router;
+
+    private final boolean multiQuote;
+    private final long cycleMillis;
+    private final double rateShare;
+    private final int maxPerCycle;
+
+    private volatile List<String> symbols;
+    private final Map<String, Quote> latest = new ConcurrentHashMap<>();
+    private volatile WatchlistSnapshot snapshot = WatchlistSnapshot.EMPTY;
+    private final Map<Integer, Shard> shards = new LinkedHashMap<>();
+
+    private long cycle = 0;
+
+    // 계정별 수집 상태 (refresh 락 안에서만, 계정 작업은 동시에 돌아도 서로 다른 Shard)
+    private static final class Shard {
+        final KisAccount account;
+        List<String> symbols = List.of();
+        int cursor = 0;
+        volatile String token;
+        int emptyCycles = 0;
+
+        Shard(KisAccount account) {
+            this.account = account;
+        }
+    }
+
+    public WatchlistQuoteService(KisAuthClientApi authClient,
+                                 KisReactiveClientApi reactiveClient,
+                                 KisMultiPriceApi multiPriceApi,
+                                 KisPriceClientApi priceClient,
+                                 KisApiGuard guard,
+                                 KisIoExecutor io,
+                                 KisAccountRegistry accounts,
+                                 KisShardRouter router,
+                                 @Value("${watchlist.symbols:069500,229200}") String symbols,
+                                 @Value("${kis.mode:virtual}") String mode,
+                                 @Value("${watchlist.multi-quote:true}") boolean multiQuote,
+                                 @Value("${watchlist.cycle-ms:1000}") long cycleMillis,
+                                 @Value("${watchlist.rate-share:0.5}") double rateShare,
+                                 @Value("${watchlist.max-per-cycle:20}") int maxPerCycle) {
+        this.authClient = authClient;
+        this.reactiveClient = reactiveClient;
+        this.multiPriceApi = multiPriceApi;
+        this.priceClient = priceClient;
+        this.guard = guard;
+        this.io = io;
+        this.accounts = accounts;
+        this.router = router;
+        this.multiQuote = multiQuote && "real".equalsIgnoreCase(mode);   // 멀티종목 TR 은 실거래 전용
+        this.cycleMillis = cycleMillis;
+        this.rateShare = rateShare;
+        this.maxPerCycle = Math.max(maxPerCycle, 1);
+        for (KisAccount a : accounts.getAccounts()) {
+            shards.put(a.getId(), new Shard(a));
+        }
+        setSymbols(Arrays.asList(symbols.split(",")));
+    }
+
+
+    // ============================================================
+    // 🔵 관심종목
+    // ============================================================
+    public synchronized void setSymbols(Collection<String> list) {
+        LinkedHashSet<String> clean = new LinkedHashSet<>();
+        for (String s : list) {
+            if (s != null && s.trim().length() == 6) clean.add(s.trim());
+        }
+
+        this.symbols = List.copyOf(clean);
+        latest.keySet().retainAll(clean);
+        shards.values().forEach(sh -> sh.cursor = 0);
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    /** 토큰 갱신 후 — 다음 사이클에 새로 받는다 */
+    public synchronized void invalidateToken() {
+        shards.values().forEach(sh -> sh.token = null);
+    }
+
+
+    // ============================================================
+    // 🔵 사이클
+    // ============================================================
+    @Scheduled(cron = "${watchlist.cron:*/1 * 9-15 * * MON-FRI}", zone = "Asia/Seoul")
+    public synchronized void refresh() {
+        List<String> list = symbols;
+        if (list.isEmpty()) return;
+
+        // 계정별 종목 재배정 (계정이 내려가면 그 종목만 다른 계정으로)
+        Map<KisAccount, List<String>> parts = router.partition(list);
+        for (Shard sh : shards.values()) {
+            List<String> part = parts.getOrDefault(sh.account, List.of());
+            if (!part.equals(sh.symbols)) {
+                sh.symbols = part;
+                sh.cursor = 0;
+            }
+        }
+
+        int refreshed;
+        if (parts.size() == 1) {
+            refreshed = refreshShard(shards.get(parts.keySet().iterator().next().getId()));
+        } else {
+            // 계정마다 제한기가 따로라 동시에
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (KisAccount a : parts.keySet()) {
+                Shard sh = shards.get(a.getId());
+                futures.add(io.submit(() -> refreshShard(sh)));
+            }
+            refreshed = 0;
+            for (CompletableFuture<Integer> f : futures) {
+                refreshed += f.join();
+            }
+        }
+
+        publish(list, refreshed);
+    }
+
+    private int refreshShard(Shard sh) {
+        if (sh.symbols.isEmpty()) return 0;
+
+        int refreshed = 0;
+        try {
+            if (sh.token == null) {
+                sh.token = authClient.getAccessToken(sh.account.getAppKey(), sh.account.getAppSecret());
+            }
+
+            refreshed = multiQuote ? refreshMulti(sh) : refreshRoundRobin(sh);
+
+        } catch (Exception e) {
+            if (KisApiGuard.classify(e) == KisApiGuard.Failure.TOKEN) {
+                authClient.invalidateToken(sh.account.getAppKey());
+                sh.token = null;
+            }
+            System.err.println("❌ [Watchlist] 시세 수집 실패 " + sh.account.label() + ": " + e.getMessage());
+        }
+
+        sh.emptyCycles = refreshed > 0 ? 0 : sh.emptyCycles + 1;
+        if (sh.emptyCycles >= DOWN_AFTER_EMPTY_CYCLES) {
+            router.markDown(sh.account, "연속 " + sh.emptyCycles + " 사이클 시세 없음");
+            sh.emptyCycles = 0;
+        }
+        return refreshed;
+    }
+
+    /** 이번 사이클에 보낼 수 있는 요청 수 (전체 계정 합) */
+    public int budget() {
+        int sum = 0;
+        for (KisAccount a : accounts.getAccounts()) {
+            sum += budget(a);
+        }
+        return sum;
+    }
+
+    private int budget(KisAccount a) {
+        double share = a.isPrimary() ? rateShare : 1.0;
+        int n = (int) Math.floor(a.getLimiter().getRatePerSecond() * cycleMillis / 1000.0 * share);
+        return Math.max(1, Math.min(n, maxPerCycle));
+    }
+
+    private int refreshRoundRobin(Shard sh) {
+        List<String> list = sh.symbols;
+        KisAccount a = sh.account;
+        int n = Math.min(budget(a), list.size());
+
+        List<String> batch = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            batch.add(list.get((sh.cursor + i) % list.size()));
+        }
+        sh.cursor = (sh.cursor + n) % list.size();
+
+        String t = sh.token;
+        List<Quote> quotes = io.isVirtual() ? fetchBlocking(a, batch, t) : Flux.fromIterable(batch)
+                .flatMap(symbol -> guard.callAsync(a, "price",
+                                () -> reactiveClient.getUnifiedPrice(t, a.getAppKey(), a.getAppSecret(), symbol))
+                        .filter(out -> !out.isEmpty())
+                        .map(out -> Quote.of(symbol, out, System.currentTimeMillis()))
+                        .onErrorResume(e -> Mono.empty()), n)
+                .collectList()
+                .block(Duration.ofMillis(cycleMillis * 3 + 3000));
+
+        if (quotes == null) return 0;
+        quotes.forEach(q -> latest.put(q.symbol(), q));
+        return quotes.size();
+    }
+
+    // 종목마다 가상 스레드 하나 — 요청 간격은 guard 가 맞춘다
+    private List<Quote> fetchBlocking(KisAccount a, List<String> batch, String t) {
+        List<CompletableFuture<Quote>> futures = new ArrayList<>(batch.size());
+        for (String symbol : batch) {
+            futures.add(guard.submit(a, "price",
+                            () -> priceClient.getUnifiedPrice(t, a.getAppKey(), a.getAppSecret(), symbol, "virtual"))
+                    .thenApply(out -> out.isEmpty() ? null : Quote.of(symbol, out, System.currentTimeMillis()))
+                    .exceptionally(e -> null));
+        }
+
+        List<Quote> quotes = new ArrayList<>(batch.size());
+        long deadline = System.currentTimeMillis() + cycleMillis * 3 + 3000;
+        for (CompletableFuture<Quote> f : futures) {
+            try {
+                Quote q = f.get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (q != null) quotes.add(q);
+            } catch (Exception e) {
+                f.cancel(true);
+            }
+        }
+        return quotes;
+    }
+
+    private int refreshMulti(Shard sh) throws Exception {
+        List<String> list = sh.symbols;
+        KisAccount a = sh.account;
+        int chunks = (list.size() + KisMultiPriceApi.MAX_SYMBOLS - 1) / KisMultiPriceApi.MAX_SYMBOLS;
+        int n = Math.min(budget(a), chunks);
+        int refreshed = 0;
+
+        for (int i = 0; i < n; i++) {
+            int chunk = (sh.cursor + i) % chunks;
+            List<String> part = list.subList(chunk * KisMultiPriceApi.MAX_SYMBOLS,
+                    Math.min((chunk + 1) * KisMultiPriceApi.MAX_SYMBOLS, list.size()));
+
+            List<JSONObject> rows = guard.call(a, "multprice",
+                    () -> multiPriceApi.getUnifiedPrices(sh.token, a.getAppKey(), a.getAppSecret(), part));
+
+            long now = System.currentTimeMillis();
+            for (JSONObject row : rows) {
+                String symbol = row.optString("symbol");
+                if (row.optDouble("price", 0) <= 0) continue;
+                latest.put(symbol, Quote.of(symbol, row, now));
+                refreshed++;
+            }
+        }
+        sh.cursor = (sh.cursor + n) % chunks;
+        return refreshed;
+    }
+
+    private void publish(List<String> list, int refreshed) {
+        Map<String, Quote> quotes = new LinkedHashMap<>();
+        for (String s : list) {
+            Quote q = latest.get(s);
+            if (q != null) quotes.put(s, q);
+        }
+        snapshot = new WatchlistSnapshot(++cycle, System.currentTimeMillis(), refreshed, quotes);
+    }
+
+
+    // ============================================================
+    // 🔵 조회
+    // ============================================================
+    public WatchlistSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /** maxAgeMillis 보다 오래된 시세는 null */
+    public Quote freshQuote(String symbol, long maxAgeMillis) {
+        Quote q = latest.get(symbol);
+        if (q == null || q.ageMillis(System.currentTimeMillis()) > maxAgeMillis) return null;
+        return q;
+    }
+
+    public Map<String, Object> getStatus() {
+        WatchlistSnapshot s = snapshot;
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("mode", multiQuote ? "multi" : "round-robin");
+        map.put("io", io.isVirtual() ? "virtual-threads" : "webclient");
+        map.put("symbols", symbols.size());
+        map.put("accounts", accounts.size());
+        map.put("cycle", s.cycle());
+        map.put("budget", budget());
+        map.put("refreshed", s.refreshed());
+        map.put("quoted", s.quotes().size());
+        map.put("maxAgeMs", s.maxAgeMillis());
+        map.put("quotes", s.quotes().values());
+        return map;
+    }
+}
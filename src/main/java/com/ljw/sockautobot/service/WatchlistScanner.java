@@ -0,0 +1,236 @@
+package com.ljw.sockautobot.service;
+
+import com.ljw.sockautobot.api.KisMarketApi;
+import com.ljw.sockautobot.cluster.ClusterNode;
+import com.ljw.sockautobot.market.Quote;
+import com.ljw.sockautobot.market.SymbolSlab;
+import com.ljw.sockautobot.market.WatchlistSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 종목 스캐너 — 유니버스 전체를 점수화해서 상위 N개를 매매 슬롯에 배정
+ *
+ * - 시세는 WatchlistQuoteService 사이클에서만 받는다 (스캐너 자체는 KIS 를 호출하지 않음 → 공유 예산 안)
+ * - 종목 상태는 SymbolSlab (종목 id 로 인덱싱하는 원시 배열) 하나에 — 유니버스가 커도 힙 사용량 고정
+ * - 새 시세 반영 + 점수 계산은 id 구간을 워커 수만큼 나눠 병렬
+ * - 점수 = 거래량 스파이크 + 체결강도 + 1호가 잔량 불균형 + 단기 추세 (TradeCalculatorHybrid 와 같은 신호)
+ * - 슬롯 0 = AutoTradeService 매매 종목. 보유수량 0 + 미체결 없음 + 점수 차이/최소 유지시간 충족 시에만 교체
+ */
+@Component
+@Lazy(false)
+public class WatchlistScanner {
+
+    private static final int MIN_QUOTES = SymbolSlab.WINDOW;   // 거래량 스파이크 / 장기 이평 계산에 필요한 최소 시세 수
+
+    private final WatchlistQuoteService watchlist;
+    private final AutoTradeService autoTradeService;
+    private final ClusterNode cluster;
+
+    private final boolean enabled;
+    private final List<String> universe;
+    private final int slotCount;
+    private final boolean autoAssign;
+    private final double switchMargin;
+    private final long minHoldMillis;
+    private final ExecutorService workers;
+    private final int workerCount;
+
+    private final SymbolSlab slab;
+    private volatile List<Candidate> ranking = List.of();
+    private volatile List<String> slots = List.of();
+    private long lastSwitch = 0;
+
+    public WatchlistScanner(WatchlistQuoteService watchlist,
+                            AutoTradeService autoTradeService,
+                            ClusterNode cluster,
+                            @Value("${scanner.enabled:false}") boolean enabled,
+                            @Value("${scanner.universe:}") String universe,
+                            @Value("${scanner.universe-file:}") String universeFile,
+                            @Value("${scanner.slots:3}") int slotCount,
+                            @Value("${scanner.auto-assign:true}") boolean autoAssign,
+                            @Value("${scanner.switch-margin:0.5}") double switchMargin,
+                            @Value("${scanner.min-hold-ms:300000}") long minHoldMillis,
+                            @Value("${scanner.workers:0}") int workers) {
+        this.watchlist = watchlist;
+        this.autoTradeService = autoTradeService;
+        this.cluster = cluster;
+        this.enabled = enabled;
+        this.universe = loadUniverse(universe, universeFile);
+        this.slotCount = Math.max(slotCount, 1);
+        this.autoAssign = autoAssign;
+        this.switchMargin = switchMargin;
+        this.minHoldMillis = minHoldMillis;
+
+        this.slab = new SymbolSlab(this.universe);
+
+        int n = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.workerCount = n;
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "scanner-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** 콤마 목록 + 파일(한 줄에 종목코드 하나, # 주석) */
+    private static List<String> loadUniverse(String inline, String file) {
+        LinkedHashSet<String> set = new LinkedHashSet<>();
+        for (String s : inline.split(",")) {
+            if (s.trim().length() == 6) set.add(s.trim());
+        }
+
+        if (!file.isBlank()) {
+            try {
+                for (String line : Files.readAllLines(Path.of(file))) {
+                    String s = line.replaceAll("#.*", "").trim();
+                    if (s.length() == 6) set.add(s);
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️ [Scanner] 유니버스 파일 읽기 실패: " + file + " — " + e.getMessage());
+            }
+        }
+        return List.copyOf(set);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled || universe.isEmpty()) return;
+
+        // 유니버스 + KOSPI 대용 종목을 관심종목 사이클에 올린다
+        List<String> list = new ArrayList<>(universe);
+        list.add(KisMarketApi.KOSPI_PROXY);
+        watchlist.setSymbols(list);
+
+        System.out.println("🔭 [Scanner] 유니버스 " + universe.size() + "종목 스캔 시작 (상태 "
+                + slab.footprintBytes() / 1024 + "KB)");
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+
+    // ============================================================
+    // 🔵 스캔 (새 시세 반영 → 병렬 점수화 → 슬롯 배정)
+    // ============================================================
+    @Scheduled(fixedDelayString = "${scanner.interval-ms:5000}")
+    public synchronized void scan() {
+        if (!enabled || universe.isEmpty()) return;
+
+        WatchlistSnapshot snap = watchlist.getSnapshot();
+        if (snap.quotes().isEmpty()) return;
+
+        // id 구간별로 워커 하나 — 한 종목은 한 워커만 만진다
+        int n = slab.size();
+        int chunk = (n + workerCount - 1) / workerCount;
+
+        List<CompletableFuture<List<Candidate>>> futures = new ArrayList<>(workerCount);
+        for (int from = 0; from < n; from += chunk) {
+            int start = from;
+            int end = Math.min(from + chunk, n);
+            futures.add(CompletableFuture.supplyAsync(() -> scoreRange(snap, start, end), workers));
+        }
+
+        List<Candidate> scored = new ArrayList<>();
+        for (CompletableFuture<List<Candidate>> f : futures) {
+            scored.addAll(f.join());
+        }
+
+        scored.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        ranking = List.copyOf(scored);
+
+        List<String> top = new ArrayList<>(slotCount);
+        for (int i = 0; i < Math.min(slotCount, scored.size()); i++) {
+            top.add(scored.get(i).symbol());
+        }
+        slots = List.copyOf(top);
+
+        // 클러스터 모드에서는 매매 종목을 리더 배정표가 정한다
+        if (autoAssign && !cluster.isEnabled() && !scored.isEmpty()) assignSlot0(scored);
+    }
+
+    private List<Candidate> scoreRange(WatchlistSnapshot snap, int from, int to) {
+        List<Candidate> out = new ArrayList<>();
+
+        for (int id = from; id < to; id++) {
+            Quote q = snap.quote(slab.symbol(id));
+            if (q != null) slab.update(id, q);
+            if (slab.count(id) < MIN_QUOTES) continue;
+
+            out.add(score(id));
+        }
+        return out;
+    }
+
+    private Candidate score(int id) {
+        double imbalance = slab.bookImbalance(id);
+        boolean spike = slab.isVolumeSpike(id);
+
+        double score = 0;
+        if (spike) score += 1.0;
+        score += Math.max(-1, Math.min(1, (slab.tickStrength(id) - 100) / 50.0)) * 0.5;
+        score += imbalance;
+        if (slab.shortMA(id) > slab.longMA(id)) score += 0.5;
+        if (slab.slope(id) > 0) score += 0.25;
+
+        return new Candidate(slab.symbol(id), score, slab.lastPrice(id), slab.tickStrength(id), imbalance, spike);
+    }
+
+    private void assignSlot0(List<Candidate> scored) {
+        Candidate best = scored.get(0);
+        String current = autoTradeService.getSymbol();
+
+        if (best.symbol().equals(current)) return;
+        if (autoTradeService.getQty() != 0 || autoTradeService.hasPendingOrder()) return;   // 포지션 정리 전에는 교체 안 함
+        if (System.currentTimeMillis() - lastSwitch < minHoldMillis) return;
+
+        double currentScore = scored.stream()
+                .filter(c -> c.symbol().equals(current))
+                .mapToDouble(Candidate::score)
+                .findFirst().orElse(Double.NEGATIVE_INFINITY);
+
+        if (best.score() < currentScore + switchMargin) return;
+
+        System.out.printf("🔭 [Scanner] 매매 종목 교체 %s → %s (점수 %.2f)%n", current, best.symbol(), best.score());
+        lastSwitch = System.currentTimeMillis();
+        autoTradeService.updateSymbol(best.symbol());
+    }
+
+
+    // ============================================================
+    // 🔵 조회
+    // ============================================================
+    public List<String> getSlots() {
+        return slots;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("universe", universe.size());
+        map.put("stateBytes", slab.footprintBytes());
+        map.put("slots", slots);
+        map.put("ranking", ranking.subList(0, Math.min(20, ranking.size())));
+        return map;
+    }
+
+
+    public record Candidate(String symbol, double score, double price, double tickStrength,
+                            double bookImbalance, boolean volumeSpike) {}
+}
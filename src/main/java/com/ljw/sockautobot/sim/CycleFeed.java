@@ -0,0 +1,52 @@
+package com.ljw.sockautobot.sim;
+
+import com.ljw.sockautobot.market.KrxTickSize;
+
+/**
+ * 상승/하락을 규칙적으로 반복하는 계단형 시세 — 매매 루프가 매수와 매도를 확실히 타게 (soak 테스트용)
+ *
+ * 한 주기 = 상승 구간(보합 → 1호가 상승 반복) + 하락 구간(보합 → 1호가 하락 반복)
+ * - 보합 다음 상승 틱은 기울기/가속도/순간 모멘텀이 모두 양수 → 상승 구간마다 매수 조건 충족
+ * - 구간 길이만큼 호가가 움직이므로 익절(+0.5%) / 손절(-0.3%) 선을 반드시 지난다
+ * - 거래량은 일정하게 누적 (누적 거래량이 늘기만 하면 거래량 스파이크 판정 통과)
+ */
+public class CycleFeed implements SimFeed {
+
+    private final double prevClose;
+    private final int steps;
+
+    private double price;
+    private long cumVolume = 0;
+    private long tick = 0;
+
+    /**
+     * @param steps 구간당 호가 이동 횟수 (한 주기 = 4 * steps 틱)
+     */
+    public CycleFeed(double startPrice, int steps) {
+        this.prevClose = KrxTickSize.roundDown(startPrice);
+        this.steps = Math.max(steps, 1);
+        this.price = prevClose;
+    }
+
+    @Override
+    public void advance() {
+        long phase = tick++ % (4L * steps);
+        cumVolume += 1_000;
+
+        if (phase % 2 == 0) return;   // 보합
+
+        int p = (int) price;
+        price = (phase < 2L * steps)
+                ? p + KrxTickSize.tickSize(p)
+                : Math.max(p - KrxTickSize.tickSize(p - 1), 1);
+    }
+
+    @Override
+    public double price() { return price; }
+
+    @Override
+    public long cumulativeVolume() { return cumVolume; }
+
+    @Override
+    public double prevClose() { return prevClose; }
+}
@@ -0,0 +1,544 @@
+package com.ljw.sockautobot.sim;
+
+import com.ljw.sockautobot.market.KrxTickSize;
+import com.ljw.sockautobot.market.OrderBook;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 로컬 KIS 모의 서버 (프로세스 내 HTTP)
+ *
+ * 토큰 / 현재가 / 일별시세 / 체결 / 호가 / 현금주문 / 정정취소 / 잔고조회 를 흉내낸다.
+ * 시세는 SimFeed(스크립트 또는 녹화 재생)에서 가져오고, 현재가 조회 1회 = 1틱 진행이다.
+ * 같은 요청 순서면 같은 응답이 나오도록 모든 난수는 시드 고정이다. 수수료/세금은 없다.
+ */
+public class KisSimulator {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final String QUOTE = "/uapi/domestic-stock/v1/quotations/";
+    private static final String TRADING = "/uapi/domestic-stock/v1/trading/";
+
+    private final Function<String, SimFeed> feedFactory;
+    private final long latencyMillis;
+    private final int jitterMillis;
+    private final int maxRequestsPerSecond;
+    private final Random random;           // 시세/호가/체결 — synchronized (this) 안에서만
+    private final Random latencyRandom;    // 지연 지터 — 잠금 밖, 요청 스레드끼리 순서가 섞여도 위 시퀀스에 영향 없음
+
+    private final Map<String, SimSymbol> symbols = new HashMap<>();
+    private final Map<String, SimOrder> openOrders = new LinkedHashMap<>();
+    private final Map<String, Holding> holdings = new LinkedHashMap<>();
+    private double cash;
+    private long orderSeq = 0;
+
+    // 초당 요청 수 제한 재현 (EGW00201)
+    private long rateWindowStart = 0;
+    private int rateWindowCount = 0;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param maxRequestsPerSecond 0 이면 제한 없음
+     */
+    public KisSimulator(Function<String, SimFeed> feedFactory, long latencyMillis, int jitterMillis,
+                        int maxRequestsPerSecond, double initialCash, long seed) {
+        this.feedFactory = feedFactory;
+        this.latencyMillis = Math.max(latencyMillis, 0);
+        this.jitterMillis = Math.max(jitterMillis, 0);
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        this.cash = initialCash;
+        this.random = new Random(seed);
+        this.latencyRandom = new Random(~seed);
+    }
+
+
+    // ============================================================
+    // 🔵 서버 시작/종료
+    // ============================================================
+
+    /** @param port 0 이면 빈 포트 자동 선택 — 실제 포트 반환 */
+    public int start(int port) throws IOException {
+        // keep-alive 연결에서 헤더/본문이 따로 나가면 Nagle + delayed ACK 로 응답마다 ~40ms 지연
+        // (HttpServer 가 처음 만들어질 때 한 번 읽는 설정 — 그 전에 지정)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newFixedThreadPool(16, r -> {
+            Thread t = new Thread(r, "kis-sim");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() { return requestCount.get(); }
+
+    public long getThrottledCount() { return throttledCount.get(); }
+
+
+    // ============================================================
+    // 🔵 라우팅
+    // ============================================================
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            sleepLatency();
+            requestCount.incrementAndGet();
+
+            String path = ex.getRequestURI().getPath();
+            Map<String, String> q = query(ex.getRequestURI().getRawQuery());
+            String trId = ex.getRequestHeaders().getFirst("tr_id");
+
+            JSONObject body = null;
+            if ("POST".equalsIgnoreCase(ex.getRequestMethod())) {
+                String raw = new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                body = raw.isBlank() ? new JSONObject() : new JSONObject(raw);
+            }
+
+            if (!path.startsWith("/oauth2") && !allowRequest()) {
+                throttledCount.incrementAndGet();
+                send(ex, 500, error("EGW00201", "초당 거래건수를 초과하였습니다."));
+                return;
+            }
+
+            JSONObject res;
+            synchronized (this) {
+                res = switch (path) {
+                    case "/oauth2/tokenP" -> token();
+                    case QUOTE + "inquire-price" -> inquirePrice(q.get("FID_INPUT_ISCD"));
+                    case QUOTE + "inquire-daily-price" -> inquireDailyPrice(q.get("FID_INPUT_ISCD"));
+                    case QUOTE + "inquire-ccnl" -> inquireCcnl(q.get("FID_INPUT_ISCD"));
+                    case QUOTE + "inquire-asking-price-exp-ccn" -> askingPrice(q.get("FID_INPUT_ISCD"));
+                    case TRADING + "order-cash" -> orderCash(body, trId);
+                    case TRADING + "order-rvsecncl" -> reviseOrCancel(body);
+                    case TRADING + "inquire-balance" -> balance();
+                    default -> null;
+                };
+            }
+
+            if (res == null) send(ex, 404, error("SIM404", "시뮬레이터 미지원 경로: " + path));
+            else send(ex, 200, res);
+
+        } catch (Exception e) {
+            send(ex, 500, error("SIM500", String.valueOf(e.getMessage())));
+        } finally {
+            ex.close();
+        }
+    }
+
+    private synchronized boolean allowRequest() {
+        if (maxRequestsPerSecond <= 0) return true;
+
+        long now = System.currentTimeMillis();
+        if (now - rateWindowStart >= 1000) {
+            rateWindowStart = now;
+            rateWindowCount = 0;
+        }
+        return ++rateWindowCount <= maxRequestsPerSecond;
+    }
+
+    private void sleepLatency() {
+        long ms = latencyMillis + (jitterMillis > 0 ? latencyRandom.nextInt(jitterMillis + 1) : 0);
+        if (ms <= 0) return;
+        try {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 시세
+    // ============================================================
+    private JSONObject token() {
+        String expires = LocalDateTime.now().plusHours(23)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+
+        JSONObject res = new JSONObject();
+        res.put("access_token", "sim-token-" + System.nanoTime());
+        res.put("token_type", "Bearer");
+        res.put("expires_in", 86400);
+        res.put("access_token_token_expired", expires);
+        return res;
+    }
+
+    private JSONObject inquirePrice(String code) {
+        SimSymbol s = symbol(code);
+        s.advance();
+        matchOrders(code);
+
+        JSONObject out = new JSONObject();
+        out.put("stck_prpr", str(s.price()));
+        out.put("stck_oprc", str(s.open));
+        out.put("stck_hgpr", str(s.high));
+        out.put("stck_lwpr", str(s.low));
+        out.put("stck_sdpr", str(s.feed.prevClose()));
+        out.put("prdy_vrss", str(s.price() - s.feed.prevClose()));
+        out.put("prdy_ctrt", String.format("%.2f", (s.price() / s.feed.prevClose() - 1) * 100));
+        out.put("acml_vol", String.valueOf(s.feed.cumulativeVolume()));
+        out.put("prdy_vol", "1000000");
+        return ok(out);
+    }
+
+    private JSONObject inquireDailyPrice(String code) {
+        SimSymbol s = symbol(code);
+        LocalDate today = LocalDate.now(KST);
+
+        JSONArray rows = new JSONArray();
+        rows.put(new JSONObject()
+                .put("stck_bsop_date", today.format(DateTimeFormatter.BASIC_ISO_DATE))
+                .put("stck_clpr", str(s.price())));
+        rows.put(new JSONObject()
+                .put("stck_bsop_date", today.minusDays(1).format(DateTimeFormatter.BASIC_ISO_DATE))
+                .put("stck_clpr", str(s.feed.prevClose())));
+        return ok(rows);
+    }
+
+    private JSONObject inquireCcnl(String code) {
+        SimSymbol s = symbol(code);
+
+        JSONObject row = new JSONObject();
+        row.put("stck_cntg_hour", LocalTime.now(KST).format(DateTimeFormatter.ofPattern("HHmmss")));
+        row.put("stck_prpr", str(s.price()));
+        row.put("prdy_vrss", str(s.price() - s.feed.prevClose()));
+        row.put("cntg_vol", String.valueOf(s.lastVolume));
+        row.put("tday_rltv", String.format("%.2f", s.tickStrength()));
+        return ok(new JSONArray().put(row));
+    }
+
+    private JSONObject askingPrice(String code) {
+        SimSymbol s = symbol(code);
+
+        JSONObject out1 = new JSONObject();
+        int ask = s.ask1();
+        int bid = s.bid1();
+        long totalAsk = 0;
+        long totalBid = 0;
+        for (int i = 1; i <= OrderBook.LEVELS; i++) {
+            long aq = 100 + random.nextInt(5_000);
+            long bq = 100 + random.nextInt(5_000);
+            out1.put("askp" + i, String.valueOf(ask));
+            out1.put("bidp" + i, String.valueOf(bid));
+            out1.put("askp_rsqn" + i, String.valueOf(aq));
+            out1.put("bidp_rsqn" + i, String.valueOf(bq));
+            totalAsk += aq;
+            totalBid += bq;
+            ask += KrxTickSize.tickSize(ask);
+            bid = Math.max(bid - KrxTickSize.tickSize(bid - 1), 0);
+        }
+        out1.put("total_askp_rsqn", String.valueOf(totalAsk));
+        out1.put("total_bidp_rsqn", String.valueOf(totalBid));
+
+        JSONObject res = ok(null);
+        res.put("output1", out1);
+        res.put("output2", new JSONObject().put("stck_prpr", str(s.price())));
+        return res;
+    }
+
+
+    // ============================================================
+    // 🔵 주문
+    // ============================================================
+    private JSONObject orderCash(JSONObject body, String trId) {
+        if (body == null) return error("SIM400", "요청 본문 없음");
+
+        String code = body.optString("PDNO");
+        int qty = body.optInt("ORD_QTY", 0);
+        boolean market = "01".equals(body.optString("ORD_DVSN"));
+        int price = market ? 0 : body.optInt("ORD_UNPR", 0);
+        boolean buy = trId != null && (trId.endsWith("0012U") || trId.endsWith("0802U"));
+
+        if (qty <= 0) return error("APBK0917", "주문수량을 확인하세요.");
+        if (!market && !KrxTickSize.isValid(price)) return error("APBK0551", "호가단위가 맞지 않습니다.");
+
+        SimSymbol s = symbol(code);
+        if (buy) {
+            double need = qty * (double) (market ? s.ask1() : price);
+            if (need > cash) return error("APBK0952", "주문가능금액을 초과 했습니다");
+        } else {
+            int sellable = holding(code).qty - pendingSellQty(code);
+            if (qty > sellable) return error("APBK0400", "주문가능수량을 초과 했습니다");
+        }
+
+        SimOrder o = new SimOrder(nextOrderNo(), code, buy, qty, price);
+        openOrders.put(o.orderNo, o);
+        matchOrders(code);
+
+        return ok(orderOutput(o.orderNo));
+    }
+
+    private JSONObject reviseOrCancel(JSONObject body) {
+        if (body == null) return error("SIM400", "요청 본문 없음");
+
+        SimOrder o = openOrders.remove(body.optString("ORGN_ODNO"));
+        if (o == null) return error("APBK0506", "정정/취소할 주문이 없습니다.");
+
+        if ("02".equals(body.optString("RVSE_CNCL_DVSN_CD"))) {
+            return ok(orderOutput(o.orderNo));
+        }
+
+        int price = body.optInt("ORD_UNPR", o.price);
+        if (!KrxTickSize.isValid(price)) {
+            openOrders.put(o.orderNo, o);
+            return error("APBK0551", "호가단위가 맞지 않습니다.");
+        }
+
+        int qty = "Y".equals(body.optString("QTY_ALL_ORD_YN")) ? o.qty : Math.min(body.optInt("ORD_QTY", o.qty), o.qty);
+        SimOrder revised = new SimOrder(nextOrderNo(), o.code, o.buy, qty, price);
+        openOrders.put(revised.orderNo, revised);
+        matchOrders(o.code);
+
+        return ok(orderOutput(revised.orderNo));
+    }
+
+    private void matchOrders(String code) {
+        SimSymbol s = symbols.get(code);
+        if (s == null) return;
+
+        Iterator<SimOrder> it = openOrders.values().iterator();
+        while (it.hasNext()) {
+            SimOrder o = it.next();
+            if (!o.code.equals(code)) continue;
+
+            int fill = o.buy ? s.ask1() : s.bid1();
+            boolean crossed = o.price == 0 || (o.buy ? o.price >= fill : o.price <= fill);
+            if (!crossed) continue;
+
+            Holding h = holding(code);
+            if (o.buy) {
+                if (o.qty * (double) fill > cash) continue;
+                h.avg = (h.qty * h.avg + o.qty * (double) fill) / (h.qty + o.qty);
+                h.qty += o.qty;
+                cash -= o.qty * (double) fill;
+            } else {
+                int q = Math.min(o.qty, h.qty);
+                h.qty -= q;
+                if (h.qty == 0) h.avg = 0;
+                cash += q * (double) fill;
+            }
+            it.remove();
+        }
+    }
+
+    private int pendingSellQty(String code) {
+        int sum = 0;
+        for (SimOrder o : openOrders.values()) {
+            if (!o.buy && o.code.equals(code)) sum += o.qty;
+        }
+        return sum;
+    }
+
+    private JSONObject orderOutput(String orderNo) {
+        JSONObject out = new JSONObject();
+        out.put("KRX_FWDG_ORD_ORGNO", "00950");
+        out.put("ODNO", orderNo);
+        out.put("ORD_TMD", LocalTime.now(KST).format(DateTimeFormatter.ofPattern("HHmmss")));
+        return out;
+    }
+
+    private String nextOrderNo() {
+        return String.format("%010d", ++orderSeq);
+    }
+
+
+    // ============================================================
+    // 🔵 잔고
+    // ============================================================
+    private JSONObject balance() {
+        JSONArray out1 = new JSONArray();
+        double stockValue = 0;
+
+        for (Map.Entry<String, Holding> e : holdings.entrySet()) {
+            Holding h = e.getValue();
+            if (h.qty <= 0) continue;
+
+            double price = symbol(e.getKey()).price();
+            double value = h.qty * price;
+            stockValue += value;
+
+            JSONObject row = new JSONObject();
+            row.put("pdno", e.getKey());
+            row.put("prdt_name", e.getKey());
+            row.put("hldg_qty", String.valueOf(h.qty));
+            row.put("pchs_avg_pric", String.format("%.4f", h.avg));
+            row.put("prpr", str(price));
+            row.put("evlu_amt", str(value));
+            row.put("evlu_pfls_amt", str(value - h.qty * h.avg));
+            out1.put(row);
+        }
+
+        JSONObject sum = new JSONObject();
+        sum.put("dnca_tot_amt", str(cash));
+        sum.put("scts_evlu_amt", str(stockValue));
+        sum.put("tot_evlu_amt", str(cash + stockValue));
+        sum.put("nass_amt", str(cash + stockValue));
+
+        JSONObject res = ok(null);
+        res.put("output1", out1);
+        res.put("output2", new JSONArray().put(sum));
+        return res;
+    }
+
+
+    // ============================================================
+    // 🔵 공통
+    // ============================================================
+    private SimSymbol symbol(String code) {
+        if (code == null || code.isBlank()) throw new IllegalArgumentException("FID_INPUT_ISCD 없음");
+        return symbols.computeIfAbsent(code, c -> new SimSymbol(feedFactory.apply(c)));
+    }
+
+    private Holding holding(String code) {
+        return holdings.computeIfAbsent(code, c -> new Holding());
+    }
+
+    private static JSONObject ok(Object output) {
+        JSONObject res = new JSONObject();
+        res.put("rt_cd", "0");
+        res.put("msg_cd", "MCA00000");
+        res.put("msg1", "정상처리 되었습니다.");
+        if (output != null) res.put("output", output);
+        return res;
+    }
+
+    private static JSONObject error(String msgCd, String msg) {
+        JSONObject res = new JSONObject();
+        res.put("rt_cd", "1");
+        res.put("msg_cd", msgCd);
+        res.put("msg1", msg);
+        return res;
+    }
+
+    private static String str(double v) {
+        return String.valueOf(Math.round(v));
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> map = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return map;
+        for (String pair : raw.split("&")) {
+            int i = pair.indexOf('=');
+            if (i <= 0) continue;
+            map.put(URLDecoder.decode(pair.substring(0, i), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(i + 1), StandardCharsets.UTF_8));
+        }
+        return map;
+    }
+
+    private static void send(HttpExchange ex, int status, JSONObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+
+    private static final class SimSymbol {
+        final SimFeed feed;
+        double open = -1;
+        double high;
+        double low;
+        long lastVolume = 0;
+        int upTicks = 0;
+        int downTicks = 0;
+
+        SimSymbol(SimFeed feed) {
+            this.feed = feed;
+        }
+
+        void advance() {
+            double prev = feed.price();
+            long prevVol = feed.cumulativeVolume();
+            feed.advance();
+
+            double p = feed.price();
+            if (open < 0) {
+                open = high = low = p;
+            }
+            high = Math.max(high, p);
+            low = Math.min(low, p);
+            lastVolume = Math.max(feed.cumulativeVolume() - prevVol, 0);
+
+            if (p > prev) upTicks++;
+            else if (p < prev) downTicks++;
+        }
+
+        double price() { return feed.price(); }
+
+        int bid1() { return KrxTickSize.roundDown(price()); }
+
+        int ask1() {
+            int bid = bid1();
+            return bid + KrxTickSize.tickSize(bid);
+        }
+
+        /** 상승틱/하락틱 비율로 만든 체결강도 */
+        double tickStrength() {
+            return 100.0 * (upTicks + 1) / (downTicks + 1);
+        }
+    }
+
+    private static final class SimOrder {
+        final String orderNo;
+        final String code;
+        final boolean buy;
+        final int qty;
+        final int price; // 0 = 시장가
+
+        SimOrder(String orderNo, String code, boolean buy, int qty, int price) {
+            this.orderNo = orderNo;
+            this.code = code;
+            this.buy = buy;
+            this.qty = qty;
+            this.price = price;
+        }
+    }
+
+    private static final class Holding {
+        int qty = 0;
+        double avg = 0;
+    }
+}
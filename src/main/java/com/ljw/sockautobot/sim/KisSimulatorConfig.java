@@ -0,0 +1,18 @@
+package com.ljw.sockautobot.sim;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * kis.simulator.enabled=true 일 때만 로컬 KIS 시뮬레이터 기동 (sim 프로필 참고)
+ */
+@Configuration
+@ConditionalOnProperty(name = "kis.simulator.enabled", havingValue = "true")
+public class KisSimulatorConfig {
+
+    @Bean
+    public static KisSimulatorLauncher kisSimulatorLauncher() {
+        return new KisSimulatorLauncher();
+    }
+}
@@ -0,0 +1,80 @@
+package com.ljw.sockautobot.sim;
+
+import com.ljw.sockautobot.store.TickSeries;
+import com.ljw.sockautobot.store.TickStore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+
+/**
+ * 시뮬레이터를 다른 빈보다 먼저 띄운다
+ * (KIS 클라이언트를 쓰는 빈이 생성되기 전에 포트가 열려 있어야 함)
+ */
+public class KisSimulatorLauncher implements BeanFactoryPostProcessor, EnvironmentAware, DisposableBean {
+
+    private Environment env;
+    private KisSimulator simulator;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.env = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        // 빌드 시 AOT 처리(processAot / processTestAot)도 컨텍스트를 refresh 한다 → 포트는 열지 않음
+        if (Boolean.getBoolean("spring.aot.processing")) return;
+
+        int port = env.getProperty("kis.simulator.port", Integer.class, 18080);
+        long latency = env.getProperty("kis.simulator.latency-ms", Long.class, 20L);
+        int jitter = env.getProperty("kis.simulator.jitter-ms", Integer.class, 0);
+        int maxRps = env.getProperty("kis.simulator.max-requests-per-second", Integer.class, 0);
+        double cash = env.getProperty("kis.simulator.initial-cash", Double.class, 10_000_000d);
+        long seed = env.getProperty("kis.simulator.seed", Long.class, 42L);
+
+        simulator = new KisSimulator(feedFactory(seed), latency, jitter, maxRps, cash, seed);
+        try {
+            int actual = simulator.start(port);
+            System.out.println("🧪 KIS 시뮬레이터 시작 — http://localhost:" + actual);
+        } catch (IOException e) {
+            throw new UncheckedIOException("KIS 시뮬레이터 시작 실패", e);
+        }
+
+        beanFactory.registerSingleton("kisSimulator", simulator);
+    }
+
+    // 녹화 데이터가 있으면 재생, 없으면 feed 설정대로 (random = 시드 고정 랜덤워크, cycle = 규칙적 상승/하락)
+    private Function<String, SimFeed> feedFactory(long seed) {
+        double startPrice = env.getProperty("kis.simulator.start-price", Double.class, 100_000d);
+        double volatility = env.getProperty("kis.simulator.volatility", Double.class, 0.0005);
+        String feed = env.getProperty("kis.simulator.feed", "random");
+        int cycleSteps = env.getProperty("kis.simulator.cycle-steps", Integer.class, 10);
+        String replayDir = env.getProperty("kis.simulator.replay-dir", "");
+        String replayDay = env.getProperty("kis.simulator.replay-day", "");
+
+        TickStore replay = replayDir.isBlank() || replayDay.isBlank() ? null : new TickStore(replayDir, 1024);
+        LocalDate day = replay == null ? null : LocalDate.parse(replayDay, DateTimeFormatter.BASIC_ISO_DATE);
+
+        return code -> {
+            if (replay != null) {
+                TickSeries series = replay.day(code, day);
+                if (!series.isEmpty()) return new ReplayFeed(series);
+            }
+            if ("cycle".equals(feed)) return new CycleFeed(startPrice, cycleSteps);
+            return new RandomWalkFeed(seed ^ code.hashCode(), startPrice, volatility);
+        };
+    }
+
+    @Override
+    public void destroy() {
+        if (simulator != null) simulator.stop();
+    }
+}
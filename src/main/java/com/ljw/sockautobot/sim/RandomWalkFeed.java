@@ -0,0 +1,44 @@
+package com.ljw.sockautobot.sim;
+
+import com.ljw.sockautobot.market.KrxTickSize;
+
+import java.util.Random;
+
+/**
+ * 시드 고정 랜덤워크 — 같은 시드면 같은 시세 경로
+ */
+public class RandomWalkFeed implements SimFeed {
+
+    private final Random random;
+    private final double volatility;
+    private final double prevClose;
+
+    private double price;
+    private long cumVolume = 0;
+
+    /**
+     * @param volatility 틱당 수익률 표준편차 (예: 0.0005 = 5bp)
+     */
+    public RandomWalkFeed(long seed, double startPrice, double volatility) {
+        this.random = new Random(seed);
+        this.volatility = volatility;
+        this.prevClose = KrxTickSize.roundDown(startPrice);
+        this.price = prevClose;
+    }
+
+    @Override
+    public void advance() {
+        double next = price * (1 + random.nextGaussian() * volatility);
+        price = Math.max(KrxTickSize.roundDown(next), 1);
+        cumVolume += random.nextInt(2_000);
+    }
+
+    @Override
+    public double price() { return price; }
+
+    @Override
+    public long cumulativeVolume() { return cumVolume; }
+
+    @Override
+    public double prevClose() { return prevClose; }
+}
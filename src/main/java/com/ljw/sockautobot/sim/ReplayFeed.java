@@ -0,0 +1,33 @@
+package com.ljw.sockautobot.sim;
+
+import com.ljw.sockautobot.store.TickSeries;
+
+/**
+ * TickStore 에 녹화된 하루치 틱 재생
+ */
+public class ReplayFeed implements SimFeed {
+
+    private final TickSeries series;
+    private int cursor = 0;
+
+    public ReplayFeed(TickSeries series) {
+        if (series.isEmpty()) throw new IllegalArgumentException("빈 시계열은 재생할 수 없음");
+        this.series = series;
+    }
+
+    @Override
+    public void advance() {
+        if (cursor < series.size() - 1) cursor++;
+    }
+
+    @Override
+    public double price() { return series.price(cursor); }
+
+    @Override
+    public long cumulativeVolume() { return series.volume(cursor); }
+
+    @Override
+    public double prevClose() { return series.price(0); }
+
+    public boolean isFinished() { return cursor == series.size() - 1; }
+}
@@ -0,0 +1,17 @@
+package com.ljw.sockautobot.sim;
+
+/**
+ * 시뮬레이터 종목 시세 원천 (스크립트 / 녹화 재생)
+ */
+public interface SimFeed {
+
+    /** 다음 틱으로 이동 — 데이터가 끝나면 마지막 값을 유지 */
+    void advance();
+
+    double price();
+
+    /** 당일 누적 거래량 */
+    long cumulativeVolume();
+
+    double prevClose();
+}
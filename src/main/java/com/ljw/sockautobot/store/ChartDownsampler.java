@@ -0,0 +1,100 @@
+package com.ljw.sockautobot.store;
+
+/**
+ * 차트용 다운샘플링 (화면 픽셀 폭에 맞춰 점 개수 축소)
+ */
+public final class ChartDownsampler {
+
+    private ChartDownsampler() {}
+
+    /**
+     * 구간별 최저/최고점 유지 — 급등락 스파이크가 사라지지 않는다
+     * 결과는 최대 buckets * 2 + 1 개
+     */
+    public static TickSeries minMax(TickSeries src, int buckets) {
+        int n = src.size();
+        if (buckets <= 0 || n <= buckets * 2) return src;
+
+        TickSeries out = new TickSeries(buckets * 2 + 1);
+
+        long t0 = src.time(0);
+        long span = Math.max(src.time(n - 1) - t0 + 1, 1);
+
+        int i = 0;
+        int lastAdded = -1;
+        for (int b = 0; b < buckets && i < n; b++) {
+            long end = t0 + span * (b + 1) / buckets;
+
+            int minIdx = -1;
+            int maxIdx = -1;
+            while (i < n && (src.time(i) < end || b == buckets - 1)) {
+                if (minIdx < 0 || src.price(i) < src.price(minIdx)) minIdx = i;
+                if (maxIdx < 0 || src.price(i) > src.price(maxIdx)) maxIdx = i;
+                i++;
+            }
+            if (minIdx < 0) continue;
+
+            int first = Math.min(minIdx, maxIdx);
+            int second = Math.max(minIdx, maxIdx);
+            out.add(src.time(first), src.price(first), src.volume(first));
+            if (second != first) out.add(src.time(second), src.price(second), src.volume(second));
+            lastAdded = second;
+        }
+
+        // 마지막 틱(현재가)은 항상 포함
+        if (lastAdded != n - 1) out.add(src.time(n - 1), src.price(n - 1), src.volume(n - 1));
+        return out;
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets — 모양 보존형, 결과는 정확히 threshold 개
+     */
+    public static TickSeries lttb(TickSeries src, int threshold) {
+        int n = src.size();
+        if (threshold < 3 || n <= threshold) return src;
+
+        TickSeries out = new TickSeries(threshold);
+        out.add(src.time(0), src.price(0), src.volume(0));
+
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int b = 0; b < threshold - 2; b++) {
+            // 다음 구간 평균점
+            int avgStart = (int) Math.floor((b + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((b + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += src.time(j);
+                avgY += src.price(j);
+            }
+            int avgLen = Math.max(avgEnd - avgStart, 1);
+            avgX /= avgLen;
+            avgY /= avgLen;
+
+            // 현재 구간에서 삼각형 넓이가 가장 큰 점 선택
+            int rangeStart = (int) Math.floor(b * every) + 1;
+            int rangeEnd = (int) Math.floor((b + 1) * every) + 1;
+
+            double ax = src.time(a);
+            double ay = src.price(a);
+            double maxArea = -1;
+            int picked = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (src.price(j) - ay)
+                        - (ax - src.time(j)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    picked = j;
+                }
+            }
+
+            out.add(src.time(picked), src.price(picked), src.volume(picked));
+            a = picked;
+        }
+
+        out.add(src.time(n - 1), src.price(n - 1), src.volume(n - 1));
+        return out;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ljw.sockautobot.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 틱 블록 인코딩
+ *
+ * 블록 = 헤더(40 byte) + 시각/가격/거래량 3개 컬럼
+ * 각 컬럼은 직전 값과의 차이를 zigzag varint 로 기록 (첫 값은 0 기준)
+ *
+ * <pre>
+ * int  MAGIC
+ * int  count
+ * int  timeBytes
+ * int  priceBytes
+ * int  volumeBytes
+ * int  reserved
+ * long firstTime
+ * long lastTime
+ * </pre>
+ */
+final class TickBlockCodec {
+
+    static final int MAGIC = 0x54434B31; // "TCK1"
+    static final int HEADER_BYTES = 40;
+
+    private TickBlockCodec() {}
+
+    /** 블록 인코딩 후 buffer 를 읽기 모드로 돌려준다 */
+    static ByteBuffer encode(long[] times, long[] prices, long[] volumes, int count) {
+        // varint 최대 10 byte
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + count * 30);
+        buf.position(HEADER_BYTES);
+
+        int start = buf.position();
+        writeColumn(buf, times, count);
+        int timeBytes = buf.position() - start;
+
+        start = buf.position();
+        writeColumn(buf, prices, count);
+        int priceBytes = buf.position() - start;
+
+        start = buf.position();
+        writeColumn(buf, volumes, count);
+        int volumeBytes = buf.position() - start;
+
+        buf.putInt(0, MAGIC);
+        buf.putInt(4, count);
+        buf.putInt(8, timeBytes);
+        buf.putInt(12, priceBytes);
+        buf.putInt(16, volumeBytes);
+        buf.putInt(20, 0);
+        buf.putLong(24, times[0]);
+        buf.putLong(32, times[count - 1]);
+
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * 블록 하나를 읽어 [from, to] 구간만 out 에 추가
+     * @return 다음 블록 위치, 블록이 잘렸거나 손상됐으면 -1
+     */
+    static int decode(ByteBuffer buf, int pos, long from, long to, TickSeries out) {
+        int next = next(buf, pos);
+        if (next < 0) return -1;
+
+        int count = buf.getInt(pos + 4);
+        int timeBytes = buf.getInt(pos + 8);
+        int priceBytes = buf.getInt(pos + 12);
+        long firstTime = buf.getLong(pos + 24);
+        long lastTime = buf.getLong(pos + 32);
+
+        // 구간 밖 블록은 헤더만 보고 건너뜀
+        if (lastTime < from || firstTime > to) return next;
+
+        ByteBuffer view = buf.duplicate();
+        int timePos = pos + HEADER_BYTES;
+
+        // 시각 컬럼만 먼저 풀어 범위 결정
+        long[] times = new long[count];
+        view.position(timePos);
+        readColumn(view, times, count);
+
+        int lo = 0;
+        while (lo < count && times[lo] < from) lo++;
+        int hi = count;
+        while (hi > lo && times[hi - 1] > to) hi--;
+        if (lo >= hi) return next;
+
+        long[] prices = new long[count];
+        long[] volumes = new long[count];
+        view.position(timePos + timeBytes);
+        readColumn(view, prices, count);
+        view.position(timePos + timeBytes + priceBytes);
+        readColumn(view, volumes, count);
+
+        for (int i = lo; i < hi; i++) {
+            out.add(times[i], prices[i], volumes[i]);
+        }
+        return next;
+    }
+
+    /**
+     * 헤더만 검사해 다음 블록 위치 (본문은 풀지 않음)
+     * @return 블록이 잘렸거나 손상됐으면 -1
+     */
+    static int next(ByteBuffer buf, int pos) {
+        if (buf.limit() - pos < HEADER_BYTES) return -1;
+        if (buf.getInt(pos) != MAGIC) return -1;
+
+        int count = buf.getInt(pos + 4);
+        long payload = (long) buf.getInt(pos + 8) + buf.getInt(pos + 12) + buf.getInt(pos + 16);
+        if (count <= 0 || payload < count * 3L || buf.limit() - pos - HEADER_BYTES < payload) return -1;
+
+        return pos + HEADER_BYTES + (int) payload;
+    }
+
+    /** 앞에서부터 온전한 블록들의 길이 (그 뒤는 기록 중 끊긴 꼬리) */
+    static int validLength(ByteBuffer buf) {
+        int pos = 0;
+        while (pos < buf.limit()) {
+            int next = next(buf, pos);
+            if (next < 0) break;
+            pos = next;
+        }
+        return pos;
+    }
+
+    private static void writeColumn(ByteBuffer buf, long[] values, int count) {
+        long prev = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarLong(buf, zigzag(values[i] - prev));
+            prev = values[i];
+        }
+    }
+
+    private static void readColumn(ByteBuffer buf, long[] dst, int count) {
+        long prev = 0;
+        for (int i = 0; i < count; i++) {
+            prev += unzigzag(readVarLong(buf));
+            dst[i] = prev;
+        }
+    }
+
+    private static long zigzag(long v) { return (v << 1) ^ (v >> 63); }
+
+    private static long unzigzag(long v) { return (v >>> 1) ^ -(v & 1); }
+
+    private static void writeVarLong(ByteBuffer buf, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private static long readVarLong(ByteBuffer buf) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.get();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ljw.sockautobot.store;
+
+import java.util.Arrays;
+
+/**
+ * 틱 시계열 (컬럼 배열: 시각 / 가격 / 누적거래량)
+ */
+public class TickSeries {
+
+    private long[] times;
+    private double[] prices;
+    private long[] volumes;
+    private int size = 0;
+
+    public TickSeries() {
+        this(256);
+    }
+
+    public TickSeries(int capacity) {
+        int c = Math.max(capacity, 16);
+        times = new long[c];
+        prices = new double[c];
+        volumes = new long[c];
+    }
+
+    void add(long time, double price, long volume) {
+        if (size == times.length) {
+            int c = size * 2;
+            times = Arrays.copyOf(times, c);
+            prices = Arrays.copyOf(prices, c);
+            volumes = Arrays.copyOf(volumes, c);
+        }
+        times[size] = time;
+        prices[size] = price;
+        volumes[size] = volume;
+        size++;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public long time(int i) { return times[i]; }
+    public double price(int i) { return prices[i]; }
+    public long volume(int i) { return volumes[i]; }
+
+    /** 배열 사본 (백테스트/IndicatorBatch 입력용) */
+    public long[] timeColumn() { return Arrays.copyOf(times, size); }
+    public double[] priceColumn() { return Arrays.copyOf(prices, size); }
+    public long[] volumeColumn() { return Arrays.copyOf(volumes, size); }
+
+    /**
+     * 구간별 마지막 틱만 남기는 다운샘플링
+     * (가격 = 구간 종가, 거래량 = 구간 끝 시점 누적거래량)
+     */
+    public TickSeries downsample(long bucketMillis) {
+        if (bucketMillis <= 0) throw new IllegalArgumentException("bucketMillis must be > 0: " + bucketMillis);
+
+        TickSeries out = new TickSeries(Math.min(size, 1024));
+        for (int i = 0; i < size; i++) {
+            long bucket = times[i] - Math.floorMod(times[i], bucketMillis);
+            boolean lastOfBucket = (i == size - 1)
+                    || (times[i + 1] - Math.floorMod(times[i + 1], bucketMillis)) != bucket;
+            if (lastOfBucket) out.add(bucket, prices[i], volumes[i]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,292 @@
+package com.ljw.sockautobot.store;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로컬 틱 저장소 (일자/종목별 파티션 파일)
+ *
+ * data/ticks/20251119/000660.tck 처럼 파티션마다 블록 단위로 append 하고,
+ * 읽을 때는 파일을 memory-map 해서 블록 헤더로 구간 밖 블록을 건너뛴다.
+ * 아직 파일로 내려가지 않은 최근 틱도 조회 결과에 포함된다.
+ */
+@Component
+public class TickStore {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long FLUSH_INTERVAL_MILLIS = 60_000; // 블록이 안 차도 1분마다 디스크 반영
+
+    private final Path baseDir;
+    private final int blockSize;
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    public TickStore(@Value("${tickstore.dir:data/ticks}") String dir,
+                     @Value("${tickstore.block-size:1024}") int blockSize) {
+        this.baseDir = Paths.get(dir);
+        this.blockSize = Math.max(blockSize, 16);
+    }
+
+
+    // ============================================================
+    // 쓰기
+    // ============================================================
+
+    /**
+     * @param price  체결가 (KRX 호가는 원 단위 정수 → 반올림 저장)
+     * @param volume 누적 거래량 (acml_vol)
+     */
+    public void append(String symbol, long timeMillis, double price, long volume) {
+        LocalDate day = dayOf(timeMillis);
+        String key = key(symbol, day);
+
+        Partition p = partitions.get(key);
+        if (p == null) {
+            rollOver(symbol, day);
+            p = partitions.computeIfAbsent(key, k -> new Partition(fileOf(symbol, day), blockSize));
+        }
+        p.append(timeMillis, Math.round(price), volume);
+    }
+
+    /** 대기 중인 틱을 모두 디스크에 반영 */
+    public void flush() {
+        for (Partition p : partitions.values()) {
+            p.flush();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Partition p : partitions.values()) {
+            p.close();
+        }
+        partitions.clear();
+    }
+
+    // 같은 종목의 이전 일자 파티션은 닫는다
+    private void rollOver(String symbol, LocalDate day) {
+        String prefix = symbol + "/";
+        partitions.entrySet().removeIf(e -> {
+            if (!e.getKey().startsWith(prefix) || e.getKey().equals(key(symbol, day))) return false;
+            e.getValue().close();
+            return true;
+        });
+    }
+
+
+    // ============================================================
+    // 읽기
+    // ============================================================
+
+    /** 하루치 전체 */
+    public TickSeries day(String symbol, LocalDate day) {
+        TickSeries out = new TickSeries();
+        readDay(symbol, day, Long.MIN_VALUE, Long.MAX_VALUE, out);
+        return out;
+    }
+
+    /** [from, to] 구간 (여러 날에 걸쳐도 됨) */
+    public TickSeries range(String symbol, long fromMillis, long toMillis) {
+        TickSeries out = new TickSeries();
+        if (fromMillis > toMillis) return out;
+
+        LocalDate last = dayOf(toMillis);
+        for (LocalDate d = dayOf(fromMillis); !d.isAfter(last); d = d.plusDays(1)) {
+            readDay(symbol, d, fromMillis, toMillis, out);
+        }
+        return out;
+    }
+
+    public static LocalDate today() {
+        return LocalDate.now(KST);
+    }
+
+    private void readDay(String symbol, LocalDate day, long from, long to, TickSeries out) {
+        Partition p = partitions.get(key(symbol, day));
+        if (p != null) {
+            p.read(from, to, out);
+            return;
+        }
+
+        Path file = fileOf(symbol, day);
+        if (!Files.exists(file)) return;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > 0) {
+                decodeBlocks(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), from, to, out);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ [TickStore] 읽기 실패: " + file + " — " + e.getMessage());
+        }
+    }
+
+    private static void decodeBlocks(ByteBuffer buf, long from, long to, TickSeries out) {
+        int pos = 0;
+        while (pos >= 0 && pos < buf.limit()) {
+            pos = TickBlockCodec.decode(buf, pos, from, to, out);
+        }
+    }
+
+    private Path fileOf(String symbol, LocalDate day) {
+        return baseDir.resolve(day.format(DAY)).resolve(symbol + ".tck");
+    }
+
+    private static String key(String symbol, LocalDate day) {
+        return symbol + "/" + day.format(DAY);
+    }
+
+    private static LocalDate dayOf(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(KST).toLocalDate();
+    }
+
+
+    // ============================================================
+    // 파티션 (종목 × 일자)
+    // ============================================================
+    private static final class Partition {
+
+        private final Path file;
+        private final long[] times;
+        private final long[] prices;
+        private final long[] volumes;
+        private int pending = 0;
+
+        private FileChannel channel;
+        private long committed = 0; // 완전히 기록된 바이트 수
+
+        Partition(Path file, int blockSize) {
+            this.file = file;
+            this.times = new long[blockSize];
+            this.prices = new long[blockSize];
+            this.volumes = new long[blockSize];
+        }
+
+        synchronized void append(long time, long price, long volume) {
+            times[pending] = time;
+            prices[pending] = price;
+            volumes[pending] = volume;
+            pending++;
+
+            if (pending == times.length || time - times[0] >= FLUSH_INTERVAL_MILLIS) {
+                flush();
+            }
+        }
+
+        synchronized void flush() {
+            if (pending == 0) return;
+            try {
+                if (channel == null) open();
+
+                ByteBuffer block = TickBlockCodec.encode(times, prices, volumes, pending);
+                while (block.hasRemaining()) {
+                    channel.write(block);
+                }
+                committed = channel.position();
+                pending = 0;
+            } catch (IOException e) {
+                // 디스크 오류가 매매를 멈추게 하지 않도록 버퍼가 찰 때만 버린다
+                System.err.println("⚠️ [TickStore] 기록 실패: " + file + " — " + e.getMessage());
+                rewindToCommitted();
+                if (pending == times.length) pending = 0;
+            }
+        }
+
+        // 반쯤 쓴 블록을 지워 다음 블록이 온전한 블록 바로 뒤에 붙게
+        private void rewindToCommitted() {
+            if (channel == null) return;
+            try {
+                channel.truncate(committed);
+                channel.position(committed);
+            } catch (IOException e) {
+                // 채널을 버리고 다음 flush 에서 다시 열면 open() 이 꼬리를 정리한다
+                try {
+                    channel.close();
+                } catch (IOException ignore) {}
+                channel = null;
+            }
+        }
+
+        void read(long from, long to, TickSeries out) {
+            MappedByteBuffer mapped = null;
+            long size;
+            long[] t;
+            long[] px;
+            long[] v;
+            int n;
+
+            // 파일 길이와 대기 버퍼를 같은 시점으로 잡아 중복/누락이 없게 한다
+            synchronized (this) {
+                size = committed;
+                if (size == 0 && channel == null && Files.exists(file)) {
+                    try {
+                        size = Files.size(file);
+                    } catch (IOException ignore) {}
+                }
+                if (size > 0) {
+                    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                        mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    } catch (IOException e) {
+                        System.err.println("⚠️ [TickStore] 읽기 실패: " + file + " — " + e.getMessage());
+                    }
+                }
+                n = pending;
+                t = Arrays.copyOf(times, n);
+                px = Arrays.copyOf(prices, n);
+                v = Arrays.copyOf(volumes, n);
+            }
+
+            if (mapped != null) {
+                decodeBlocks(mapped, from, to, out);
+            }
+            for (int i = 0; i < n; i++) {
+                if (t[i] >= from && t[i] <= to) out.add(t[i], px[i], v[i]);
+            }
+        }
+
+        // 기록 도중 죽어 끊긴 꼬리가 있으면 마지막 온전한 블록까지 잘라낸다
+        // (그대로 이어 쓰면 decode 가 끊긴 블록에서 멈춰 뒤의 블록을 전부 못 읽음)
+        private void open() throws IOException {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            long size = channel.size();
+            long valid = size == 0 ? 0
+                    : TickBlockCodec.validLength(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            if (valid < size) {
+                System.err.println("⚠️ [TickStore] 끊긴 블록 정리: " + file + " " + size + " → " + valid + " byte");
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+            committed = valid;
+        }
+
+        synchronized void close() {
+            flush();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignore) {}
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.ljw.sockautobot.store;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 매매 write-ahead 저널 (일자별 파일, append-only)
+ *
+ * data/journal/20251119.wal 에 [길이 int][CRC32 int][JSON] 레코드를 이어 붙인다.
+ * - 주문 의도(INTENT)는 디스크에 내려간 뒤에야 주문을 보낸다 (write-ahead)
+ * - 기록은 전용 스레드가 모아서 한 번에 write + force (group commit) → 주문마다 fsync 하지 않는다
+ * - 시작 시 당일 파일을 재생해 미체결 주문 / 포지션 / 실현손익 / 거래 로그를 복원한다
+ *   (끝부분이 잘렸거나 CRC 가 안 맞으면 거기서 멈추고 잘라낸다, 해석만 안 되는 레코드는 건너뛴다)
+ * - 쓰기/force 가 실패하면 배치를 버리지 않고, 마지막으로 force 된 위치까지 잘라낸 뒤 다시 쓴다
+ */
+@Component
+public class TradeJournal {
+
+    public enum Kind {
+        INTENT,   // 주문 전송 직전 (신규/정정/취소)
+        ACK,      // 접수 (주문번호)
+        REJECT,   // 거부 (응답을 받았거나 보내기 전에 실패)
+        UNKNOWN,  // 전송 결과 모름 (타임아웃 — 접수됐을 수도 있으나 주문번호가 없어 추적 불가)
+        FILL,     // 체결 (잔고 수량 변화)
+        DONE      // 추적 종료 (체결 완료 / 취소)
+    }
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_RECORD = 64 * 1024;
+    private static final long RETRY_MILLIS = 500;
+
+    private final Path baseDir;
+    private final boolean enabled;
+    private final long groupCommitMillis;
+
+    private FileChannel channel;
+    private LocalDate day;
+    private long committed;   // 마지막으로 force 까지 끝난 파일 위치 (flusher 스레드 전용)
+
+    // group commit 상태 (this 로 보호)
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream(4096);
+    private long appendedSeq = 0;
+    private long durableSeq = 0;
+    private boolean closed = false;
+    private IOException failure;
+
+    private Thread flusher;
+    private Recovered recovered = Recovered.EMPTY;
+    private LocalDate recoveredDay;
+
+    private long batches = 0;
+
+    public TradeJournal(@Value("${journal.dir:data/journal}") String dir,
+                        @Value("${journal.enabled:true}") boolean enabled,
+                        @Value("${journal.group-commit-ms:2}") long groupCommitMillis) {
+        this.baseDir = Paths.get(dir);
+        this.enabled = enabled;
+        this.groupCommitMillis = Math.max(0, groupCommitMillis);
+    }
+
+
+    // ============================================================
+    // 🔵 시작: 당일 파일 재생 → 이어쓰기
+    // ============================================================
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+
+        try {
+            day = today();
+            Path file = fileOf(day);
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            recovered = replay(channel);
+            recoveredDay = day;
+            committed = channel.size();
+            channel.position(committed);
+
+            if (recovered.records > 0) {
+                System.out.println("📒 저널 재생: " + file + " — " + recovered.records + "건, 미체결 "
+                        + recovered.orders.size() + "건, 실현손익 " + Math.round(recovered.realizedProfit) + "원");
+            }
+        } catch (IOException e) {
+            System.err.println("❌ [TradeJournal] 열기 실패 — 저널 없이 진행: " + e.getMessage());
+            channel = null;
+            return;
+        }
+
+        flusher = new Thread(this::flushLoop, "trade-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** 시작 시 재생한 결과 (재생 이후 기록은 반영되지 않음, 다음 거래일에는 빈 결과) */
+    public Recovered getRecovered() {
+        return today().equals(recoveredDay) ? recovered : Recovered.EMPTY;
+    }
+
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+
+    // ============================================================
+    // 🔵 기록
+    // ============================================================
+    /** 주문 전송 전 — 디스크에 내려갈 때까지 기다린다 */
+    public String intent(String action, String symbol, boolean buy, int qty, int price, int targetQty, String cid) {
+        String id = (cid != null) ? cid : newOrderId();
+        long seq = append(Kind.INTENT, new JSONObject()
+                .put("cid", id).put("action", action).put("symbol", symbol)
+                .put("side", buy ? "BUY" : "SELL").put("qty", qty).put("price", price).put("target", targetQty));
+        awaitDurable(seq);
+        return id;
+    }
+
+    public void ack(String cid, String orgNo, String orderNo, int price) {
+        append(Kind.ACK, new JSONObject()
+                .put("cid", cid).put("orgNo", orgNo).put("orderNo", orderNo).put("price", price));
+    }
+
+    public void reject(String cid, String reason) {
+        append(Kind.REJECT, new JSONObject().put("cid", cid).put("reason", reason));
+    }
+
+    public void unknown(String cid, String reason) {
+        append(Kind.UNKNOWN, new JSONObject().put("cid", cid).put("reason", reason));
+    }
+
+    public void done(String cid, String reason) {
+        append(Kind.DONE, new JSONObject().put("cid", cid).put("reason", reason));
+    }
+
+    /**
+     * @param holdingQty 체결 후 보유수량
+     * @param avgPrice   체결 후 평균단가
+     * @param realized   이 체결로 확정된 손익 (매수는 0)
+     */
+    public void fill(String symbol, boolean buy, int qty, double price,
+                     int holdingQty, double avgPrice, double realized) {
+        long seq = append(Kind.FILL, new JSONObject()
+                .put("symbol", symbol).put("side", buy ? "BUY" : "SELL").put("qty", qty).put("price", price)
+                .put("holding", holdingQty).put("avg", avgPrice).put("realized", realized));
+        awaitDurable(seq);
+    }
+
+    private long append(Kind kind, JSONObject body) {
+        if (channel == null) return 0;
+
+        body.put("k", kind.name()).put("t", System.currentTimeMillis());
+        byte[] payload = body.toString().getBytes(StandardCharsets.UTF_8);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        synchronized (this) {
+            if (closed) return 0;
+
+            ByteBuffer head = ByteBuffer.allocate(8);
+            head.putInt(payload.length).putInt((int) crc.getValue());
+            buffer.write(head.array(), 0, 8);
+            buffer.write(payload, 0, payload.length);
+
+            long seq = ++appendedSeq;
+            notifyAll();
+            return seq;
+        }
+    }
+
+    /** seq 까지 force 될 때까지 대기 (디스크 오류면 경고만 — 매매는 계속) */
+    private void awaitDurable(long seq) {
+        if (seq == 0) return;
+
+        synchronized (this) {
+            while (durableSeq < seq && failure == null && !closed) {
+                try {
+                    wait(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (failure != null && durableSeq < seq) {
+                System.err.println("⚠️ [TradeJournal] 디스크 반영 실패: " + failure.getMessage());
+            }
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 group commit 스레드
+    // ============================================================
+    private void flushLoop() {
+        ByteArrayOutputStream retry = null;   // 쓰기/force 에 실패해 다시 내려야 하는 배치
+
+        while (true) {
+            ByteArrayOutputStream batch;
+            long target;
+
+            synchronized (this) {
+                while (buffer.size() == 0 && retry == null && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (buffer.size() == 0 && retry == null) return;   // closed
+
+                // 첫 레코드가 들어온 뒤 잠깐 더 모은다 (재시도면 조금 쉬었다가)
+                long pause = (retry != null) ? RETRY_MILLIS : groupCommitMillis;
+                if (pause > 0 && !closed) {
+                    try {
+                        wait(pause);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (retry != null) {
+                    // 실패한 배치 뒤에 그동안 쌓인 기록을 이어 붙여 한 번에 다시 쓴다
+                    byte[] more = buffer.toByteArray();
+                    retry.write(more, 0, more.length);
+                    buffer.reset();
+                    batch = retry;
+                } else {
+                    batch = buffer;
+                    buffer = spare;
+                    spare = batch;
+                }
+                target = appendedSeq;
+            }
+
+            IOException error = null;
+            try {
+                rollOverIfNeeded();
+                if (retry != null && channel.size() != committed) {
+                    // 지난 시도에서 반쯤 쓰인 바이트는 버리고 마지막 force 위치부터
+                    channel.truncate(committed);
+                }
+                channel.position(committed);
+
+                ByteBuffer out = ByteBuffer.wrap(batch.toByteArray());
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(false);
+                committed = channel.position();
+            } catch (IOException e) {
+                error = e;
+            }
+
+            synchronized (this) {
+                if (error == null) {
+                    batch.reset();
+                    retry = null;
+                    durableSeq = target;
+                    failure = null;
+                    batches++;
+                } else {
+                    if (failure == null) {
+                        System.err.println("❌ [TradeJournal] 기록 실패 — 배치 보관 후 재시도: " + error.getMessage());
+                    }
+                    retry = batch;
+                    failure = error;
+                }
+                notifyAll();
+                if (error != null && closed) return;   // 종료 중에는 한 번만 더 시도
+            }
+        }
+    }
+
+    // 자정을 넘기면 새 일자 파일로
+    private void rollOverIfNeeded() throws IOException {
+        LocalDate now = today();
+        if (now.equals(day)) return;
+
+        channel.close();
+        day = now;
+        Path file = fileOf(day);
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        committed = channel.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join(2000);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", channel != null);
+        map.put("day", day == null ? null : day.toString());
+        map.put("records", appendedSeq);
+        map.put("durable", durableSeq);
+        map.put("batches", batches);
+        map.put("recordsPerBatch", batches == 0 ? 0 : (double) durableSeq / batches);
+        map.put("error", failure == null ? null : failure.getMessage());
+        return map;
+    }
+
+
+    // ============================================================
+    // 🔵 재생
+    // ============================================================
+    private static Recovered replay(FileChannel ch) throws IOException {
+        long size = ch.size();
+        Recovered r = new Recovered();
+        if (size == 0) return r;
+
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        ch.read(buf, 0);
+        buf.flip();
+
+        int valid = 0;
+        while (buf.remaining() >= 8) {
+            int pos = buf.position();
+            int len = buf.getInt();
+            int crc = buf.getInt();
+            if (len <= 0 || len > MAX_RECORD || len > buf.remaining()) break;
+
+            byte[] payload = new byte[len];
+            buf.get(payload);
+
+            CRC32 c = new CRC32();
+            c.update(payload);
+            if ((int) c.getValue() != crc) {
+                buf.position(pos);
+                break;
+            }
+
+            // 길이/CRC 가 맞는 레코드는 온전히 기록된 것 — 해석에 실패해도 뒤 기록은 살린다
+            valid = buf.position();
+            try {
+                r.apply(new JSONObject(new String(payload, StandardCharsets.UTF_8)));
+            } catch (Exception e) {
+                System.err.println("⚠️ [TradeJournal] 레코드 @" + pos + " 건너뜀: " + e.getMessage());
+            }
+        }
+
+        if (valid < size) {
+            System.err.println("⚠️ [TradeJournal] 손상된 꼬리 " + (size - valid) + "B 잘라냄");
+            ch.truncate(valid);
+        }
+        return r;
+    }
+
+    private Path fileOf(LocalDate d) {
+        return baseDir.resolve(d.format(DAY) + ".wal");
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(KST);
+    }
+
+    private static long orderSeq = 0;
+
+    private static synchronized String newOrderId() {
+        return Long.toString(System.currentTimeMillis(), 36) + "-" + (++orderSeq);
+    }
+
+
+    // ============================================================
+    // 🔵 재생 결과
+    // ============================================================
+    public static final class Recovered {
+
+        static final Recovered EMPTY = new Recovered();
+
+        private final Map<String, OpenOrder> orders = new LinkedHashMap<>();
+        private final Map<String, Integer> positionQty = new HashMap<>();
+        private final Map<String, Double> positionAvg = new HashMap<>();
+        private final List<String> tradeLogs = new ArrayList<>();
+        private final List<Fill> fills = new ArrayList<>();
+
+        private double realizedProfit = 0;
+        private int records = 0;
+
+        void apply(JSONObject e) {
+            records++;
+            String cid = e.optString("cid");
+
+            switch (Kind.valueOf(e.getString("k"))) {
+                case INTENT -> {
+                    OpenOrder o = orders.get(cid);
+                    String action = e.optString("action");
+                    if (o == null) {
+                        o = new OpenOrder(cid, e.optString("symbol"), "BUY".equals(e.optString("side")),
+                                e.optInt("target"));
+                        orders.put(cid, o);
+                    }
+                    o.price = e.optInt("price");
+                    o.acked = false;
+                    if (!"NEW".equals(action)) o.replaces++;
+                }
+                case ACK -> {
+                    OpenOrder o = orders.get(cid);
+                    if (o != null) {
+                        o.acked = true;
+                        o.orgNo = e.optString("orgNo");
+                        o.orderNo = e.optString("orderNo");
+                        o.price = e.optInt("price", o.price);
+                    }
+                }
+                case REJECT, UNKNOWN, DONE -> orders.remove(cid);
+                case FILL -> {
+                    String symbol = e.optString("symbol");
+                    double costAvg = positionAvg.getOrDefault(symbol, 0.0);   // 매도 직전 평균단가
+                    positionQty.put(symbol, e.optInt("holding"));
+                    positionAvg.put(symbol, e.optDouble("avg", 0));
+
+                    double realized = e.optDouble("realized", 0);
+                    realizedProfit += realized;
+
+                    String time = Instant.ofEpochMilli(e.optLong("t")).atZone(KST)
+                            .toLocalTime().withNano(0).toString();
+                    boolean buy = "BUY".equals(e.optString("side"));
+                    fills.add(new Fill(e.optLong("t"), symbol, buy, e.optInt("qty"), e.optDouble("price"),
+                            costAvg, realized));
+                    tradeLogs.add("[" + time + "] " + (buy ? "🟢 체결 매수 " : "🔴 체결 매도 ") + symbol
+                            + " " + e.optInt("qty") + "주 @" + Math.round(e.optDouble("price"))
+                            + (buy ? "" : " (손익 " + Math.round(realized) + "원)") + " ♻️");
+                }
+            }
+        }
+
+        public Collection<OpenOrder> getOpenOrders() { return orders.values(); }
+
+        /** 저널 기준 보유수량 (-1 = 당일 체결 기록 없음) */
+        public int positionQty(String symbol) { return positionQty.getOrDefault(symbol, -1); }
+
+        public double positionAvg(String symbol) { return positionAvg.getOrDefault(symbol, 0.0); }
+
+        public double getRealizedProfit() { return realizedProfit; }
+
+        public List<String> getTradeLogs() { return tradeLogs; }
+
+        /** 당일 체결 (기록 순서) */
+        public List<Fill> getFills() { return fills; }
+
+        public int getRecords() { return records; }
+    }
+
+    /** 복원된 체결 1건 (costAvg = 체결 직전 평균단가) */
+    public record Fill(long time, String symbol, boolean buy, int qty, double price, double costAvg, double realized) {
+    }
+
+    public static final class OpenOrder {
+        public final String cid;
+        public final String symbol;
+        public final boolean buy;
+        public final int targetQty;
+        public int price;
+        public String orgNo;
+        public String orderNo;
+        public boolean acked;
+        public int replaces;
+
+        OpenOrder(String cid, String symbol, boolean buy, int targetQty) {
+            this.cid = cid;
+            this.symbol = symbol;
+            this.buy = buy;
+            this.targetQty = targetQty;
+        }
+    }
+}
@@ -40,19 +40,33 @@ lineSeries = chart.addLineSeries({
     lineWidth: 2,
 });
 
-// 테스트 데이터
-lineSeries.setData([
-    { time: "2024-01-01", value: 100 },
-    { time: "2024-01-02", value: 120 },
-    { time: "2024-01-03", value: 90 },
-]);
+// 당일 전체 곡선 (서버에서 화면 폭에 맞춰 다운샘플링)
+function loadChart() {
+    fetch("/api/dashboard/chart?width=" + Math.max(chartDiv.clientWidth, 100))
+        .then(res => res.json())
+        .then(d => {
+            const points = (d.points || []).map(p => ({ time: p.time, value: p.value }));
+            lineSeries.setData(points);
+            lastChartTime = points.length ? points[points.length - 1].time : 0;
+            chart.timeScale().fitContent();
+        })
+        .catch(err => console.error("chart 오류:", err));
+}
+
+let lastChartTime = 0;
+loadChart();
 
 
 function updateChart(price) {
     if (!price || price <= 0 || isNaN(price)) return;
 
+    // 서버 시계보다 늦은 시각은 차트가 거부하므로 건너뜀
+    const time = Math.floor(Date.now() / 1000);
+    if (time < lastChartTime) return;
+    lastChartTime = time;
+
     lineSeries.update({
-        time: Math.floor(Date.now() / 1000),
+        time: time,
         value: price
     });
 }
@@ -94,6 +108,7 @@ document.getElementById("updateSymbolBtn").addEventListener("click", async () =>
     const data = await res.json();
     if (data.success) {
         alert(data.symbol + "으로 종목 변경 완료!");
+        loadChart();
         updateStatus();
     }
 });
@@ -111,125 +126,209 @@ function formatNumber(n) {
 // ======================================================
 // 3) 실시간 상태 호출
 // ======================================================
+// 직전 ETag 를 보내 바뀐 게 없으면 304, 바뀌었으면 바뀐 필드만 받아 status 에 합친다
+let statusState = {};
+let statusEtag = null;
+
 function updateStatus() {
-    fetch("/api/dashboard/status")
-        .then(res => res.json())
-        .then(d => {
+    const url = "/api/dashboard/status" + (statusEtag ? "?since=" + encodeURIComponent(statusEtag) : "");
+    const headers = statusEtag ? { "If-None-Match": statusEtag } : {};
+
+    fetch(url, { headers, cache: "no-store" })
+        .then(res => {
+            if (res.status === 304) return null;
+            statusEtag = res.headers.get("ETag");
+            return res.json();
+        })
+        .then(body => {
+            if (!body) return;
 
-            // 값 존재 여부 체크
-            const price = d.price || 0;
-            const momentum = d.momentum || 0;
-
-            // ------------------------------------
-            // 실시간 시세 렌더링
-            // ------------------------------------
-            document.getElementById("symbol").textContent = d.symbol || "-";
-            document.getElementById("price").textContent = formatNumber(price);
-            document.getElementById("qty").textContent = d.qty || 0;
-            document.getElementById("avg").textContent = formatNumber(d.avgBuyPrice || 0);
-
-            const profitRate = d.profitRate || 0;
-            const profitEl = document.getElementById("profitRate");
-            profitEl.textContent = profitRate.toFixed(3) + " %";
-
-            // 색상 처리
-            profitEl.className = "";
-            document.getElementById("price").className = "";
-
-            if (profitRate > 0) profitEl.classList.add("up");
-            else if (profitRate < 0) profitEl.classList.add("down");
-
-            if (momentum > 0) document.getElementById("price").classList.add("up");
-            else if (momentum < 0) document.getElementById("price").classList.add("down");
-
-            document.getElementById("volume").textContent =
-                formatNumber(d.volume || 0);
-
-            document.getElementById("tickStrength").textContent =
-                (d.tickStrength || 0).toFixed(2) + " %";
-
-            document.getElementById("bidQty").textContent =
-                formatNumber(d.bidQty || 0);
-
-            document.getElementById("askQty").textContent =
-                formatNumber(d.askQty || 0);
-
-            document.getElementById("kospi").textContent =
-                d.kospi ? d.kospi.toFixed(2) : "-";
-
-
-            // ------------------------------------
-            // 실시간 차트 업데이트
-            // ------------------------------------
-            updateChart(price);
-
-            // ------------------------------------
-            // AI 상태 표시
-            // ------------------------------------
-            const ai = `
-                 <div>📈 기울기(slope): ${d.slope.toFixed(5)}</div>
-                <div>⚡ 가속도(accel): ${d.accel.toFixed(5)}</div>
-                <div>🔥 순간 모멘텀: ${momentum.toFixed(3)} %</div>
-                <div>📊 단기 MA: ${d.shortMA.toFixed(2)}</div>
-                <div>📉 장기 MA: ${d.longMA.toFixed(2)}</div>
-                <div>📡 ATR: ${d.atr.toFixed(3)}</div>
-                <div>📅 일간 모멘텀: ${d.dailyMomentum.toFixed(3)} %</div>
-            
-                <!-- 🔥 새 항목들 -->
-                <hr>
-                <div>💹 거래량: ${formatNumber(d.volume)}</div>
-                <div>📡 체결강도: ${(d.tickStrength || 0).toFixed(2)} %</div>
-                <div>🟦 매수 잔량(bid1): ${formatNumber(d.bidQty)}</div>
-                <div>🟥 매도 잔량(ask1): ${formatNumber(d.askQty)}</div>
-                <div>🌏 KOSPI 지수: ${d.kospi ? d.kospi.toFixed(2) : "-"}</div>
-            `;
-            document.getElementById("ai-status").innerHTML = ai;
+            if (body.changes) Object.assign(statusState, body.changes, { version: body.version });
+            else statusState = body;
+
+            renderStatus(statusState);
+            renderProfit(statusState);
+        })
+        .catch(err => {
+            statusEtag = null;   // 다음엔 전체로
+            console.error("status 오류:", err);
+        });
+}
 
-            // ------------------------------------
-            // AI 추세 배너
-            // ------------------------------------
-            const banner = document.getElementById("trend-banner");
+function renderStatus(d) {
+    // 값 존재 여부 체크
+    const price = d.price || 0;
+    const momentum = d.momentum || 0;
+
+    // ------------------------------------
+    // 실시간 시세 렌더링
+    // ------------------------------------
+    document.getElementById("symbol").textContent = d.symbol || "-";
+    document.getElementById("price").textContent = formatNumber(price);
+    document.getElementById("qty").textContent = d.qty || 0;
+    document.getElementById("avg").textContent = formatNumber(d.avgBuyPrice || 0);
+
+    const profitRate = d.profitRate || 0;
+    const profitEl = document.getElementById("profitRate");
+    profitEl.textContent = profitRate.toFixed(3) + " %";
+
+    // 색상 처리
+    profitEl.className = "";
+    document.getElementById("price").className = "";
+
+    if (profitRate > 0) profitEl.classList.add("up");
+    else if (profitRate < 0) profitEl.classList.add("down");
+
+    if (momentum > 0) document.getElementById("price").classList.add("up");
+    else if (momentum < 0) document.getElementById("price").classList.add("down");
+
+    document.getElementById("volume").textContent =
+        formatNumber(d.volume || 0);
+
+    document.getElementById("tickStrength").textContent =
+        (d.tickStrength || 0).toFixed(2) + " %";
+
+    document.getElementById("bidQty").textContent =
+        formatNumber(d.bidQty || 0);
+
+    document.getElementById("askQty").textContent =
+        formatNumber(d.askQty || 0);
+
+    document.getElementById("kospi").textContent =
+        d.kospi ? d.kospi.toFixed(2) : "-";
+
+
+    // ------------------------------------
+    // 실시간 차트 업데이트
+    // ------------------------------------
+    updateChart(price);
+
+    // ------------------------------------
+    // AI 상태 표시
+    // ------------------------------------
+    const ai = `
+         <div>📈 기울기(slope): ${d.slope.toFixed(5)}</div>
+        <div>⚡ 가속도(accel): ${d.accel.toFixed(5)}</div>
+        <div>🔥 순간 모멘텀: ${momentum.toFixed(3)} %</div>
+        <div>📊 단기 MA: ${d.shortMA.toFixed(2)}</div>
+        <div>📉 장기 MA: ${d.longMA.toFixed(2)}</div>
+        <div>📡 ATR: ${d.atr.toFixed(3)}</div>
+        <div>📅 일간 모멘텀: ${d.dailyMomentum.toFixed(3)} %</div>
+        <div>🎯 RSI(14): ${(d.rsi || 0).toFixed(2)}</div>
+        <div>⚖️ VWAP: ${formatNumber((d.vwap || 0).toFixed(1))}</div>
+        <div>📐 볼린저: ${(d.bollingerLower || 0).toFixed(1)} ~ ${(d.bollingerUpper || 0).toFixed(1)}</div>
+        <div>🌀 MACD: ${(d.macd || 0).toFixed(3)} / ${(d.macdSignal || 0).toFixed(3)}</div>
+    
+        <!-- 🔥 새 항목들 -->
+        <hr>
+        <div>💹 거래량: ${formatNumber(d.volume)}</div>
+        <div>📡 체결강도: ${(d.tickStrength || 0).toFixed(2)} %</div>
+        <div>🟦 매수 잔량(bid1): ${formatNumber(d.bidQty)}</div>
+        <div>🟥 매도 잔량(ask1): ${formatNumber(d.askQty)}</div>
+        <div>📚 호가 불균형: ${(d.bookImbalance || 0).toFixed(3)} (잔량 ${formatNumber(d.bidDepth)} / ${formatNumber(d.askDepth)})</div>
+        <div>🎯 마이크로프라이스: ${(d.microprice || 0).toFixed(1)}</div>
+        <div>🌏 KOSPI 지수: ${d.kospi ? d.kospi.toFixed(2) : "-"}</div>
+    `;
+    document.getElementById("ai-status").innerHTML = ai;
+
+    // ------------------------------------
+    // AI 추세 배너
+    // ------------------------------------
+    const banner = document.getElementById("trend-banner");
+
+    if (momentum > 0.1 && d.slope > 0 && d.accel > 0)
+        banner.textContent = "🚀 강한 상승 추세 유지 중!";
+    else if (momentum < -0.1 && d.slope < 0)
+        banner.textContent = "📉 하락 경고 — 주의 필요";
+    else
+        banner.textContent = "AI 상태 분석 중...";
+}
 
-            if (momentum > 0.1 && d.slope > 0 && d.accel > 0)
-                banner.textContent = "🚀 강한 상승 추세 유지 중!";
-            else if (momentum < -0.1 && d.slope < 0)
-                banner.textContent = "📉 하락 경고 — 주의 필요";
-            else
-                banner.textContent = "AI 상태 분석 중...";
 
-        })
-        .catch(err => console.error("status 오류:", err));
+// ======================================================
+// 4) 잔고 상태 (/status 에 포함)
+// ======================================================
+function renderProfit(d) {
+    document.getElementById("baseBalance").textContent =
+        formatNumber(d.baseBalance) + " 원";
+
+    document.getElementById("currentBalance").textContent =
+        formatNumber(d.currentBalance) + " 원";
+
+    document.getElementById("totalProfit").textContent =
+        formatNumber(d.totalProfit) + " 원";
+
+    const diff = d.balanceChange || 0;
+    const rate = d.balanceChangeRate || 0;
+
+    const diffText = (diff >= 0 ? "+" : "") + formatNumber(diff) + " 원";
+    const rateText = (rate >= 0 ? "+" : "") + rate.toFixed(3) + " %";
+
+    document.getElementById("balanceChange").textContent = diffText;
+    document.getElementById("balanceChangeRate").textContent = rateText;
 }
 
 
 // ======================================================
-// 4) 잔고 상태
+// 4-0) 실현손익 성과 (당일 세션)
 // ======================================================
-function updateProfit() {
-    fetch("/api/dashboard/profit")
+function updatePnl() {
+    fetch("/api/dashboard/pnl")
         .then(res => res.json())
         .then(d => {
-            document.getElementById("baseBalance").textContent =
-                formatNumber(d.baseBalance) + " 원";
-
-            document.getElementById("currentBalance").textContent =
-                formatNumber(d.currentBalance) + " 원";
+            const s = d.session;
+            document.getElementById("pnl-stats").innerHTML = `
+                <hr>
+                <div>🧾 거래: ${s.trades}건 (승률 ${s.winRate.toFixed(1)} %)</div>
+                <div>💵 실현손익: ${formatNumber(Math.round(s.realized))} 원 (건당 ${formatNumber(Math.round(s.avgPnl))} 원)</div>
+                <div>📐 거래당 Sharpe: ${s.sharpePerTrade.toFixed(2)} / 손익비: ${s.profitFactor == null ? "-" : s.profitFactor.toFixed(2)}</div>
+                <div>⛰️ 최대 낙폭: ${formatNumber(Math.round(s.maxDrawdown))} 원</div>
+                <div>🔁 회전율: ${formatNumber(Math.round(s.turnover))} 원 (${s.turnoverRatio.toFixed(2)}배)</div>
+            `;
+        })
+        .catch(err => console.error("pnl 오류:", err));
+}
 
-            document.getElementById("totalProfit").textContent =
-                formatNumber(d.totalProfit) + " 원";
 
-            const diff = d.balanceChange || 0;
-            const rate = d.balanceChangeRate || 0;
+// ======================================================
+// 4-1) 리스크 한도 / 킬스위치
+// ======================================================
+let killSwitchOn = false;
 
-            const diffText = (diff >= 0 ? "+" : "") + formatNumber(diff) + " 원";
-            const rateText = (rate >= 0 ? "+" : "") + rate.toFixed(3) + " %";
+function updateRisk() {
+    fetch("/api/dashboard/risk")
+        .then(res => res.json())
+        .then(d => {
+            killSwitchOn = !!d.killSwitch;
+
+            document.getElementById("risk-level").innerHTML = `
+                <div>🛑 킬스위치: ${d.killSwitch ? "ON (" + d.killReason + ")" : "OFF"}</div>
+                <div>📦 보유수량: ${d.positionQty} / ${d.maxPositionQty}</div>
+                <div>💰 투자금액: ${formatNumber(d.exposure)} / ${formatNumber(d.maxNotional)} 원</div>
+                <div>📉 당일 손익(평가): ${formatNumber(d.equityChange)} 원 (한도 -${formatNumber(d.maxDailyLoss)})</div>
+                <div>⛰️ 고점 대비: -${formatNumber(d.drawdown)} 원 (한도 -${formatNumber(d.maxDrawdown)})</div>
+                <div>⏱️ 최근 판정: ${d.lastResult} (차단 ${d.rejectCount}회)</div>
+            `;
 
-            document.getElementById("balanceChange").textContent = diffText;
-            document.getElementById("balanceChangeRate").textContent = rateText;
+            const btn = document.getElementById("killSwitchBtn");
+            btn.textContent = killSwitchOn ? "✅ 킬스위치 해제" : "🛑 킬스위치 작동";
+            btn.classList.toggle("active", killSwitchOn);
         })
-        .catch(err => console.error("profit 오류:", err));
+        .catch(err => console.error("risk 오류:", err));
 }
 
+document.getElementById("killSwitchBtn").addEventListener("click", async () => {
+    const enabled = !killSwitchOn;
+    if (enabled && !confirm("신규 매수를 모두 중단합니다. 계속할까요?")) return;
+
+    await fetch("/api/dashboard/risk/kill", {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ enabled, reason: "대시보드 수동 작동" })
+    });
+    updateRisk();
+});
+
 
 // ======================================================
 // 5) 로그 업데이트
@@ -256,12 +355,14 @@ function updateLogs() {
 // ======================================================
 setInterval(() => {
     updateStatus();
-    updateProfit();
+    updatePnl();
+    updateRisk();
     updateLogs();
 }, 1500);
 
 
 // 첫 1회 즉시 실행
 updateStatus();
-updateProfit();
+updatePnl();
+updateRisk();
 updateLogs();
@@ -0,0 +1,417 @@
+package com.ljw.sockautobot;
+
+import com.ljw.sockautobot.controller.TradeDashboardController;
+import com.ljw.sockautobot.service.AutoTradeService;
+import com.ljw.sockautobot.service.ProfitTracker;
+import com.ljw.sockautobot.store.TradeJournal;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.HdrHistogram.Histogram;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 부하/내구(soak) 테스트 — 로컬 시뮬레이터 상대로 거래일 하루(09:00~15:30 = 23,400틱)를 100배속으로
+ *
+ * - 매매 루프(autoTrade → 계산기 → 주문 → ProfitTracker)를 틱 간격 10ms 로 직접 호출 (스케줄러는 trade.cron=- 로 끔)
+ * - 시세는 cycle 피드(규칙적 상승/하락) → 매수/매도/체결/저널 기록 경로가 실제로 돈다
+ *   (벽시계 기준 설정은 배속만큼 조정: 주문 수 제한 분당 10건 × 100, 미체결 정정 대기 5초 / 100)
+ *   손실/낙폭 한도는 풀어 둔다 — 피드가 수익을 보장하지 않으므로 한도에 걸려 매매가 멈추면 경로 검증이 안 됨
+ * - 대시보드 폴링도 같은 배속으로 (1.5초 → 15ms): /status(ETag + since), /pnl, /risk, /logs
+ * - 측정: 틱 처리 시간 분포, GC 멈춤(System.gc() 제외), 매매 스레드 할당량, 워밍업 후 힙 증가량(GC 직후 기준)
+ * - 기준을 넘으면 실패 → build/reports/soak/soak.json 에 결과
+ *   성능 기준(틱 지연 / GC / 할당 / 힙)은 -Dsoak.perf-limits=false 면 측정만 (soakCheck — CI 부하에 흔들리지 않게)
+ * - 매매 검증: 체결(매수/매도)이 충분히 나왔는지, 거래 로그가 틱 수에 비례해 불어나지 않는지,
+ *   저널 재생 결과(체결 건수 / 미체결)가 메모리 상태와 맞는지
+ *
+ * 기본 빌드(gradle test)에서는 빠지고 gradle soakTest(하루 전체) / gradle check(soakCheck, 3,000틱)로 실행.
+ * 배속/틱 수/기준은 -Dsoak.* 로 조정 (예: gradle soakTest -Dsoak.ticks=3000)
+ */
+@Tag("soak")
+@ActiveProfiles("sim")
+@SpringBootTest(properties = {
+        "kis.simulator.port=18480",
+        "kis.base-url=http://localhost:18480",
+        "kis.real-base-url=http://localhost:18480",
+        "kis.simulator.latency-ms=0",
+        "kis.simulator.jitter-ms=0",
+        "kis.simulator.feed=cycle",
+        "risk.max-orders-per-minute=1000",
+        "order.replace-timeout-ms=50",
+        "risk.max-daily-loss=1000000000",
+        "risk.max-drawdown=1000000000",
+        "kis.rate.virtual-max-per-second=100000",
+        "kis.rate.initial-per-second=100000",
+        "kis.token-file=build/soak/token.json",
+        "tickstore.dir=build/soak/ticks",
+        "journal.dir=build/soak/journal",
+        "bus.enabled=false",
+        "session.enforce-hours=false",
+        "trade.cron=-",
+        "watchlist.cron=-"
+})
+class SoakTest {
+
+    private static final Path JOURNAL_DIR = Path.of("build/soak/journal");
+
+    private static final long TRADING_DAY_TICKS = 6 * 3600 + 30 * 60;   // 09:00~15:30, 1초 1틱
+    private static final long DASHBOARD_POLL_MS = 1500;                 // dashboard.js 폴링 주기
+
+    @Autowired
+    private AutoTradeService autoTrade;
+
+    @Autowired
+    private ProfitTracker profitTracker;
+
+    @Autowired
+    private TradeDashboardController dashboard;
+
+    // 지난 실행의 당일 저널이 재생되면 포지션/체결 수가 섞인다 → 컨텍스트 기동 전에 비움
+    @BeforeAll
+    static void clearJournal() throws Exception {
+        if (!Files.isDirectory(JOURNAL_DIR)) return;
+        try (Stream<Path> files = Files.list(JOURNAL_DIR)) {
+            for (Path f : files.toList()) Files.delete(f);
+        }
+    }
+
+    @Test
+    void tradingDayAtAcceleratedSpeed() throws Exception {
+
+        double speed = Double.parseDouble(System.getProperty("soak.speed", "100"));
+        long ticks = Long.getLong("soak.ticks", TRADING_DAY_TICKS);
+        long warmupTicks = Math.max(ticks / 10, 1);
+
+        long tickPeriodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / speed);
+        long pollPeriodNanos = (long) (TimeUnit.MILLISECONDS.toNanos(DASHBOARD_POLL_MS) / speed);
+
+        awaitReady();
+
+        // 틱마다 찍는 로그는 버리되 양은 잰다 (포맷/할당 비용은 그대로 측정에 포함)
+        CountingStream out = new CountingStream();
+        CountingStream err = new CountingStream();
+        PrintStream origOut = System.out;
+        PrintStream origErr = System.err;
+
+        Histogram tickMicros = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+        Histogram pollMicros = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+        GcPauses gc = new GcPauses();
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tradeThread = Thread.currentThread().getId();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong polls = new AtomicLong();
+        AtomicLong pollAllocated = new AtomicLong();
+        Thread poller = new Thread(() -> pollDashboard(running, pollPeriodNanos, pollMicros, polls, pollAllocated, threads),
+                "soak-dashboard");
+
+        long baselineHeap = 0;
+        long heapAtEnd;
+        long allocStart = 0;
+        long measureStart = 0;
+        long errLinesAtWarmup = 0;
+        List<Long> heapSamples = new ArrayList<>();
+
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            poller.start();
+
+            long next = System.nanoTime();
+            for (long i = 0; i < ticks; i++) {
+
+                if (i == warmupTicks) {
+                    baselineHeap = usedHeapAfterGc();
+                    heapSamples.add(baselineHeap);
+                    tickMicros.reset();
+                    gc.start();
+                    errLinesAtWarmup = err.lines.get();
+                    out.bytes.set(0);
+                    allocStart = threads.getThreadAllocatedBytes(tradeThread);
+                    measureStart = System.nanoTime();
+                    next = measureStart;
+                }
+
+                long t0 = System.nanoTime();
+                autoTrade.autoTrade();
+                tickMicros.recordValue(Math.max(1, (System.nanoTime() - t0) / 1000));
+
+                // 측정 구간을 10 등분해 힙 추세 기록
+                if (i > warmupTicks && (i - warmupTicks) % Math.max((ticks - warmupTicks) / 10, 1) == 0) {
+                    heapSamples.add(usedHeapAfterGc());
+                }
+
+                next += tickPeriodNanos;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) LockSupport.parkNanos(sleep);
+                else next = System.nanoTime();   // 밀리면 따라잡지 않고 다음 틱부터 다시 맞춘다
+            }
+        } finally {
+            running.set(false);
+            poller.join(10_000);
+            gc.stop();
+            System.setOut(origOut);
+            System.setErr(origErr);
+        }
+
+        long measuredTicks = ticks - warmupTicks;
+        double elapsedSec = (System.nanoTime() - measureStart) / 1e9;
+        long allocated = threads.getThreadAllocatedBytes(tradeThread) - allocStart;
+        heapAtEnd = usedHeapAfterGc();
+        heapSamples.add(heapAtEnd);
+
+        long heapGrowth = heapAtEnd - baselineHeap;
+        long allocPerTick = allocated / Math.max(measuredTicks, 1);
+        long errLines = err.lines.get() - errLinesAtWarmup;
+
+        // 저널 재생 (별도 인스턴스 — 루프가 끝나 더 쓰는 곳 없음)
+        TradeJournal replay = new TradeJournal(JOURNAL_DIR.toString(), true, 0);
+        replay.open();
+        TradeJournal.Recovered journal = replay.getRecovered();
+        replay.close();
+
+        long buys = journal.getFills().stream().filter(TradeJournal.Fill::buy).count();
+        long sells = journal.getFills().size() - buys;
+        int tradeLogs = profitTracker.getLogs().size();
+
+
+        // --------------------------------------------------------
+        // 결과
+        // --------------------------------------------------------
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("speed", speed);
+        report.put("ticks", ticks);
+        report.put("measuredTicks", measuredTicks);
+        report.put("elapsedSec", round(elapsedSec));
+        report.put("tickP50Ms", ms(tickMicros, 50));
+        report.put("tickP99Ms", ms(tickMicros, 99));
+        report.put("tickP999Ms", ms(tickMicros, 99.9));
+        report.put("tickMaxMs", tickMicros.getMaxValue() / 1000.0);
+        report.put("gcPauses", gc.pauses.getTotalCount());
+        report.put("gcPauseP99Ms", gc.pauses.getValueAtPercentile(99));
+        report.put("gcPauseMaxMs", gc.pauses.getMaxValue());
+        report.put("gcPauseTotalMs", gc.totalMs.get());
+        report.put("allocPerTickKb", allocPerTick / 1024);
+        report.put("allocRateMbPerSec", round(allocated / 1048576.0 / elapsedSec));
+        report.put("dashboardPolls", polls.get());
+        report.put("dashboardPollP99Ms", ms(pollMicros, 99));
+        report.put("dashboardAllocPerPollKb", polls.get() == 0 ? 0 : pollAllocated.get() / polls.get() / 1024);
+        report.put("heapBaselineMb", mb(baselineHeap));
+        report.put("heapEndMb", mb(heapAtEnd));
+        report.put("heapGrowthMb", mb(heapGrowth));
+        report.put("heapSamplesMb", heapSamples.stream().map(SoakTest::mb).toList());
+        report.put("stdoutBytesPerTick", out.bytes.get() / Math.max(measuredTicks, 1));
+        report.put("stderrLines", errLines);
+        report.put("tradeLogs", tradeLogs);
+        report.put("buyFills", buys);
+        report.put("sellFills", sells);
+        report.put("journalOpenOrders", journal.getOpenOrders().size());
+        report.put("totalProfit", profitTracker.getTotalProfit());
+
+        Path file = Path.of("build/reports/soak/soak.json");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, new JSONObject(report).toString(2));
+        System.out.println("📊 [SOAK] " + new JSONObject(report).toString(2));
+
+
+        // --------------------------------------------------------
+        // 기준 (회귀 시 실패)
+        // --------------------------------------------------------
+        List<String> failures = new ArrayList<>();
+        if (Boolean.parseBoolean(System.getProperty("soak.perf-limits", "true"))) {
+            check(failures, "tick p99", ms(tickMicros, 99), limit("soak.max-tick-p99-ms", 25), "ms");
+            check(failures, "tick p99.9", ms(tickMicros, 99.9), limit("soak.max-tick-p999-ms", 100), "ms");
+            check(failures, "GC 멈춤 최대", gc.pauses.getMaxValue(), limit("soak.max-gc-pause-ms", 100), "ms");
+            check(failures, "틱당 할당", allocPerTick / 1024.0, limit("soak.max-alloc-per-tick-kb", 512), "KB");
+            check(failures, "힙 증가", mb(heapGrowth), limit("soak.max-heap-growth-mb", 32), "MB");
+        }
+        check(failures, "stderr 줄 수", errLines, limit("soak.max-error-lines", measuredTicks / 100.0), "");
+
+        // cycle 피드 한 주기(40틱)마다 왕복 1회가 기대치 — 그 1/5 도 못 미치면 매매 경로가 막힌 것
+        long minRoundTrips = Math.max(1, (long) limit("soak.min-round-trips", ticks / 200.0));
+        if (buys < minRoundTrips || sells < minRoundTrips) {
+            failures.add("체결 부족 — 매수 " + buys + " / 매도 " + sells + " < " + minRoundTrips);
+        }
+        if (tradeLogs < buys + sells) failures.add("거래 로그 " + tradeLogs + "건 < 체결 " + (buys + sells) + "건");
+        check(failures, "거래 로그", tradeLogs, ticks / 4.0, "건");
+        int pending = autoTrade.hasPendingOrder() ? 1 : 0;
+        if (journal.getOpenOrders().size() != pending) {
+            failures.add("저널 미체결 " + journal.getOpenOrders().size() + "건 ≠ 추적 중 " + pending + "건");
+        }
+
+        assertTrue(failures.isEmpty(), "soak 기준 초과: " + failures);
+    }
+
+
+    // ============================================================
+    // 🔵 대시보드 폴링 (dashboard.js 와 같은 순서: ETag + since)
+    // ============================================================
+    private void pollDashboard(AtomicBoolean running, long periodNanos, Histogram micros,
+                               AtomicLong polls, AtomicLong allocated,
+                               com.sun.management.ThreadMXBean threads) {
+        long self = Thread.currentThread().getId();
+        String etag = null;
+        long next = System.nanoTime();
+
+        while (running.get()) {
+            long a0 = threads.getThreadAllocatedBytes(self);
+            long t0 = System.nanoTime();
+
+            ResponseEntity<byte[]> status = dashboard.getStatus(etag, etag, "application/json");
+            String newTag = status.getHeaders().getFirst(HttpHeaders.ETAG);
+            if (newTag != null) etag = newTag;
+            dashboard.getPnl();
+            dashboard.getRisk();
+            dashboard.getLogs();
+
+            micros.recordValue(Math.max(1, (System.nanoTime() - t0) / 1000));
+            allocated.addAndGet(threads.getThreadAllocatedBytes(self) - a0);
+            polls.incrementAndGet();
+
+            next += periodNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) LockSupport.parkNanos(sleep);
+            else next = System.nanoTime();
+        }
+    }
+
+
+    // ============================================================
+    // 🔵 측정 도구
+    // ============================================================
+    private void awaitReady() throws Exception {
+        // 기동 시 TradingSessionScheduler 가 initDaily 를 돌린다 — 늦으면 직접
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!autoTrade.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        if (!autoTrade.isReady()) autoTrade.initDaily();
+        assertTrue(autoTrade.isReady(), "initDaily 실패 — 시뮬레이터 연결 확인");
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /** 세대별 GC 의 멈춤 시간 (동시 수행 GC / System.gc() 는 제외) */
+    private static final class GcPauses implements NotificationListener {
+
+        final Histogram pauses = new Histogram(60_000, 3);   // ms
+        final AtomicLong totalMs = new AtomicLong();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+        void start() {
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (bean instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(this, null, null);
+                    emitters.add(emitter);
+                }
+            }
+        }
+
+        void stop() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (Exception ignored) {
+                }
+            }
+            emitters.clear();
+        }
+
+        @Override
+        public void handleNotification(Notification n, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(n.getType())) return;
+
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+            if ("System.gc()".equals(info.getGcCause())) return;
+            if (info.getGcName().contains("Concurrent") || info.getGcAction().contains("concurrent")) return;
+
+            long duration = info.getGcInfo().getDuration();
+            synchronized (pauses) {
+                pauses.recordValue(Math.max(duration, 0));
+            }
+            totalMs.addAndGet(duration);
+        }
+    }
+
+    /** 버리는 출력 — 바이트 수와 줄 수만 */
+    private static final class CountingStream extends OutputStream {
+
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong lines = new AtomicLong();
+
+        @Override
+        public void write(int b) {
+            bytes.incrementAndGet();
+            if (b == '\n') lines.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes.addAndGet(len);
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines.incrementAndGet();
+            }
+        }
+    }
+
+    private static double limit(String key, double defaultValue) {
+        return Double.parseDouble(System.getProperty(key, String.valueOf(defaultValue)));
+    }
+
+    private static void check(List<String> failures, String name, double value, double limit, String unit) {
+        if (value > limit) failures.add(name + " " + round(value) + unit + " > " + round(limit) + unit);
+    }
+
+    private static double ms(Histogram h, double percentile) {
+        return h.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double mb(long bytes) {
+        return round(bytes / 1048576.0);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ljw.sockautobot.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 일괄 계산(IndicatorBatch) == 같은 데이터를 증분 지표에 순서대로 넣은 결과
+ */
+class IndicatorBatchTest {
+
+    private static final double EPS = 1e-9;
+
+    // 추세 + 진동 + 보합 구간 (고정 시계열)
+    private static final double[] PRICES = prices(300);
+
+    private static double[] prices(int n) {
+        double[] p = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (i >= 120 && i < 140) {
+                p[i] = p[119];                                     // 보합 (상승/하락폭 0)
+            } else {
+                p[i] = 100 + 0.05 * i + 3 * Math.sin(i * 0.3) + ((i * 37) % 11) * 0.1;
+            }
+        }
+        return p;
+    }
+
+    @Test
+    void emaMatchesIncremental() {
+        double[] batch = new double[PRICES.length];
+        IndicatorBatch.ema(PRICES, 20, batch);
+
+        Ema ema = new Ema(20);
+        for (int i = 0; i < PRICES.length; i++) {
+            assertEquals(ema.update(PRICES[i]), batch[i], EPS, "EMA @" + i);
+        }
+    }
+
+    @Test
+    void rsiMatchesIncremental() {
+        double[] batch = new double[PRICES.length];
+        IndicatorBatch.rsi(PRICES, 14, batch);
+
+        Rsi rsi = new Rsi(14);
+        for (int i = 0; i < PRICES.length; i++) {
+            assertEquals(rsi.update(PRICES[i]), batch[i], EPS, "RSI @" + i);
+        }
+    }
+
+    @Test
+    void macdMatchesIncremental() {
+        int n = PRICES.length;
+        double[] macd = new double[n];
+        double[] signal = new double[n];
+        double[] hist = new double[n];
+        IndicatorBatch.macd(PRICES, 12, 26, 9, macd, signal, hist);
+
+        Macd inc = new Macd(12, 26, 9);
+        for (int i = 0; i < n; i++) {
+            inc.update(PRICES[i]);
+            assertEquals(inc.getMacd(), macd[i], EPS, "MACD @" + i);
+            assertEquals(inc.getSignal(), signal[i], EPS, "signal @" + i);
+            assertEquals(inc.getHistogram(), hist[i], EPS, "histogram @" + i);
+        }
+    }
+
+    @Test
+    void bollingerMatchesIncremental() {
+        int n = PRICES.length;
+        double[] middle = new double[n];
+        double[] upper = new double[n];
+        double[] lower = new double[n];
+        IndicatorBatch.bollinger(PRICES, 20, 2.0, middle, upper, lower);
+
+        BollingerBands bb = new BollingerBands(20, 2.0);
+        for (int i = 0; i < n; i++) {
+            bb.update(PRICES[i]);
+            assertEquals(bb.getMiddle(), middle[i], EPS, "middle @" + i);
+            assertEquals(bb.getUpper(), upper[i], EPS, "upper @" + i);
+            assertEquals(bb.getLower(), lower[i], EPS, "lower @" + i);
+        }
+    }
+
+    @Test
+    void vwapMatchesIncrementalAcrossSessionReset() {
+        int n = PRICES.length;
+        double[] cumVolume = new double[n];
+        double acc = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 200) acc = 0;                                 // 누적 거래량 감소 = 새 세션
+            acc += (i % 7 == 0) ? 0 : 100 + (i % 13) * 10;          // 거래 없는 틱 포함
+            cumVolume[i] = acc;
+        }
+
+        double[] batch = new double[n];
+        IndicatorBatch.vwap(PRICES, cumVolume, batch);
+
+        Vwap vwap = new Vwap();
+        for (int i = 0; i < n; i++) {
+            assertEquals(vwap.update(PRICES[i], cumVolume[i]), batch[i], EPS, "VWAP @" + i);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ljw.sockautobot.market;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 거래량 스파이크는 누적 거래량이 아니라 시세 간 증분으로 판정
+ */
+class SymbolSlabTest {
+
+    private static final String SYMBOL = "005930";
+
+    @Test
+    void volumeSpikeUsesPerQuoteDeltas() {
+        SymbolSlab slab = new SymbolSlab(List.of(SYMBOL));
+        int id = slab.id(SYMBOL);
+
+        // 누적 거래량이 매번 1,000 씩 일정하게 증가 → 스파이크 아님
+        long cum = 500_000;
+        long t = 1;
+        for (int i = 0; i < SymbolSlab.WINDOW + 5; i++) {
+            cum += 1_000;
+            slab.update(id, quote(cum, t++));
+        }
+        assertEquals(1_000, slab.volume(id, 0), 1e-9);
+        assertFalse(slab.isVolumeSpike(id));
+
+        // 한 번에 5,000 → 스파이크
+        cum += 5_000;
+        slab.update(id, quote(cum, t++));
+        assertTrue(slab.isVolumeSpike(id));
+
+        // 다시 평소 수준 → 해제
+        cum += 1_000;
+        slab.update(id, quote(cum, t));
+        assertFalse(slab.isVolumeSpike(id));
+    }
+
+    private static Quote quote(long cumVolume, long fetchedAt) {
+        return new Quote(SYMBOL, 70_000, cumVolume, 100, 1_000, 1_000, fetchedAt);
+    }
+}
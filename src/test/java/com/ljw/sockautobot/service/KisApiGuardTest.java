@@ -0,0 +1,56 @@
+package com.ljw.sockautobot.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 브레이커 시험 요청(HALF_OPEN)이 결과 없이 끝나도 브레이커가 갇히지 않는지
+ */
+class KisApiGuardTest {
+
+    private static final long OPEN_MS = 50;
+
+    private final KisIoExecutor io = new KisIoExecutor(false, 2);
+    private final KisApiGuard guard = new KisApiGuard(
+            new KisRateLimiter("virtual", 1000, 1000, 1000), io, 1, OPEN_MS, OPEN_MS);
+
+    @AfterEach
+    void close() {
+        io.close();
+    }
+
+    @Test
+    void cancelledAsyncProbeReleasesHalfOpenBreaker() throws Exception {
+        openBreaker();
+
+        // 시험 요청이 응답 전에 block 타임아웃으로 구독 취소됨
+        Mono<String> probe = guard.callAsync("price", Mono::never);
+        assertThrows(IllegalStateException.class, () -> probe.block(Duration.ofMillis(100)));
+
+        assertEquals("ok", guard.call("price", () -> "ok"));
+    }
+
+    @Test
+    void releasedUnusedPermitReleasesHalfOpenBreaker() throws Exception {
+        openBreaker();
+
+        KisApiGuard.Permit permit = guard.acquire("price");   // 시험 요청 자리
+        guard.release(permit);
+
+        assertEquals("ok", guard.call("price", () -> "ok"));
+    }
+
+    private void openBreaker() throws Exception {
+        assertThrows(ResourceAccessException.class,
+                () -> guard.call("price", () -> { throw new ResourceAccessException("timeout"); }));
+        assertThrows(KisApiGuard.CircuitOpenException.class, () -> guard.call("price", () -> "ok"));
+        Thread.sleep(OPEN_MS + 20);
+    }
+}
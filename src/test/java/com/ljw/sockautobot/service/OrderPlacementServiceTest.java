@@ -0,0 +1,121 @@
+package com.ljw.sockautobot.service;
+
+import com.ljw.sockautobot.api.KisTradeClientApi;
+import com.ljw.sockautobot.market.OrderBook;
+import com.ljw.sockautobot.store.TradeJournal;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 정정/취소가 거부되면 원주문을 계속 추적하는지, 전송 예외가 저널에 열린 INTENT 를 남기지 않는지
+ */
+class OrderPlacementServiceTest {
+
+    private static final String SYMBOL = "005930";
+
+    private final KisTradeClientApi tradeClient = mock(KisTradeClientApi.class);
+    private final KisIoExecutor io = new KisIoExecutor(false, 2);
+    private final KisApiGuard guard = new KisApiGuard(
+            new KisRateLimiter("virtual", 1000, 1000, 1000), io, 5, 5000, 5000);
+
+    private OrderPlacementService placement;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(tradeClient.buyStock(anyString(), anyString(), anyString(), anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(accepted("0000000001"));
+    }
+
+    @AfterEach
+    void close() {
+        io.close();
+    }
+
+    @Test
+    void rejectedCancelKeepsTrackingTheLiveOrder() throws Exception {
+        placement = newPlacement(0);   // 정정 없이 바로 취소
+        buy();
+        when(tradeClient.cancelOrder(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(rejected("EGW00201", "초당 거래건수를 초과하였습니다."));
+
+        placement.replaceIfUnfilled(guard.acquire("order-rvsecncl"), "t", "k", "s", "a", 0, new OrderBook());
+        assertTrue(placement.hasPending());
+
+        when(tradeClient.cancelOrder(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(accepted("0000000001"));
+        placement.replaceIfUnfilled(guard.acquire("order-rvsecncl"), "t", "k", "s", "a", 0, new OrderBook());
+        assertFalse(placement.hasPending());
+    }
+
+    @Test
+    void rejectedReviseKeepsTrackingAndFillEndsIt() throws Exception {
+        placement = newPlacement(2);
+        buy();
+        when(tradeClient.reviseOrder(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(),
+                anyInt(), anyInt()))
+                .thenReturn(rejected("APBK0506", "정정/취소할 주문이 없습니다."));
+
+        placement.replaceIfUnfilled(guard.acquire("order-rvsecncl"), "t", "k", "s", "a", 0, new OrderBook());
+        assertTrue(placement.hasPending());
+
+        placement.onPosition(1);   // 잔고로 체결 확인
+        assertFalse(placement.hasPending());
+    }
+
+    @Test
+    void failedSendDoesNotLeaveAnOpenIntent(@TempDir Path dir) throws Exception {
+        TradeJournal journal = new TradeJournal(dir.toString(), true, 0);
+        journal.open();
+        placement = newPlacement(2, journal);
+        when(tradeClient.buyStock(anyString(), anyString(), anyString(), anyString(), anyString(), anyInt(), anyInt()))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertThrows(ResourceAccessException.class, () -> placement.placeBuy(guard.acquire("order"),
+                "t", "k", "s", "a", SYMBOL, 1, 0, new OrderBook(), 70_000));
+        assertFalse(placement.hasPending());
+        journal.close();
+
+        TradeJournal reopened = new TradeJournal(dir.toString(), true, 0);
+        reopened.open();
+        assertEquals(0, reopened.getRecovered().getOpenOrders().size());   // UNKNOWN 으로 닫힘
+        reopened.close();
+    }
+
+    private OrderPlacementService newPlacement(int maxReplaces) {
+        return newPlacement(maxReplaces, new TradeJournal("build/unused-journal", false, 0));
+    }
+
+    private OrderPlacementService newPlacement(int maxReplaces, TradeJournal journal) {
+        return new OrderPlacementService(tradeClient, new RiskEngine(3, 5_000_000, 200_000, 300_000, 100), guard,
+                journal, mock(EngineBusPublisher.class), 0, maxReplaces);
+    }
+
+    private void buy() throws Exception {
+        placement.placeBuy(guard.acquire("order"), "t", "k", "s", "a", SYMBOL, 1, 0, new OrderBook(), 70_000);
+        assertTrue(placement.hasPending());
+    }
+
+    private static JSONObject accepted(String orderNo) {
+        return new JSONObject().put("rt_cd", "0").put("msg_cd", "APBK0013")
+                .put("output", new JSONObject().put("KRX_FWDG_ORD_ORGNO", "00950").put("ODNO", orderNo));
+    }
+
+    private static JSONObject rejected(String msgCd, String msg) {
+        return new JSONObject().put("rt_cd", "1").put("msg_cd", msgCd).put("msg1", msg);
+    }
+}
@@ -0,0 +1,95 @@
+package com.ljw.sockautobot.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 틱 블록 인코딩 왕복 / 끊긴 꼬리 복구
+ */
+class TickStoreTest {
+
+    private static final String SYMBOL = "005930";
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 3);
+    private static final long OPEN = DAY.atTime(9, 0).atZone(ZoneId.of("Asia/Seoul")).toInstant().toEpochMilli();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void blockRoundTrip() {
+        // 가격이 오르내리고(음수 차분) 거래량이 크게 뛰는 구간 포함
+        long[] times = {OPEN, OPEN + 1_000, OPEN + 1_000, OPEN + 2_500, OPEN + 60_000};
+        long[] prices = {200_000, 199_500, 201_000, 201_000, 150};
+        long[] volumes = {0, 12, 5_000_000_000L, 5_000_000_007L, 5_000_000_007L};
+
+        ByteBuffer block = TickBlockCodec.encode(times, prices, volumes, times.length);
+
+        TickSeries all = new TickSeries();
+        assertEquals(block.limit(), TickBlockCodec.decode(block, 0, Long.MIN_VALUE, Long.MAX_VALUE, all));
+        assertArrayEquals(times, all.timeColumn());
+        assertArrayEquals(volumes, all.volumeColumn());
+        assertArrayEquals(Arrays.stream(prices).asDoubleStream().toArray(), all.priceColumn());
+
+        // 구간 조회는 해당 틱만
+        TickSeries part = new TickSeries();
+        TickBlockCodec.decode(block, 0, OPEN + 1_000, OPEN + 2_500, part);
+        assertArrayEquals(new long[]{OPEN + 1_000, OPEN + 1_000, OPEN + 2_500}, part.timeColumn());
+
+        // 헤더만 온전하고 본문이 잘린 블록은 손상으로
+        ByteBuffer torn = ByteBuffer.wrap(Arrays.copyOf(block.array(), block.limit() - 1));
+        assertEquals(-1, TickBlockCodec.decode(torn, 0, Long.MIN_VALUE, Long.MAX_VALUE, new TickSeries()));
+        assertEquals(0, TickBlockCodec.validLength(torn));
+    }
+
+    @Test
+    void reopenTruncatesTornTailAndKeepsAppending() throws Exception {
+        TickStore store = new TickStore(dir.toString(), 16);
+        for (int i = 0; i < 40; i++) {
+            store.append(SYMBOL, OPEN + i * 1_000L, 200_000 + i, i * 10L);
+        }
+        store.close();
+
+        Path file = dir.resolve("20260303").resolve(SYMBOL + ".tck");
+        long goodSize = Files.size(file);
+
+        // 기록 도중 죽은 것처럼 블록 앞부분만 붙인다
+        ByteBuffer block = TickBlockCodec.encode(new long[]{OPEN + 99_000}, new long[]{1}, new long[]{1}, 1);
+        Files.write(file, Arrays.copyOf(block.array(), TickBlockCodec.HEADER_BYTES + 1), StandardOpenOption.APPEND);
+
+        // 닫힌 파일 그대로 읽어도 온전한 블록까지는 나온다
+        assertEquals(40, new TickStore(dir.toString(), 16).day(SYMBOL, DAY).size());
+
+        TickStore reopened = new TickStore(dir.toString(), 16);
+        for (int i = 40; i < 60; i++) {
+            reopened.append(SYMBOL, OPEN + i * 1_000L, 200_000 + i, i * 10L);
+        }
+        reopened.flush();
+
+        TickSeries day = reopened.day(SYMBOL, DAY);
+        reopened.close();
+
+        assertEquals(60, day.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals(OPEN + i * 1_000L, day.time(i));
+            assertEquals(200_000 + i, day.price(i));
+        }
+
+        // 끊긴 꼬리는 사라지고 새 블록이 바로 뒤에 붙었다
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(bytes.limit(), TickBlockCodec.validLength(bytes));
+        assertEquals(60, new TickStore(dir.toString(), 16).day(SYMBOL, DAY).size());
+        assertTrue(bytes.limit() > goodSize);
+    }
+}
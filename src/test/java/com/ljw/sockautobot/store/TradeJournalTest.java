@@ -0,0 +1,80 @@
+package com.ljw.sockautobot.store;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 저널 재생: 해석 불가 레코드는 건너뛰고, 길이/CRC 가 깨진 꼬리만 잘라낸다
+ */
+class TradeJournalTest {
+
+    private static final String SYMBOL = "005930";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaySkipsUnreadableRecordAndTruncatesOnlyTornTail() throws Exception {
+        TradeJournal journal = new TradeJournal(dir.toString(), true, 0);
+        journal.open();
+        String cid = journal.intent("NEW", SYMBOL, true, 10, 70_000, 10, null);
+        journal.fill(SYMBOL, true, 10, 70_000, 10, 70_000, 0);
+        journal.close();
+
+        Path file = dir.resolve(LocalDate.now(ZoneId.of("Asia/Seoul")).format(DateTimeFormatter.BASIC_ISO_DATE) + ".wal");
+
+        // CRC 는 맞지만 해석할 수 없는 레코드 → 그 뒤의 정상 기록 → 잘린 꼬리
+        appendRecord(file, "{\"k\":\"BOGUS\",\"t\":0}");
+        appendRecord(file, new JSONObject()
+                .put("k", "FILL").put("t", System.currentTimeMillis()).put("symbol", SYMBOL).put("side", "SELL")
+                .put("qty", 10).put("price", 71_000).put("holding", 0).put("avg", 0).put("realized", 10_000)
+                .toString());
+        long intact = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 1, 0, 1, 2}, StandardOpenOption.APPEND);
+
+        TradeJournal reopened = new TradeJournal(dir.toString(), true, 0);
+        reopened.open();
+        TradeJournal.Recovered r = reopened.getRecovered();
+
+        assertEquals(2, r.getFills().size());
+        assertEquals(0, r.positionQty(SYMBOL));
+        assertEquals(10_000, r.getRealizedProfit(), 1e-9);
+        assertEquals(1, r.getOpenOrders().size());                 // ACK/DONE 없는 INTENT
+        assertEquals(cid, r.getOpenOrders().iterator().next().cid);
+        assertEquals(intact, Files.size(file));
+
+        // 잘라낸 위치부터 이어 쓴다
+        reopened.done(cid, "test");
+        reopened.fill(SYMBOL, true, 1, 70_500, 1, 70_500, 0);
+        reopened.close();
+
+        TradeJournal again = new TradeJournal(dir.toString(), true, 0);
+        again.open();
+        assertEquals(3, again.getRecovered().getFills().size());
+        assertEquals(0, again.getRecovered().getOpenOrders().size());
+        again.close();
+    }
+
+    private static void appendRecord(Path file, String json) throws Exception {
+        byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer rec = ByteBuffer.allocate(8 + payload.length);
+        rec.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        Files.write(file, rec.array(), StandardOpenOption.APPEND);
+    }
+}